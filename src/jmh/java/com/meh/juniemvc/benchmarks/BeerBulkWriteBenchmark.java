@@ -0,0 +1,88 @@
+package com.meh.juniemvc.benchmarks;
+
+import com.meh.juniemvc.domain.BeerBulkResult;
+import com.meh.juniemvc.domain.BeerCreateRequest;
+import com.meh.juniemvc.services.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting many beers through the chunked, JDBC-batched bulk path versus one saveBeer call per beer.
+ * Every invocation writes fresh UPCs, so each measures a full load rather than duplicate checks.
+ * The embedded H2 answers in-process, so a round trip of 0 hides what batching saves; a non-zero
+ * round trip delays every statement execution and commit as a database across a network would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BeerBulkWriteBenchmark {
+
+    @Param({"50000"})
+    public int beerCount;
+
+    @Param({"0", "250"})
+    public int roundTripMicros;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private List<BeerCreateRequest> requests;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = roundTripMicros == 0
+                ? BenchmarkContexts.start(WebApplicationType.NONE)
+                : BenchmarkContexts.startWithRoundTrip(Duration.ofNanos(roundTripMicros * 1_000L));
+        beerService = context.getBean(BeerService.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void buildRequests() {
+        invocation++;
+        requests = new ArrayList<>(beerCount);
+        for (int i = 0; i < beerCount; i++) {
+            requests.add(new BeerCreateRequest("Bulk Beer " + i, "IPA",
+                    "BW" + invocation + "-" + i, i % 500, new BigDecimal("9.99")));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BeerBulkResult> saveBeersInBulk() {
+        return beerService.saveBeers(requests);
+    }
+
+    @Benchmark
+    public void saveBeersOneByOne(Blackhole blackhole) {
+        for (BeerCreateRequest request : requests) {
+            blackhole.consume(beerService.saveBeer(request));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.meh.juniemvc.benchmarks;
+
+import com.meh.juniemvc.domain.BeerCreateRequest;
+import com.meh.juniemvc.services.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * End-to-end GET /api/v1/beer/{beerId} through the DispatcherServlet, message converters and exception handling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerControllerBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private Integer beerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(WebApplicationType.SERVLET);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        beerId = context.getBean(BeerService.class)
+                .saveBeer(new BeerCreateRequest("Benchmark Beer", "IPA", "0631234000", 120, new BigDecimal("12.99")))
+                .id();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String getBeerById() throws Exception {
+        return mockMvc.perform(get("/api/v1/beer/{beerId}", beerId))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+
+    @Benchmark
+    public int getMissingBeer() throws Exception {
+        return mockMvc.perform(get("/api/v1/beer/{beerId}", Integer.MAX_VALUE))
+                .andReturn()
+                .getResponse()
+                .getStatus();
+    }
+}
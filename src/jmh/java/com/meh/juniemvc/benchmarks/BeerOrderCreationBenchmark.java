@@ -0,0 +1,91 @@
+package com.meh.juniemvc.benchmarks;
+
+import com.meh.juniemvc.api.model.BeerDto;
+import com.meh.juniemvc.api.model.BeerOrderDto;
+import com.meh.juniemvc.api.model.BeerOrderLineDto;
+import com.meh.juniemvc.api.model.CustomerDto;
+import com.meh.juniemvc.domain.Beer;
+import com.meh.juniemvc.domain.Customer;
+import com.meh.juniemvc.domain.OrderStatus;
+import com.meh.juniemvc.repositories.BeerRepository;
+import com.meh.juniemvc.repositories.CustomerRepository;
+import com.meh.juniemvc.services.BeerOrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating a beer order through BeerOrderServiceImpl, which inserts the order and all of its lines.
+ * Compare runs before and after a change to ID generation or JDBC batching settings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerOrderCreationBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int lineCount;
+
+    private ConfigurableApplicationContext context;
+    private BeerOrderService beerOrderService;
+    private BeerOrderDto beerOrderDto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(WebApplicationType.NONE);
+        beerOrderService = context.getBean(BeerOrderService.class);
+
+        Customer customer = context.getBean(CustomerRepository.class).save(Customer.builder()
+                .name("Benchmark Customer")
+                .email("benchmark@example.com")
+                .build());
+        List<Beer> beers = new ArrayList<>();
+        for (int i = 0; i < lineCount; i++) {
+            Beer beer = BenchmarkContexts.beer(i + 1, LocalDateTime.now());
+            beer.setId(null);
+            beer.setVersion(null);
+            beers.add(beer);
+        }
+        beers = context.getBean(BeerRepository.class).saveAll(beers);
+
+        Set<BeerOrderLineDto> lines = new HashSet<>();
+        for (Beer beer : beers) {
+            BeerDto beerDto = new BeerDto(beer.getId(), null, null, null, null, null, null, null, null);
+            lines.add(new BeerOrderLineDto(null, null, beerDto, 6, 0));
+        }
+        CustomerDto customerDto = new CustomerDto(customer.getId(), null, customer.getName(), customer.getEmail(), null);
+        beerOrderDto = new BeerOrderDto(null, null, null, null, null, OrderStatus.NEW, customerDto, lines);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerOrderDto createBeerOrder() {
+        return beerOrderService.createBeerOrder(beerOrderDto);
+    }
+}
@@ -0,0 +1,94 @@
+package com.meh.juniemvc.benchmarks;
+
+import com.meh.juniemvc.domain.BeerCreateRequest;
+import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.domain.BeerPage;
+import com.meh.juniemvc.domain.BeerPageRequest;
+import com.meh.juniemvc.domain.BeerUpdateRequest;
+import com.meh.juniemvc.services.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BeerServiceImpl CRUD round trips against the embedded H2 database, including transactions and the beer cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerServiceBenchmark {
+
+    private static final int SEED_COUNT = 1000;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private Integer beerId;
+    private String upc;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(WebApplicationType.NONE);
+        beerService = context.getBean(BeerService.class);
+        for (int i = 0; i < SEED_COUNT; i++) {
+            BeerDto saved = beerService.saveBeer(createRequest());
+            beerId = saved.id();
+            upc = saved.upc();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDto getBeerById() {
+        return beerService.getBeerById(beerId).orElseThrow();
+    }
+
+    @Benchmark
+    public BeerDto getBeerByUpc() {
+        return beerService.getBeerByUpc(upc).orElseThrow();
+    }
+
+    @Benchmark
+    public BeerPage listBeers() {
+        return beerService.listBeers(new BeerPageRequest(null, "IPA", null, Sort.Direction.ASC, 25));
+    }
+
+    @Benchmark
+    public BeerDto updateBeer() {
+        return beerService.updateBeer(beerId, new BeerUpdateRequest(
+                "Benchmark Beer", "IPA", "0631234000", ++sequence % 500, new BigDecimal("12.99")));
+    }
+
+    @Benchmark
+    public boolean createAndDeleteBeer() {
+        BeerDto saved = beerService.saveBeer(createRequest());
+        return beerService.deleteBeer(saved.id());
+    }
+
+    private BeerCreateRequest createRequest() {
+        int n = ++sequence;
+        return new BeerCreateRequest("Benchmark Beer " + n, "IPA", "B" + n, 120, new BigDecimal("12.99"));
+    }
+}
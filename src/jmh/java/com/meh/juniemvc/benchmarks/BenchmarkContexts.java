@@ -0,0 +1,128 @@
+package com.meh.juniemvc.benchmarks;
+
+import com.meh.juniemvc.JunieMvcApplication;
+import com.meh.juniemvc.domain.Beer;
+import com.meh.juniemvc.domain.BeerOrder;
+import com.meh.juniemvc.domain.BeerOrderLine;
+import com.meh.juniemvc.domain.Customer;
+import com.meh.juniemvc.domain.OrderStatus;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Shared fixtures for the JMH benchmarks.
+ * Starts the application against the embedded H2 database and builds in-memory entity graphs.
+ */
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    /**
+     * Starts the full application context with no exposed HTTP port. Only warnings are logged, apart
+     * from what the benchmarks themselves log.
+     *
+     * @param webApplicationType SERVLET when a WebApplicationContext is needed (MockMvc), NONE otherwise
+     * @param profiles additional Spring profiles to activate
+     * @return the started context, to be closed in the benchmark's tear-down
+     */
+    static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... profiles) {
+        return new SpringApplicationBuilder(JunieMvcApplication.class)
+                .web(webApplicationType)
+                .profiles(profiles)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "logging.level.com.meh.juniemvc.benchmarks=INFO",
+                        "server.port=0")
+                .run();
+    }
+
+    /**
+     * Starts the application without a web server, with every database round trip delayed as if the
+     * database were across a network.
+     *
+     * @param roundTrip the delay added to each statement execution and each commit or rollback
+     * @return the started context, to be closed in the benchmark's tear-down
+     */
+    static ConfigurableApplicationContext startWithRoundTrip(Duration roundTrip) {
+        return new SpringApplicationBuilder(JunieMvcApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        // Wrap the pool itself, beneath the bulkhead
+                        return bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)
+                                ? new RoundTripLatencyDataSource(dataSource, roundTrip)
+                                : bean;
+                    }
+                }))
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    /**
+     * Builds a detached beer order with the given number of lines, each pointing at a distinct beer.
+     *
+     * @param lineCount the number of order lines
+     * @return the populated BeerOrder entity
+     */
+    static BeerOrder beerOrder(int lineCount) {
+        LocalDateTime now = LocalDateTime.now();
+        Customer customer = Customer.builder()
+                .id(1)
+                .version(0)
+                .name("Benchmark Customer")
+                .email("benchmark@example.com")
+                .createdDate(now)
+                .updateDate(now)
+                .build();
+
+        BeerOrder beerOrder = BeerOrder.builder()
+                .id(1)
+                .version(0)
+                .orderStatus(OrderStatus.NEW)
+                .customer(customer)
+                .createdDate(now)
+                .updateDate(now)
+                .build();
+
+        for (int i = 0; i < lineCount; i++) {
+            Beer beer = beer(i + 1, now);
+            beerOrder.addBeerOrderLine(BeerOrderLine.builder()
+                    .id(i + 1)
+                    .version(0)
+                    .beer(beer)
+                    .orderQuantity(6)
+                    .quantityAllocated(0)
+                    .createdDate(now)
+                    .updateDate(now)
+                    .build());
+        }
+        return beerOrder;
+    }
+
+    static Beer beer(int id, LocalDateTime now) {
+        return Beer.builder()
+                .id(id)
+                .version(0)
+                .beerName("Benchmark Beer " + id)
+                .beerStyle("IPA")
+                .upc("0631234" + id)
+                .quantityOnHand(120)
+                .price(new BigDecimal("12.99"))
+                .createdDate(now)
+                .updateDate(now)
+                .build();
+    }
+}
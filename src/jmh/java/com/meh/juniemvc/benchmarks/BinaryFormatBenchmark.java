@@ -0,0 +1,81 @@
+package com.meh.juniemvc.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meh.juniemvc.api.model.BeerOrderDto;
+import com.meh.juniemvc.mappers.BeerOrderMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of a beer order in each negotiable format, using the same mappers as the
+ * HTTP message converters. Payload sizes are logged once per trial.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"100"})
+    public int lineCount;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private BeerOrderDto beerOrderDto;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContexts.start(WebApplicationType.NONE);
+        objectMapper = switch (format) {
+            case "cbor" -> context.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+            case "smile" -> context.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper();
+            default -> context.getBean(ObjectMapper.class);
+        };
+        beerOrderDto = context.getBean(BeerOrderMapper.class)
+                .beerOrderToBeerOrderDto(BenchmarkContexts.beerOrder(lineCount));
+        encoded = encode();
+
+        log.info("{}: {} bytes", format, encoded.length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return objectMapper.writeValueAsBytes(beerOrderDto);
+    }
+
+    @Benchmark
+    public BeerOrderDto decode() throws IOException {
+        return objectMapper.readValue(encoded, BeerOrderDto.class);
+    }
+}
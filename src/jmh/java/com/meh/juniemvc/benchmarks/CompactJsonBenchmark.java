@@ -0,0 +1,83 @@
+package com.meh.juniemvc.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meh.juniemvc.api.model.BeerOrderDto;
+import com.meh.juniemvc.mappers.BeerOrderMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization time and bytes on the wire of a 500-line beer order, with the default settings and
+ * with the compact-json profile (null omission). The gzip benchmark adds the compression Tomcat
+ * applies under that profile; sizes are logged once per trial.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompactJsonBenchmark {
+
+    @Param({"default", "compact-json"})
+    public String profile;
+
+    @Param({"500"})
+    public int lineCount;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private BeerOrderDto beerOrderDto;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = profile.equals("default")
+                ? BenchmarkContexts.start(WebApplicationType.NONE)
+                : BenchmarkContexts.start(WebApplicationType.NONE, profile);
+        objectMapper = context.getBean(ObjectMapper.class);
+        beerOrderDto = context.getBean(BeerOrderMapper.class)
+                .beerOrderToBeerOrderDto(BenchmarkContexts.beerOrder(lineCount));
+
+        log.info("{}: {} bytes of JSON, {} bytes gzipped", profile, serialize().length, serializeAndGzip().length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(beerOrderDto);
+    }
+
+    @Benchmark
+    public byte[] serializeAndGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, beerOrderDto);
+        }
+        return bytes.toByteArray();
+    }
+}
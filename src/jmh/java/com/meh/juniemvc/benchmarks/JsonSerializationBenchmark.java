@@ -0,0 +1,71 @@
+package com.meh.juniemvc.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meh.juniemvc.api.model.BeerOrderDto;
+import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.mappers.BeerMapper;
+import com.meh.juniemvc.mappers.BeerOrderMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization cost of the API DTOs, using the ObjectMapper configured by Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int lineCount;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private BeerDto beerDto;
+    private BeerOrderDto beerOrderDto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(WebApplicationType.NONE);
+        objectMapper = context.getBean(ObjectMapper.class);
+        beerDto = context.getBean(BeerMapper.class)
+                .beerToBeerDto(BenchmarkContexts.beer(1, LocalDateTime.now()));
+        beerOrderDto = context.getBean(BeerOrderMapper.class)
+                .beerOrderToBeerOrderDto(BenchmarkContexts.beerOrder(lineCount));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serializeBeerDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(beerDto);
+    }
+
+    @Benchmark
+    public byte[] serializeBeerOrderDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(beerOrderDto);
+    }
+}
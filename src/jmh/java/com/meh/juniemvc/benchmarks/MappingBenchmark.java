@@ -0,0 +1,71 @@
+package com.meh.juniemvc.benchmarks;
+
+import com.meh.juniemvc.api.model.BeerOrderDto;
+import com.meh.juniemvc.domain.Beer;
+import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.domain.BeerOrder;
+import com.meh.juniemvc.mappers.BeerMapper;
+import com.meh.juniemvc.mappers.BeerOrderMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the MapStruct mappers on a single beer and on beer orders of growing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int lineCount;
+
+    private ConfigurableApplicationContext context;
+    private BeerMapper beerMapper;
+    private BeerOrderMapper beerOrderMapper;
+    private Beer beer;
+    private BeerOrder beerOrder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(WebApplicationType.NONE);
+        beerMapper = context.getBean(BeerMapper.class);
+        beerOrderMapper = context.getBean(BeerOrderMapper.class);
+        beer = BenchmarkContexts.beer(1, LocalDateTime.now());
+        beerOrder = BenchmarkContexts.beerOrder(lineCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDto beerToBeerDto() {
+        return beerMapper.beerToBeerDto(beer);
+    }
+
+    @Benchmark
+    public BeerOrderDto beerOrderToBeerOrderDto() {
+        return beerOrderMapper.beerOrderToBeerOrderDto(beerOrder);
+    }
+}
@@ -0,0 +1,62 @@
+package com.meh.juniemvc.benchmarks;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Stands in for the network between the application and a remote database, which the embedded H2
+ * does not have: every statement execution and every commit or rollback waits one round trip.
+ * A JDBC batch pays it once per executeBatch, as it would on the wire, however many rows it holds.
+ */
+final class RoundTripLatencyDataSource extends DelegatingDataSource {
+
+    private final Duration roundTrip;
+
+    RoundTripLatencyDataSource(DataSource targetDataSource, Duration roundTrip) {
+        super(targetDataSource);
+        this.roundTrip = roundTrip;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("commit".equals(method.getName()) || "rollback".equals(method.getName())) {
+                        Thread.sleep(roundTrip);
+                    }
+                    Object result = invoke(connection, method, args);
+                    return result instanceof Statement statement ? delayingExecution(statement, method) : result;
+                });
+    }
+
+    private Statement delayingExecution(Statement statement, Method factoryMethod) {
+        return (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{factoryMethod.getReturnType()},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        Thread.sleep(roundTrip);
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.domain.BeerDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of typeahead queries against the beer search index holding a synthetic catalog.
+ * Lives in the services package because the index is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BeerSearchIndexBenchmark {
+
+    private static final String[] ADJECTIVES = {"Hazy", "Golden", "Dark", "Imperial", "Wild", "Double", "Session",
+            "Smoked", "Barrel", "Citrus", "Midnight", "Crispy", "Juicy", "Velvet", "Rusty", "Northern"};
+    private static final String[] NOUNS = {"Galaxy", "Harbor", "Fox", "Lantern", "River", "Summit", "Orchard",
+            "Anchor", "Comet", "Meadow", "Falcon", "Canyon", "Ember", "Tide", "Willow", "Thunder"};
+    private static final String[] STYLES = {"IPA", "Pale Ale", "Stout", "Porter", "Lager", "Pilsner", "Saison",
+            "Wheat", "Sour", "Amber Ale", "Brown Ale", "Barleywine"};
+
+    @Param({"1000000"})
+    public int beerCount;
+
+    @Param({"h", "haz", "1", "hazy gal", "imperial stout", "0631234500000"})
+    public String query;
+
+    private BeerSearchIndex beerSearchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        beerSearchIndex = new BeerSearchIndex();
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        for (int id = 1; id <= beerCount; id++) {
+            String beerName = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + NOUNS[random.nextInt(NOUNS.length)] + " " + id;
+            beerSearchIndex.index(new BeerDto(id, 0, beerName, STYLES[random.nextInt(STYLES.length)],
+                    "0631234" + id, 120, new BigDecimal("12.99"), now, now));
+        }
+    }
+
+    @Benchmark
+    public List<Integer> search() {
+        return beerSearchIndex.search(query, 10);
+    }
+}
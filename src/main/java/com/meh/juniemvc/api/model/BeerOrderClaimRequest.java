@@ -0,0 +1,29 @@
+package com.meh.juniemvc.api.model;
+
+import com.meh.juniemvc.domain.OrderStatus;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO for claiming a batch of beer orders in one status and moving them to the next.
+ */
+public record BeerOrderClaimRequest(
+    @NotNull(message = "Order status is required")
+    OrderStatus orderStatus,
+
+    @NotNull(message = "Next status is required")
+    OrderStatus nextStatus,
+
+    @NotNull(message = "Max orders is required")
+    @Min(value = 1, message = "Max orders must be at least 1")
+    @Max(value = 100, message = "Max orders must be at most 100")
+    Integer maxOrders
+) {
+
+    @AssertTrue(message = "Next status must differ from order status")
+    boolean isStatusChange() {
+        return orderStatus == null || orderStatus != nextStatus;
+    }
+}
@@ -0,0 +1,33 @@
+package com.meh.juniemvc.api.model;
+
+import com.meh.juniemvc.domain.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Compact view of a beer order: the customer is reduced to its ID and name and each line to the
+ * beer fields needed to display it, which keeps responses for large orders small.
+ *
+ * @param id the beer order ID
+ * @param version the beer order version
+ * @param orderStatus the order status
+ * @param createdDate when the order was placed
+ * @param customerId the customer ID
+ * @param customerName the customer name
+ * @param totalQuantity the units ordered across all lines
+ * @param totalPrice the value of the order at the prices when it was placed
+ * @param beerOrderLines the lines in ID order
+ */
+public record BeerOrderCompactDto(
+    Integer id,
+    Integer version,
+    OrderStatus orderStatus,
+    LocalDateTime createdDate,
+    Integer customerId,
+    String customerName,
+    Integer totalQuantity,
+    BigDecimal totalPrice,
+    List<BeerOrderLineCompactDto> beerOrderLines
+) {}
@@ -0,0 +1,27 @@
+package com.meh.juniemvc.api.model;
+
+import com.meh.juniemvc.domain.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Header of a beer order in a customer's order history, without its lines.
+ *
+ * @param id the beer order ID
+ * @param version the beer order version
+ * @param orderStatus the order status
+ * @param createdDate when the order was placed
+ * @param lineCount the number of lines on the order
+ * @param totalQuantity the units ordered across all lines
+ * @param totalPrice the value of the order at the prices when it was placed
+ */
+public record BeerOrderHistoryDto(
+    Integer id,
+    Integer version,
+    OrderStatus orderStatus,
+    LocalDateTime createdDate,
+    long lineCount,
+    Integer totalQuantity,
+    BigDecimal totalPrice
+) {}
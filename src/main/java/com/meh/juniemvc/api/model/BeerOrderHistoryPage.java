@@ -0,0 +1,17 @@
+package com.meh.juniemvc.api.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A page of a customer's order history, newest first.
+ *
+ * @param orders the order headers on this page
+ * @param nextBeforeCreatedDate the cursor to pass as beforeCreatedDate for the next page, or null if this is the last page
+ * @param nextBeforeId the cursor to pass as beforeId for the next page, or null if this is the last page
+ */
+public record BeerOrderHistoryPage(
+    List<BeerOrderHistoryDto> orders,
+    LocalDateTime nextBeforeCreatedDate,
+    Integer nextBeforeId
+) {}
@@ -0,0 +1,24 @@
+package com.meh.juniemvc.api.model;
+
+import com.meh.juniemvc.domain.OrderStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Result of a streamed beer order: the order without its lines, which may be too many to send back.
+ *
+ * @param id the beer order ID
+ * @param orderStatus the order status
+ * @param customerId the customer ID
+ * @param lineCount the number of lines written
+ * @param totalQuantity the units ordered across all lines
+ * @param totalPrice the value of the order at the prices when it was placed
+ */
+public record BeerOrderIngestDto(
+    Integer id,
+    OrderStatus orderStatus,
+    Integer customerId,
+    int lineCount,
+    Integer totalQuantity,
+    BigDecimal totalPrice
+) {}
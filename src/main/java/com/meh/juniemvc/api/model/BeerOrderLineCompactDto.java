@@ -0,0 +1,25 @@
+package com.meh.juniemvc.api.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Compact view of a beer order line with only the beer fields needed to display it.
+ * Built directly by a JPQL constructor expression, without loading the line or beer entities.
+ *
+ * @param id the line ID
+ * @param beerId the beer ID
+ * @param beerName the beer name
+ * @param upc the beer UPC
+ * @param price the current beer price
+ * @param orderQuantity the quantity ordered
+ * @param quantityAllocated the quantity allocated so far
+ */
+public record BeerOrderLineCompactDto(
+    Integer id,
+    Integer beerId,
+    String beerName,
+    String upc,
+    BigDecimal price,
+    Integer orderQuantity,
+    Integer quantityAllocated
+) {}
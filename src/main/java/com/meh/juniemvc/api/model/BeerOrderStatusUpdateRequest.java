@@ -0,0 +1,12 @@
+package com.meh.juniemvc.api.model;
+
+import com.meh.juniemvc.domain.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO for changing the status of a beer order.
+ */
+public record BeerOrderStatusUpdateRequest(
+    @NotNull(message = "Order status is required")
+    OrderStatus orderStatus
+) {}
@@ -0,0 +1,23 @@
+package com.meh.juniemvc.api.model;
+
+import com.meh.juniemvc.domain.OrderStatus;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * DTO with the order totals of a customer, overall and by order status.
+ *
+ * @param customerId the customer ID
+ * @param orderCount the number of orders in any status
+ * @param totalQuantity the units ordered in any status
+ * @param totalPrice the value of the orders in any status
+ * @param byStatus the totals of each order status, including statuses without orders
+ */
+public record CustomerOrderSummaryDto(
+    Integer customerId,
+    long orderCount,
+    long totalQuantity,
+    BigDecimal totalPrice,
+    Map<OrderStatus, OrderStatusSummaryDto> byStatus
+) {}
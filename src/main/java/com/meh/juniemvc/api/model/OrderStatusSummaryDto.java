@@ -0,0 +1,16 @@
+package com.meh.juniemvc.api.model;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO with the totals of a customer's orders in one order status.
+ *
+ * @param orderCount the number of orders
+ * @param totalQuantity the units ordered across those orders
+ * @param totalPrice the value of those orders at the prices when they were placed
+ */
+public record OrderStatusSummaryDto(
+    long orderCount,
+    long totalQuantity,
+    BigDecimal totalPrice
+) {}
@@ -1,15 +1,29 @@
 package com.meh.juniemvc.controllers;
 
+import com.meh.juniemvc.domain.BeerBatchResponse;
+import com.meh.juniemvc.domain.BeerBulkCreateRequest;
+import com.meh.juniemvc.domain.BeerBulkResponse;
+import com.meh.juniemvc.domain.BeerBulkUpsertRequest;
 import com.meh.juniemvc.domain.BeerCreateRequest;
 import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.domain.BeerPage;
+import com.meh.juniemvc.domain.BeerPageRequest;
+import com.meh.juniemvc.domain.BeerSearchResponse;
 import com.meh.juniemvc.domain.BeerUpdateRequest;
 import com.meh.juniemvc.services.BeerService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -20,6 +34,8 @@ import java.util.Optional;
 @RequiredArgsConstructor
 class BeerController {
 
+    static final int MAX_BATCH_IDS = 500;
+
     private final BeerService beerService;
 
     /**
@@ -31,37 +47,70 @@ class BeerController {
     @PostMapping
     public ResponseEntity<BeerDto> createBeer(@Valid @RequestBody BeerCreateRequest beerCreateRequest) {
         BeerDto savedBeer = beerService.saveBeer(beerCreateRequest);
-        return new ResponseEntity<>(savedBeer, HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(BeerETags.of(savedBeer)).body(savedBeer);
+    }
+
+    /**
+     * Creates many beers in chunked, JDBC-batched transactions.
+     *
+     * @param beerBulkCreateRequest the beers to create
+     * @return one result per item with status 200 (OK)
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BeerBulkResponse> createBeers(@Valid @RequestBody BeerBulkCreateRequest beerBulkCreateRequest) {
+        BeerBulkResponse response = new BeerBulkResponse(beerService.saveBeers(beerBulkCreateRequest.beers()));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Creates or updates many beers in chunked, JDBC-batched transactions.
+     *
+     * @param beerBulkUpsertRequest the beers to create or update
+     * @return one result per item with status 200 (OK)
+     */
+    @PutMapping("/bulk")
+    public ResponseEntity<BeerBulkResponse> upsertBeers(@Valid @RequestBody BeerBulkUpsertRequest beerBulkUpsertRequest) {
+        BeerBulkResponse response = new BeerBulkResponse(beerService.upsertBeers(beerBulkUpsertRequest.beers()));
+        return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
     /**
-     * Updates an existing beer.
+     * Updates an existing beer, optionally only if it is still at one of the versions named by If-Match.
      *
      * @param beerId the beer ID
+     * @param ifMatch the ETags the client accepts, or {@code *}, if any
      * @param beerUpdateRequest the beer update request
-     * @return the updated beer with status 200 (OK), or status 404 (Not Found) if the beer was not found
+     * @return the updated beer with status 200 (OK), status 404 (Not Found) if the beer was not found,
+     *         or status 412 (Precondition Failed) if the beer was modified since, or is missing and
+     *         If-Match was given
      */
     @PutMapping("/{beerId}")
     public ResponseEntity<BeerDto> updateBeer(@PathVariable("beerId") Integer beerId, 
+                                            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                             @Valid @RequestBody BeerUpdateRequest beerUpdateRequest) {
-        BeerDto updatedBeer = beerService.updateBeer(beerId, beerUpdateRequest);
+        BeerDto updatedBeer = beerService.updateBeer(beerId, beerUpdateRequest,
+                BeerETags.precondition(ifMatch, beerId));
         
         if (updatedBeer == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
         
-        return new ResponseEntity<>(updatedBeer, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(BeerETags.of(updatedBeer)).body(updatedBeer);
     }
 
     /**
-     * Deletes a beer by its ID.
+     * Deletes a beer by its ID, optionally only if it is still at one of the versions named by If-Match.
      *
      * @param beerId the beer ID
-     * @return status 204 (No Content) if deleted, or status 404 (Not Found) if the beer was not found
+     * @param ifMatch the ETags the client accepts, or {@code *}, if any
+     * @return status 204 (No Content) if deleted, status 404 (Not Found) if the beer was not found,
+     *         or status 412 (Precondition Failed) if the beer was modified since, or is missing and
+     *         If-Match was given
      */
     @DeleteMapping("/{beerId}")
-    public ResponseEntity<Void> deleteBeer(@PathVariable("beerId") Integer beerId) {
-        boolean deleted = beerService.deleteBeer(beerId);
+    public ResponseEntity<Void> deleteBeer(@PathVariable("beerId") Integer beerId,
+                                           @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        boolean deleted = beerService.deleteBeer(beerId, BeerETags.precondition(ifMatch, beerId));
         
         if (!deleted) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -71,17 +120,102 @@ class BeerController {
     }
 
     /**
-     * Retrieves a beer by its ID.
+     * Retrieves a beer by its ID, tagged with an ETag derived from its ID and version.
      *
      * @param beerId the beer ID
-     * @return the beer with status 200 (OK), or status 404 (Not Found) if the beer was not found
+     * @param ifNoneMatch the ETags of the copies the client already holds, if any
+     * @return the beer with status 200 (OK), status 304 (Not Modified) if the client's copy is current,
+     *         or status 404 (Not Found) if the beer was not found
      */
     @GetMapping("/{beerId}")
-    public ResponseEntity<BeerDto> getBeerById(@PathVariable("beerId") Integer beerId) {
+    public ResponseEntity<BeerDto> getBeerById(@PathVariable("beerId") Integer beerId,
+                                               @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            // Revalidate from the version alone so a current copy is never mapped or serialized
+            Optional<String> currentETag = beerService.getBeerVersion(beerId)
+                    .map(version -> BeerETags.of(beerId, version));
+            if (currentETag.isPresent() && BeerETags.matchesNoneMatch(ifNoneMatch, currentETag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag.get()).build();
+            }
+        }
+        
         Optional<BeerDto> beerOptional = beerService.getBeerById(beerId);
         
         return beerOptional
-                .map(beer -> new ResponseEntity<>(beer, HttpStatus.OK))
+                .map(beer -> ResponseEntity.ok().eTag(BeerETags.of(beer)).body(beer))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Retrieves a beer by its UPC, as scanned from the barcode.
+     *
+     * @param upc the UPC
+     * @return the beer with status 200 (OK), or status 404 (Not Found) if no beer has this UPC
+     */
+    @GetMapping("/upc/{upc}")
+    public ResponseEntity<BeerDto> getBeerByUpc(@PathVariable("upc") String upc) {
+        return beerService.getBeerByUpc(upc)
+                .map(beer -> ResponseEntity.ok().eTag(BeerETags.of(beer)).body(beer))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
+
+    /**
+     * Retrieves many beers by ID in one call, instead of one request per beer.
+     *
+     * @param ids the beer IDs, at most {@value #MAX_BATCH_IDS}
+     * @return the found beers in request order and the IDs without a beer, with status 200 (OK)
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<BeerBatchResponse> getBeersByIds(
+            @RequestParam("ids")
+            @Size(max = MAX_BATCH_IDS, message = "At most " + MAX_BATCH_IDS + " beer IDs can be requested at once")
+            List<Integer> ids) {
+        Map<Integer, BeerDto> found = beerService.getBeersByIds(ids);
+
+        List<BeerDto> beers = new ArrayList<>(found.size());
+        List<Integer> notFoundIds = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            BeerDto beer = found.get(id);
+            if (beer != null) {
+                beers.add(beer);
+            } else if (id != null) {
+                notFoundIds.add(id);
+            }
+        }
+        return new ResponseEntity<>(new BeerBatchResponse(beers, notFoundIds), HttpStatus.OK);
+    }
+
+    /**
+     * Searches beers by word prefixes of their name and style, or by exact UPC, for typeahead lookups.
+     *
+     * @param query the search text
+     * @param limit the maximum number of results
+     * @return the matching beers, best match first, with status 200 (OK)
+     */
+    @GetMapping("/search")
+    public ResponseEntity<BeerSearchResponse> searchBeers(@RequestParam("q") String query,
+                                                          @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        BeerSearchResponse response = new BeerSearchResponse(beerService.searchBeers(query, limit));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Lists beers using keyset pagination on the beer ID.
+     *
+     * @param beerName optional beer name prefix to filter by
+     * @param beerStyle optional beer style to filter by
+     * @param afterId the nextAfterId returned with the previous page, omitted for the first page
+     * @param direction the ID sort direction, ASC or DESC
+     * @param size the page size
+     * @return the page of beers with status 200 (OK)
+     */
+    @GetMapping
+    public ResponseEntity<BeerPage> listBeers(@RequestParam(name = "beerName", required = false) String beerName,
+                                              @RequestParam(name = "beerStyle", required = false) String beerStyle,
+                                              @RequestParam(name = "afterId", required = false) Integer afterId,
+                                              @RequestParam(name = "direction", defaultValue = "ASC") Sort.Direction direction,
+                                              @RequestParam(name = "size", defaultValue = "25") int size) {
+        BeerPage beerPage = beerService.listBeers(new BeerPageRequest(beerName, beerStyle, afterId, direction, size));
+        return new ResponseEntity<>(beerPage, HttpStatus.OK);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.meh.juniemvc.controllers;
+
+import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.domain.VersionPrecondition;
+import com.meh.juniemvc.exceptions.PreconditionFailedException;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Builds and parses the strong ETags of beers, which have the form {@code "<id>-<version>"}.
+ */
+final class BeerETags {
+
+    private BeerETags() {
+    }
+
+    static String of(BeerDto beer) {
+        return of(beer.id(), beer.version());
+    }
+
+    static String of(Integer id, Integer version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Checks an If-None-Match header against the current ETag using weak comparison.
+     *
+     * @param ifNoneMatch the If-None-Match header value, may be null
+     * @param eTag the current ETag of the beer
+     * @return true if the client's copy is current and 304 (Not Modified) can be returned
+     */
+    static boolean matchesNoneMatch(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || stripWeak(candidate).equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extracts the versions a client accepts from an If-Match header, using strong comparison.
+     * A beer passes if it is at any of the listed versions, and any beer that exists passes {@code *}.
+     *
+     * @param ifMatch the If-Match header value, may be null
+     * @param id the ID of the beer being modified
+     * @return the precondition, or null when there is no header
+     * @throws PreconditionFailedException if no strong ETag of this beer is listed
+     */
+    static VersionPrecondition precondition(String ifMatch, Integer id) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        if (ifMatch.trim().equals("*")) {
+            return VersionPrecondition.ANY;
+        }
+        String prefix = "\"" + id + "-";
+        Set<Integer> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith(prefix) && candidate.endsWith("\"") && candidate.length() > prefix.length() + 1) {
+                try {
+                    versions.add(Integer.valueOf(candidate.substring(prefix.length(), candidate.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // Not one of our ETags, keep looking
+                }
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException("If-Match does not name a current version of beer " + id);
+        }
+        return new VersionPrecondition(versions);
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
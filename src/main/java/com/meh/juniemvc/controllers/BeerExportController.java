@@ -0,0 +1,135 @@
+package com.meh.juniemvc.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.services.BeerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * REST controller for exporting the beer catalog.
+ * Beers are streamed straight from a database cursor to the response, so memory use doesn't
+ * depend on the size of the catalog.
+ */
+@RestController
+@RequestMapping("/api/v1/beer/export")
+@RequiredArgsConstructor
+class BeerExportController {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER =
+            "id,version,beerName,beerStyle,upc,quantityOnHand,price,createdDate,updateDate\n";
+
+    private final BeerService beerService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Exports all beers.
+     *
+     * @param format the export format, NDJSON or CSV
+     * @return the streamed beers with status 200 (OK)
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportBeers(
+            @RequestParam(name = "format", defaultValue = "NDJSON") BeerExportFormat format) {
+        StreamingResponseBody body = outputStream -> {
+            switch (format) {
+                case NDJSON -> writeNdjson(outputStream);
+                case CSV -> writeCsv(outputStream);
+            }
+        };
+
+        ContentDisposition contentDisposition = ContentDisposition.attachment()
+                .filename("beers." + format.fileExtension())
+                .build();
+
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString())
+                .body(body);
+    }
+
+    private void writeNdjson(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory()
+                .createGenerator(new BufferedOutputStream(outputStream, BUFFER_SIZE))) {
+            // Lines are separated explicitly, not by the default root value separator
+            generator.setRootValueSeparator(null);
+            beerService.exportBeers(beer -> {
+                try {
+                    writer.writeValue(generator, beer);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void writeCsv(OutputStream outputStream) throws IOException {
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            writer.write(CSV_HEADER);
+            beerService.exportBeers(beer -> {
+                try {
+                    writeCsvRow(writer, beer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, BeerDto beer) throws IOException {
+        writer.write(csvValue(beer.id()));
+        writer.write(',');
+        writer.write(csvValue(beer.version()));
+        writer.write(',');
+        writer.write(csvValue(beer.beerName()));
+        writer.write(',');
+        writer.write(csvValue(beer.beerStyle()));
+        writer.write(',');
+        writer.write(csvValue(beer.upc()));
+        writer.write(',');
+        writer.write(csvValue(beer.quantityOnHand()));
+        writer.write(',');
+        writer.write(csvValue(beer.price() == null ? null : beer.price().toPlainString()));
+        writer.write(',');
+        writer.write(csvValue(beer.createdDate()));
+        writer.write(',');
+        writer.write(csvValue(beer.updateDate()));
+        writer.write('\n');
+    }
+
+    private static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,31 @@
+package com.meh.juniemvc.controllers;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Enum representing the formats the beer catalog can be exported in.
+ * <p>
+ * NDJSON - One JSON beer per line
+ * CSV - Comma separated values with a header row
+ * </p>
+ */
+enum BeerExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    CSV(new MediaType("text", "csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    BeerExportFormat(MediaType mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    MediaType mediaType() {
+        return mediaType;
+    }
+
+    String fileExtension() {
+        return fileExtension;
+    }
+}
@@ -0,0 +1,238 @@
+package com.meh.juniemvc.controllers;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meh.juniemvc.api.model.BeerOrderClaimRequest;
+import com.meh.juniemvc.api.model.BeerOrderCompactDto;
+import com.meh.juniemvc.api.model.BeerOrderDto;
+import com.meh.juniemvc.api.model.BeerOrderHistoryPage;
+import com.meh.juniemvc.api.model.BeerOrderIngestDto;
+import com.meh.juniemvc.api.model.BeerOrderLineDto;
+import com.meh.juniemvc.api.model.BeerOrderStatusUpdateRequest;
+import com.meh.juniemvc.api.model.CustomerOrderSummaryDto;
+import com.meh.juniemvc.services.BeerOrderAllocationService;
+import com.meh.juniemvc.services.BeerOrderCreation;
+import com.meh.juniemvc.services.BeerOrderService;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * REST controller for managing beer order operations.
+ */
+@RestController
+@RequestMapping("/api/v1/beer-order")
+@RequiredArgsConstructor
+class BeerOrderController {
+
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final BeerOrderService beerOrderService;
+    private final BeerOrderAllocationService beerOrderAllocationService;
+    private final ObjectMapper objectMapper;
+    private final StreamUploadProperties streamUploadProperties;
+
+    /**
+     * Creates a new beer order. Retries carrying the same Idempotency-Key header, or without the
+     * header the same customerRef, get the order created by the first request instead of a new one.
+     *
+     * @param beerOrderDto the beer order to create
+     * @param idempotencyKey optional key identifying the request across retries
+     * @return the created beer order with status 201 (Created); a replayed order also carries
+     *         the header {@code Idempotent-Replayed: true}
+     */
+    @PostMapping
+    public ResponseEntity<BeerOrderDto> createBeerOrder(
+            @Valid @RequestBody BeerOrderDto beerOrderDto,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false)
+            @Size(max = 255, message = "Idempotency-Key must be at most 255 characters") String idempotencyKey) {
+        String key = StringUtils.hasText(idempotencyKey) ? idempotencyKey : beerOrderDto.customerRef();
+        BeerOrderCreation creation = beerOrderService.createBeerOrder(beerOrderDto, StringUtils.hasText(key) ? key : null);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (creation.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return response.body(creation.beerOrder());
+    }
+
+    /**
+     * Creates a new beer order from an NDJSON body with one beer order line per line, for orders with
+     * thousands of lines. Lines are parsed and written as they arrive instead of being read into memory
+     * first; an invalid line rolls back the whole order. Reading the body may take at most
+     * {@code junie.stream.max-upload-duration}.
+     *
+     * @param customerId the customer placing the order
+     * @param body the NDJSON request body
+     * @return the created beer order without its lines with status 201 (Created), status 400 (Bad Request)
+     *         naming the first invalid or malformed line, or status 408 (Request Timeout) if the body
+     *         took too long to arrive
+     * @throws IOException if the request body could not be read
+     */
+    @PostMapping(path = "/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BeerOrderIngestDto> ingestBeerOrder(@RequestParam(name = "customerId") Integer customerId,
+                                                              InputStream body) throws IOException {
+        InputStream limitedBody = new DeadlineInputStream(body, streamUploadProperties.maxUploadDuration());
+        try (MappingIterator<BeerOrderLineDto> beerOrderLines =
+                     objectMapper.readerFor(BeerOrderLineDto.class).readValues(limitedBody)) {
+            BeerOrderIngestDto beerOrder = beerOrderService.ingestBeerOrder(customerId,
+                    new NdjsonValues<>(beerOrderLines, "beer order line"));
+            return new ResponseEntity<>(beerOrder, HttpStatus.CREATED);
+        }
+    }
+
+    /**
+     * Retrieves a beer order by its ID.
+     *
+     * @param beerOrderId the beer order ID
+     * @return the beer order with status 200 (OK), or status 404 (Not Found) if the beer order was not found
+     */
+    @GetMapping("/{beerOrderId}")
+    public ResponseEntity<BeerOrderDto> getBeerOrderById(@PathVariable("beerOrderId") Integer beerOrderId) {
+        Optional<BeerOrderDto> beerOrderOptional = beerOrderService.getBeerOrderById(beerOrderId);
+
+        return beerOrderOptional
+                .map(beerOrder -> new ResponseEntity<>(beerOrder, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Retrieves the compact view of a beer order: customer ID and name, and per line only the beer's
+     * ID, name, UPC and price. Much smaller and cheaper to read than the full order for large orders.
+     *
+     * @param beerOrderId the beer order ID
+     * @return the compact beer order with status 200 (OK), or status 404 (Not Found) if the beer order was not found
+     */
+    @GetMapping("/{beerOrderId}/compact")
+    public ResponseEntity<BeerOrderCompactDto> getCompactBeerOrderById(@PathVariable("beerOrderId") Integer beerOrderId) {
+        return beerOrderService.getCompactBeerOrderById(beerOrderId)
+                .map(beerOrder -> new ResponseEntity<>(beerOrder, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Lists beer orders a page at a time, optionally only those of one customer.
+     *
+     * @param customerId optional customer ID to filter by
+     * @param pageable the page request, 20 orders sorted by ID by default
+     * @return the page of beer orders with status 200 (OK)
+     */
+    @GetMapping
+    public ResponseEntity<PagedModel<BeerOrderDto>> listBeerOrders(
+            @RequestParam(name = "customerId", required = false) Integer customerId,
+            @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        Page<BeerOrderDto> beerOrders = customerId == null
+                ? beerOrderService.getAllBeerOrders(pageable)
+                : beerOrderService.getBeerOrdersByCustomerId(customerId, pageable);
+
+        return new ResponseEntity<>(new PagedModel<>(beerOrders), HttpStatus.OK);
+    }
+
+    /**
+     * Lists a customer's order history newest first, using keyset pagination on the created date and ID.
+     * Orders come without their lines, with line counts and totals instead.
+     *
+     * @param customerId the customer ID
+     * @param beforeCreatedDate the nextBeforeCreatedDate returned with the previous page, omitted for the first page
+     * @param beforeId the nextBeforeId returned with the previous page, omitted for the first page
+     * @param size the page size
+     * @return the page of order headers with status 200 (OK)
+     * @throws ConstraintViolationException if only half of the cursor was given
+     */
+    @GetMapping("/customer/{customerId}/history")
+    public ResponseEntity<BeerOrderHistoryPage> getBeerOrderHistory(
+            @PathVariable("customerId") Integer customerId,
+            @RequestParam(name = "beforeCreatedDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeCreatedDate,
+            @RequestParam(name = "beforeId", required = false) Integer beforeId,
+            @RequestParam(name = "size", defaultValue = "25") int size) {
+        if ((beforeCreatedDate == null) != (beforeId == null)) {
+            throw new ConstraintViolationException("beforeCreatedDate and beforeId must be given together", Set.of());
+        }
+
+        BeerOrderHistoryPage history = beerOrderService.getBeerOrderHistory(customerId, beforeCreatedDate, beforeId, size);
+        return new ResponseEntity<>(history, HttpStatus.OK);
+    }
+
+    /**
+     * Changes the status of a beer order.
+     *
+     * @param beerOrderId the beer order ID
+     * @param statusUpdateRequest the new status
+     * @return the updated beer order with status 200 (OK)
+     */
+    @PatchMapping("/{beerOrderId}/status")
+    public ResponseEntity<BeerOrderDto> updateBeerOrderStatus(@PathVariable("beerOrderId") Integer beerOrderId,
+                                                              @Valid @RequestBody BeerOrderStatusUpdateRequest statusUpdateRequest) {
+        BeerOrderDto updatedBeerOrder = beerOrderService.updateBeerOrderStatus(beerOrderId, statusUpdateRequest.orderStatus());
+        return new ResponseEntity<>(updatedBeerOrder, HttpStatus.OK);
+    }
+
+    /**
+     * Allocates on-hand stock to a NEW beer order, moving it to READY when fully allocated.
+     *
+     * @param beerOrderId the beer order ID
+     * @return the beer order after allocation with status 200 (OK)
+     */
+    @PostMapping("/{beerOrderId}/allocation")
+    public ResponseEntity<BeerOrderDto> allocateBeerOrder(@PathVariable("beerOrderId") Integer beerOrderId) {
+        BeerOrderDto allocatedBeerOrder = beerOrderAllocationService.allocateBeerOrder(beerOrderId);
+        return new ResponseEntity<>(allocatedBeerOrder, HttpStatus.OK);
+    }
+
+    /**
+     * Claims a batch of the oldest orders in one status by moving them to the next, for fulfillment
+     * workers draining the queue in parallel, e.g. READY to PICKED_UP. No order is handed to two workers.
+     *
+     * @param claimRequest the status to claim from, the status to move to and the batch size
+     * @return the claimed beer orders with status 200 (OK), an empty list if none were left to claim,
+     *         or status 409 (Conflict) if the request is not a forward move such as READY to PICKED_UP
+     */
+    @PostMapping("/claim")
+    public ResponseEntity<List<BeerOrderDto>> claimBeerOrders(@Valid @RequestBody BeerOrderClaimRequest claimRequest) {
+        List<BeerOrderDto> claimed = beerOrderService.claimBeerOrders(
+                claimRequest.orderStatus(), claimRequest.nextStatus(), claimRequest.maxOrders());
+        return new ResponseEntity<>(claimed, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the order totals of a customer, overall and by order status, from the summary read model.
+     *
+     * @param customerId the customer ID
+     * @return the totals with status 200 (OK), all zero if the customer has no orders
+     */
+    @GetMapping("/customer/{customerId}/summary")
+    public ResponseEntity<CustomerOrderSummaryDto> getCustomerOrderSummary(@PathVariable("customerId") Integer customerId) {
+        return new ResponseEntity<>(beerOrderService.getCustomerOrderSummary(customerId), HttpStatus.OK);
+    }
+
+    /**
+     * Recomputes the order summaries of all customers from the beer orders.
+     *
+     * @return status 204 (No Content) once the summaries are rebuilt
+     */
+    @PostMapping("/summary/rebuild")
+    public ResponseEntity<Void> rebuildCustomerOrderSummaries() {
+        beerOrderService.rebuildCustomerOrderSummaries();
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
@@ -0,0 +1,106 @@
+package com.meh.juniemvc.controllers;
+
+import com.meh.juniemvc.api.model.CustomerDto;
+import com.meh.juniemvc.services.CustomerService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for managing customers.
+ */
+@RestController
+@RequestMapping("/api/v1/customer")
+@RequiredArgsConstructor
+class CustomerController {
+
+    private final CustomerService customerService;
+
+    /**
+     * Creates a new customer.
+     *
+     * @param customerDto the customer to create
+     * @return the created customer with status 201 (Created)
+     */
+    @PostMapping
+    public ResponseEntity<CustomerDto> createCustomer(@Valid @RequestBody CustomerDto customerDto) {
+        return new ResponseEntity<>(customerService.saveCustomer(customerDto), HttpStatus.CREATED);
+    }
+
+    /**
+     * Retrieves a customer by its ID.
+     *
+     * @param customerId the customer ID
+     * @return the customer with status 200 (OK), or status 404 (Not Found) if the customer was not found
+     */
+    @GetMapping("/{customerId}")
+    public ResponseEntity<CustomerDto> getCustomerById(@PathVariable("customerId") Integer customerId) {
+        return customerService.getCustomerById(customerId)
+                .map(customer -> new ResponseEntity<>(customer, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Retrieves a customer by exact email, e.g. to sign a customer in.
+     *
+     * @param email the email address
+     * @return the customer with status 200 (OK), or status 404 (Not Found) if no customer has this email
+     */
+    @GetMapping(params = "email")
+    public ResponseEntity<CustomerDto> getCustomerByEmail(@RequestParam("email") String email) {
+        return customerService.getCustomerByEmail(email)
+                .map(customer -> new ResponseEntity<>(customer, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Lists customers a page at a time.
+     *
+     * @param pageable the page request, 20 customers sorted by ID by default
+     * @return the page of customers with status 200 (OK)
+     */
+    @GetMapping
+    public ResponseEntity<PagedModel<CustomerDto>> listCustomers(@PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return new ResponseEntity<>(new PagedModel<>(customerService.listCustomers(pageable)), HttpStatus.OK);
+    }
+
+    /**
+     * Updates an existing customer.
+     *
+     * @param customerId the customer ID
+     * @param customerDto the new customer data
+     * @return the updated customer with status 200 (OK), or status 404 (Not Found) if the customer was not found
+     */
+    @PutMapping("/{customerId}")
+    public ResponseEntity<CustomerDto> updateCustomer(@PathVariable("customerId") Integer customerId,
+                                                      @Valid @RequestBody CustomerDto customerDto) {
+        CustomerDto updatedCustomer = customerService.updateCustomer(customerId, customerDto);
+
+        if (updatedCustomer == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        return new ResponseEntity<>(updatedCustomer, HttpStatus.OK);
+    }
+
+    /**
+     * Deletes a customer. Customers with beer orders can't be deleted.
+     *
+     * @param customerId the customer ID
+     * @return status 204 (No Content), status 404 (Not Found) if the customer was not found,
+     *         or status 409 (Conflict) if the customer has beer orders
+     */
+    @DeleteMapping("/{customerId}")
+    public ResponseEntity<Void> deleteCustomer(@PathVariable("customerId") Integer customerId) {
+        if (!customerService.deleteCustomer(customerId)) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
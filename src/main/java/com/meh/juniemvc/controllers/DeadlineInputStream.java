@@ -0,0 +1,52 @@
+package com.meh.juniemvc.controllers;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+/**
+ * Fails reads from a request body once a deadline has passed, so a slow or stalled client can't keep
+ * the request, and what it holds, open indefinitely. The check runs on every read, not every line, so
+ * a client sending a line a byte at a time is cut off too; a read that blocks is still bounded by the
+ * server's socket read timeout.
+ */
+final class DeadlineInputStream extends FilterInputStream {
+
+    private final Duration maxDuration;
+    private final long deadline;
+
+    DeadlineInputStream(InputStream in, Duration maxDuration) {
+        super(in);
+        this.maxDuration = maxDuration;
+        this.deadline = System.nanoTime() + maxDuration.toNanos();
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkDeadline();
+        return super.read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        checkDeadline();
+        return super.read(b, off, len);
+    }
+
+    private void checkDeadline() throws DeadlineExceededException {
+        if (System.nanoTime() - deadline > 0) {
+            throw new DeadlineExceededException("The request body was not received within " + maxDuration);
+        }
+    }
+
+    /**
+     * Thrown by a read after the deadline has passed.
+     */
+    static final class DeadlineExceededException extends IOException {
+
+        DeadlineExceededException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.meh.juniemvc.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.meh.juniemvc.exceptions.RequestTimeoutException;
+import jakarta.validation.ConstraintViolationException;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Iterates over the values of an NDJSON body as Jackson parses them, numbering them like the lines
+ * they came from.
+ * <p>
+ * A line that is not valid JSON or doesn't map to the value type fails with a
+ * {@link ConstraintViolationException} naming the line, so it is answered with 400 like a line that
+ * fails validation, rather than with the 500 of the unchecked exceptions MappingIterator throws.
+ * A body that took longer than its deadline fails with a {@link RequestTimeoutException}.
+ * </p>
+ *
+ * @param <T> the value type
+ */
+final class NdjsonValues<T> implements Iterator<T> {
+
+    private final MappingIterator<T> values;
+    private final String valueName;
+    private int lineNumber;
+
+    /**
+     * @param values the values of the body
+     * @param valueName what a line holds, used in error messages, e.g. {@code beer order line}
+     */
+    NdjsonValues(MappingIterator<T> values, String valueName) {
+        this.values = values;
+        this.valueName = valueName;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return values.hasNext();
+        } catch (RuntimeException e) {
+            throw unreadable(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        try {
+            T value = values.next();
+            lineNumber++;
+            return value;
+        } catch (NoSuchElementException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw unreadable(e);
+        }
+    }
+
+    private RuntimeException unreadable(RuntimeException e) {
+        // MappingIterator wraps the checked exception of the parser or the body stream
+        Throwable cause = e.getCause();
+        if (cause instanceof DeadlineInputStream.DeadlineExceededException) {
+            return new RequestTimeoutException(cause.getMessage());
+        }
+        if (cause instanceof JsonProcessingException jsonException) {
+            return new ConstraintViolationException("Malformed " + valueName + " " + (lineNumber + 1) + ": "
+                    + jsonException.getOriginalMessage(), Set.of());
+        }
+        return e;
+    }
+}
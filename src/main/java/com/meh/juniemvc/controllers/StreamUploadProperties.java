@@ -0,0 +1,24 @@
+package com.meh.juniemvc.controllers;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for request bodies that are processed while they are still being uploaded.
+ *
+ * @param maxUploadDuration how long reading one streamed body may take. Past the first chunk, a streamed
+ *                          beer order is written in a transaction that stays open while the rest of the
+ *                          body arrives, so this also bounds how long one upload holds a database
+ *                          connection and a bulkhead permit
+ */
+@Validated
+@ConfigurationProperties("junie.stream")
+record StreamUploadProperties(
+    @NotNull
+    @DefaultValue("2m")
+    Duration maxUploadDuration
+) {}
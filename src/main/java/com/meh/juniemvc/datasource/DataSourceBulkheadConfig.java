@@ -0,0 +1,50 @@
+package com.meh.juniemvc.datasource;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration that puts a {@link BulkheadDataSource} in front of the auto-configured connection pool.
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} every request runs on its own virtual thread, so the
+ * number of threads no longer limits how many callers ask for a connection at once. The bulkhead keeps
+ * that number at {@code junie.datasource.bulkhead.max-concurrent}.
+ * </p>
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+class DataSourceBulkheadConfig {
+
+    @Bean
+    static BeanPostProcessor dataSourceBulkheadPostProcessor(ObjectProvider<DataSourceBulkheadProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+                    return bean;
+                }
+                DataSourceBulkheadProperties bulkhead = properties.getObject();
+                if (!bulkhead.enabled()) {
+                    return bean;
+                }
+                log.info("Limiting DataSource '{}' to {} concurrent connections", beanName, bulkhead.maxConcurrent());
+                return new BulkheadDataSource(dataSource, bulkhead.maxConcurrent(), bulkhead.acquireTimeout());
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder dataSourceBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof BulkheadDataSource bulkheadDataSource) {
+                bulkheadDataSource.bindTo(registry);
+            }
+        };
+    }
+}
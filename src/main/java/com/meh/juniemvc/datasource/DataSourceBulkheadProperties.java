@@ -0,0 +1,31 @@
+package com.meh.juniemvc.datasource;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the bulkhead in front of the JDBC connection pool.
+ *
+ * @param enabled whether the DataSource is wrapped with the bulkhead
+ * @param maxConcurrent the maximum number of connections handed out at the same time
+ * @param acquireTimeout how long a caller waits for a permit before the connection request fails
+ */
+@Validated
+@ConfigurationProperties("junie.datasource.bulkhead")
+record DataSourceBulkheadProperties(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @Positive
+    @DefaultValue("10")
+    int maxConcurrent,
+
+    @NotNull
+    @DefaultValue("30s")
+    Duration acquireTimeout
+) {}
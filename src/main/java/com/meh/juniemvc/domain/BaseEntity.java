@@ -21,8 +21,12 @@ import java.time.LocalDateTime;
 @MappedSuperclass
 public abstract class BaseEntity {
 
+    /**
+     * Assigned from a per-entity sequence ({@code beer_seq}, {@code customer_seq}, ...) in blocks,
+     * so persisting does not need an immediate INSERT and inserts can be batched.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Integer id;
 
     @Version
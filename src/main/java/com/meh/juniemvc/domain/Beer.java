@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 
@@ -19,6 +20,7 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @SuperBuilder
 @ToString(callSuper = true)
+@DynamicUpdate
 @Entity
 public class Beer extends BaseEntity {
 
@@ -0,0 +1,14 @@
+package com.meh.juniemvc.domain;
+
+import java.util.List;
+
+/**
+ * Response for a batch lookup of beers by ID, in the order the IDs were requested.
+ *
+ * @param beers the found beers
+ * @param notFoundIds the requested IDs without a beer
+ */
+public record BeerBatchResponse(
+    List<BeerDto> beers,
+    List<Integer> notFoundIds
+) {}
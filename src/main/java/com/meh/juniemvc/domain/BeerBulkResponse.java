@@ -0,0 +1,12 @@
+package com.meh.juniemvc.domain;
+
+import java.util.List;
+
+/**
+ * Response for a bulk beer write, with one result per request item in request order.
+ *
+ * @param results the per-item results
+ */
+public record BeerBulkResponse(
+    List<BeerBulkResult> results
+) {}
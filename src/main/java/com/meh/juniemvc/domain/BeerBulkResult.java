@@ -0,0 +1,18 @@
+package com.meh.juniemvc.domain;
+
+import java.util.List;
+
+/**
+ * Result for one item of a bulk beer write.
+ *
+ * @param index the position of the item in the request
+ * @param status the outcome of the item
+ * @param beer the written beer, or null if nothing was written
+ * @param errors the reasons the item was not written, empty unless the status is INVALID, DUPLICATE or CONFLICT
+ */
+public record BeerBulkResult(
+    int index,
+    BeerBulkStatus status,
+    BeerDto beer,
+    List<String> errors
+) {}
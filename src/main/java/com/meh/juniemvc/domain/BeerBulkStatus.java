@@ -0,0 +1,22 @@
+package com.meh.juniemvc.domain;
+
+/**
+ * Enum representing the outcome of one item of a bulk beer write.
+ * <p>
+ * CREATED - A new beer was inserted
+ * UPDATED - An existing beer was updated
+ * NOT_FOUND - The item referenced a beer ID that does not exist
+ * INVALID - The item failed validation and was not written
+ * DUPLICATE - The item's UPC is used by another beer or an earlier item, or an earlier item updates
+ *             the same beer, so it was not written
+ * CONFLICT - The beer was changed concurrently while the item was written, so it was not written
+ * </p>
+ */
+public enum BeerBulkStatus {
+    CREATED,
+    UPDATED,
+    NOT_FOUND,
+    INVALID,
+    DUPLICATE,
+    CONFLICT
+}
@@ -0,0 +1,14 @@
+package com.meh.juniemvc.domain;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * DTO for creating or updating many beers in one request.
+ * Items are validated individually so one bad item doesn't reject the whole batch.
+ */
+public record BeerBulkUpsertRequest(
+    @NotEmpty(message = "At least one beer is required")
+    List<BeerUpsertRequest> beers
+) {}
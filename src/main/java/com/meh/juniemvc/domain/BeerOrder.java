@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
+import java.math.BigDecimal;
 import java.util.Set;
 import java.util.HashSet;
 
@@ -23,8 +24,20 @@ public class BeerOrder extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private OrderStatus orderStatus = OrderStatus.NEW;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Customer customer;
+
+    /**
+     * Units ordered across all lines.
+     */
+    @Builder.Default
+    private Integer totalQuantity = 0;
+
+    /**
+     * Value of the order at the beer prices when it was placed.
+     */
+    @Builder.Default
+    private BigDecimal totalPrice = BigDecimal.ZERO;
     
     @Builder.Default
     @OneToMany(mappedBy = "beerOrder", cascade = CascadeType.ALL)
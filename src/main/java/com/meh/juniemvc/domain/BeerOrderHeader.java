@@ -0,0 +1,28 @@
+package com.meh.juniemvc.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the beer order columns shown in the compact order view, with the customer reduced
+ * to its ID and name.
+ *
+ * @param id the beer order ID
+ * @param version the beer order version
+ * @param orderStatus the order status
+ * @param createdDate when the order was placed
+ * @param customerId the customer ID
+ * @param customerName the customer name
+ * @param totalQuantity the units ordered across all lines
+ * @param totalPrice the value of the order when it was placed
+ */
+public record BeerOrderHeader(
+    Integer id,
+    Integer version,
+    OrderStatus orderStatus,
+    LocalDateTime createdDate,
+    Integer customerId,
+    String customerName,
+    Integer totalQuantity,
+    BigDecimal totalPrice
+) {}
@@ -17,10 +17,10 @@ import lombok.experimental.SuperBuilder;
 @Entity
 public class BeerOrderLine extends BaseEntity {
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private BeerOrder beerOrder;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Beer beer;
     
     private Integer orderQuantity = 0;
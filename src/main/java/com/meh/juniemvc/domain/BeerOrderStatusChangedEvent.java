@@ -0,0 +1,20 @@
+package com.meh.juniemvc.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event published when a beer order moves from one status to another.
+ *
+ * @param beerOrderId the beer order ID
+ * @param customerId the ID of the customer who placed the order, null if the order has no customer
+ * @param previousStatus the status before the change
+ * @param orderStatus the status after the change
+ * @param changedAt when the change was made
+ */
+public record BeerOrderStatusChangedEvent(
+    Integer beerOrderId,
+    Integer customerId,
+    OrderStatus previousStatus,
+    OrderStatus orderStatus,
+    LocalDateTime changedAt
+) {}
@@ -0,0 +1,14 @@
+package com.meh.juniemvc.domain;
+
+import java.util.List;
+
+/**
+ * A page of beers returned by the keyset paginated listing.
+ *
+ * @param beers the beers on this page
+ * @param nextAfterId the cursor to pass as afterId for the next page, or null if this is the last page
+ */
+public record BeerPage(
+    List<BeerDto> beers,
+    Integer nextAfterId
+) {}
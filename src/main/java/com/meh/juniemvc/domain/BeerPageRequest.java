@@ -0,0 +1,20 @@
+package com.meh.juniemvc.domain;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Query for a page of beers using keyset pagination on the beer ID.
+ *
+ * @param beerName optional beer name prefix to filter by
+ * @param beerStyle optional beer style to filter by
+ * @param afterId the ID of the last beer on the previous page, or null for the first page
+ * @param direction the ID sort direction
+ * @param size the maximum number of beers to return
+ */
+public record BeerPageRequest(
+    String beerName,
+    String beerStyle,
+    Integer afterId,
+    Sort.Direction direction,
+    int size
+) {}
@@ -0,0 +1,12 @@
+package com.meh.juniemvc.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * The version and creation date of a beer, enough to update it in place and return the result
+ * without loading the entity.
+ */
+public record BeerRevision(
+    Integer version,
+    LocalDateTime createdDate
+) {}
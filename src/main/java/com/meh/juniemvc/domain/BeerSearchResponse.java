@@ -0,0 +1,12 @@
+package com.meh.juniemvc.domain;
+
+import java.util.List;
+
+/**
+ * Response for a beer search, best match first.
+ *
+ * @param beers the matching beers
+ */
+public record BeerSearchResponse(
+    List<BeerDto> beers
+) {}
@@ -0,0 +1,37 @@
+package com.meh.juniemvc.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+
+/**
+ * Read model holding a customer's order totals for one order status.
+ * Rows are only written with SQL by CustomerOrderSummaryRepository, so the entity is read-only.
+ */
+@Getter
+@NoArgsConstructor
+@ToString
+@Immutable
+@Entity
+@IdClass(CustomerOrderSummaryId.class)
+public class CustomerOrderSummary {
+
+    @Id
+    private Integer customerId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private OrderStatus orderStatus;
+
+    private Long orderCount;
+    private Long totalQuantity;
+    private BigDecimal totalPrice;
+}
@@ -0,0 +1,21 @@
+package com.meh.juniemvc.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Composite key of CustomerOrderSummary.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class CustomerOrderSummaryId implements Serializable {
+
+    private Integer customerId;
+    private OrderStatus orderStatus;
+}
@@ -0,0 +1,33 @@
+package com.meh.juniemvc.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity recording which beer order was created for an idempotency key.
+ * Rows are only written and deleted with SQL by IdempotencyKeyRepository, so the entity is read-only.
+ */
+@Getter
+@NoArgsConstructor
+@ToString
+@Immutable
+@Entity
+@IdClass(IdempotencyKeyId.class)
+public class IdempotencyKey {
+
+    @Id
+    private Integer customerId;
+
+    @Id
+    private String idempotencyKey;
+
+    private Integer beerOrderId;
+    private LocalDateTime createdDate;
+}
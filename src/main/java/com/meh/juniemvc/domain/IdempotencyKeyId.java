@@ -0,0 +1,23 @@
+package com.meh.juniemvc.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * Composite key of IdempotencyKey: the key a client sent, scoped to the customer the order is for.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class IdempotencyKeyId implements Serializable {
+
+    private Integer customerId;
+    private String idempotencyKey;
+}
@@ -0,0 +1,38 @@
+package com.meh.juniemvc.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing an event waiting in the outbox to be dispatched to downstream systems.
+ * Rows are written once and deleted after delivery, so there is no version or update date.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@Entity
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    private String aggregateType;
+    private Integer aggregateId;
+    private String eventType;
+    private String payload;
+    private LocalDateTime createdDate;
+}
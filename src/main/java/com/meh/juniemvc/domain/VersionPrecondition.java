@@ -0,0 +1,31 @@
+package com.meh.juniemvc.domain;
+
+import java.util.Set;
+
+/**
+ * The If-Match precondition of a write: the versions of the resource the client accepts, or any
+ * version as long as the resource exists. A resource that does not exist fails either kind.
+ *
+ * @param versions the accepted versions, or null when any current version is accepted
+ */
+public record VersionPrecondition(
+    Set<Integer> versions
+) {
+
+    /**
+     * The precondition of {@code If-Match: *}.
+     */
+    public static final VersionPrecondition ANY = new VersionPrecondition(null);
+
+    public VersionPrecondition {
+        versions = versions == null ? null : Set.copyOf(versions);
+    }
+
+    public static VersionPrecondition of(Integer... versions) {
+        return new VersionPrecondition(Set.of(versions));
+    }
+
+    public boolean matches(Integer version) {
+        return versions == null || versions.contains(version);
+    }
+}
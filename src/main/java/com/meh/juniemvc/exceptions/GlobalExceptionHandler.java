@@ -1,12 +1,22 @@
 package com.meh.juniemvc.exceptions;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,6 +29,28 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 class GlobalExceptionHandler {
 
+    private static final String ERRORS_METRIC = "api.errors";
+
+    private final Counter validationErrors;
+    private final Counter notFoundErrors;
+    private final Counter invalidOrderStatusErrors;
+    private final Counter optimisticLockingErrors;
+    private final Counter preconditionFailedErrors;
+    private final Counter dataIntegrityErrors;
+    private final Counter requestTimeoutErrors;
+    private final Counter unexpectedErrors;
+
+    GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.validationErrors = errorCounter(meterRegistry, "validation");
+        this.notFoundErrors = errorCounter(meterRegistry, "not_found");
+        this.invalidOrderStatusErrors = errorCounter(meterRegistry, "invalid_order_status");
+        this.optimisticLockingErrors = errorCounter(meterRegistry, "optimistic_locking");
+        this.preconditionFailedErrors = errorCounter(meterRegistry, "precondition_failed");
+        this.dataIntegrityErrors = errorCounter(meterRegistry, "data_integrity");
+        this.requestTimeoutErrors = errorCounter(meterRegistry, "request_timeout");
+        this.unexpectedErrors = errorCounter(meterRegistry, "unexpected");
+    }
+
     /**
      * Handles validation exceptions.
      *
@@ -27,6 +59,8 @@ class GlobalExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     ResponseEntity<ErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
+        validationErrors.increment();
+
         List<String> errors = ex.getBindingResult()
                 .getFieldErrors()
                 .stream()
@@ -44,6 +78,84 @@ class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles constraint violations on handler method parameters, such as request headers.
+     *
+     * @param ex the method validation exception
+     * @return a response entity with validation error details
+     */
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    ResponseEntity<ErrorResponse> handleMethodValidationExceptions(HandlerMethodValidationException ex) {
+        validationErrors.increment();
+
+        List<String> errors = ex.getAllErrors()
+                .stream()
+                .map(MessageSourceResolvable::getDefaultMessage)
+                .collect(Collectors.toList());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Validation Error",
+                "Invalid request parameters",
+                errors
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles constraint violations found by the services, such as an invalid line of a streamed order.
+     *
+     * @param ex the constraint violation exception
+     * @return a response entity with validation error details
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    ResponseEntity<ErrorResponse> handleConstraintViolations(ConstraintViolationException ex) {
+        validationErrors.increment();
+
+        List<String> errors = ex.getConstraintViolations()
+                .stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.toList());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Validation Error",
+                ex.getMessage(),
+                errors
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles request parameters that are missing or can't be converted, such as an unknown sort direction.
+     *
+     * @param ex the missing parameter or type mismatch exception
+     * @return a response entity with validation error details
+     */
+    @ExceptionHandler({MissingServletRequestParameterException.class, MethodArgumentTypeMismatchException.class})
+    ResponseEntity<ErrorResponse> handleInvalidParameters(Exception ex) {
+        validationErrors.increment();
+
+        String error = ex instanceof MethodArgumentTypeMismatchException mismatch
+                ? "Invalid value '" + mismatch.getValue() + "' for parameter '" + mismatch.getName() + "'"
+                : "Required parameter '" + ((MissingServletRequestParameterException) ex).getParameterName()
+                        + "' is missing";
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Validation Error",
+                "Invalid request parameters",
+                List.of(error)
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handles entity not found exceptions.
      *
@@ -52,6 +164,8 @@ class GlobalExceptionHandler {
      */
     @ExceptionHandler(EntityNotFoundException.class)
     ResponseEntity<ErrorResponse> handleEntityNotFound(EntityNotFoundException ex) {
+        notFoundErrors.increment();
+
         ErrorResponse errorResponse = new ErrorResponse(
                 LocalDateTime.now(),
                 HttpStatus.NOT_FOUND.value(),
@@ -63,6 +177,111 @@ class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles operations that are not allowed in the current order status.
+     *
+     * @param ex the invalid order status exception
+     * @return a response entity with conflict error details
+     */
+    @ExceptionHandler(InvalidOrderStatusException.class)
+    ResponseEntity<ErrorResponse> handleInvalidOrderStatus(InvalidOrderStatusException ex) {
+        invalidOrderStatusErrors.increment();
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                ex.getMessage(),
+                List.of()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles concurrent modification of the same entity.
+     *
+     * @param ex the optimistic locking failure
+     * @return a response entity with conflict error details
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        optimisticLockingErrors.increment();
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                "The resource was modified concurrently, please retry",
+                List.of()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles conditional requests whose If-Match version is no longer current.
+     *
+     * @param ex the precondition failed exception
+     * @return a response entity with precondition failed error details
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    ResponseEntity<ErrorResponse> handlePreconditionFailed(PreconditionFailedException ex) {
+        preconditionFailedErrors.increment();
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Precondition Failed",
+                ex.getMessage(),
+                List.of()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Handles writes rejected by a database constraint, such as a UPC that is already taken.
+     *
+     * @param ex the data integrity violation
+     * @return a response entity with conflict error details
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        dataIntegrityErrors.increment();
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                "The request conflicts with existing data, such as a UPC already in use",
+                List.of()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles request bodies that took longer to arrive than allowed, such as a slow streamed order.
+     *
+     * @param ex the request timeout exception
+     * @return a response entity with request timeout error details
+     */
+    @ExceptionHandler(RequestTimeoutException.class)
+    ResponseEntity<ErrorResponse> handleRequestTimeout(RequestTimeoutException ex) {
+        requestTimeoutErrors.increment();
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.REQUEST_TIMEOUT.value(),
+                "Request Timeout",
+                ex.getMessage(),
+                List.of()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.REQUEST_TIMEOUT);
+    }
+
     /**
      * Handles all other exceptions.
      *
@@ -71,6 +290,8 @@ class GlobalExceptionHandler {
      */
     @ExceptionHandler(Exception.class)
     ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
+        unexpectedErrors.increment();
+
         ErrorResponse errorResponse = new ErrorResponse(
                 LocalDateTime.now(),
                 HttpStatus.INTERNAL_SERVER_ERROR.value(),
@@ -81,4 +302,11 @@ class GlobalExceptionHandler {
 
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    private static Counter errorCounter(MeterRegistry meterRegistry, String handler) {
+        return Counter.builder(ERRORS_METRIC)
+                .description("API errors by the exception handler that produced the response")
+                .tag("handler", handler)
+                .register(meterRegistry);
+    }
 }
\ No newline at end of file
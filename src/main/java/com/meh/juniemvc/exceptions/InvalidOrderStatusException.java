@@ -0,0 +1,11 @@
+package com.meh.juniemvc.exceptions;
+
+/**
+ * Thrown when an operation is not allowed for the current status of a beer order.
+ */
+public class InvalidOrderStatusException extends RuntimeException {
+
+    public InvalidOrderStatusException(String message) {
+        super(message);
+    }
+}
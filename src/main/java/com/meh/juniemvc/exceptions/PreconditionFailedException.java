@@ -0,0 +1,11 @@
+package com.meh.juniemvc.exceptions;
+
+/**
+ * Thrown when a conditional request names a version of a resource that is no longer current.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
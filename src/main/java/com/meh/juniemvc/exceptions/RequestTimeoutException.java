@@ -0,0 +1,11 @@
+package com.meh.juniemvc.exceptions;
+
+/**
+ * Thrown when a client takes longer to send a request body than the server allows.
+ */
+public class RequestTimeoutException extends RuntimeException {
+
+    public RequestTimeoutException(String message) {
+        super(message);
+    }
+}
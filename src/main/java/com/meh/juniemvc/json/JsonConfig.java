@@ -0,0 +1,66 @@
+package com.meh.juniemvc.json;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Jackson configuration beyond Spring Boot's JSON defaults.
+ * <p>
+ * Besides JSON, every endpoint reads and writes CBOR ({@code application/cbor}) and Smile
+ * ({@code application/x-jackson-smile}), chosen by the Content-Type and Accept headers. Both mappers
+ * are built from Spring Boot's Jackson2ObjectMapperBuilder, so they share the modules and settings
+ * of the JSON mapper, and request bodies go through the same {@code @Valid} validation. API responses
+ * carry {@code Vary: Accept}, plus Accept-Encoding when compression is enabled, because the ETag of a
+ * beer is the same in every format.
+ * </p>
+ * <p>
+ * With {@code junie.json.blackbird.enabled=true} the Blackbird module replaces reflective getter and
+ * constructor calls with generated lambdas. Spring Boot registers every Module bean with the
+ * application ObjectMapper. It is off everywhere, including the {@code compact-json} profile, because
+ * CompactJsonBenchmark shows no gain from it on beer orders.
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+class JsonConfig implements WebMvcConfigurer {
+
+    private final boolean compressionEnabled;
+
+    JsonConfig(@Value("${server.compression.enabled:false}") boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        String vary = compressionEnabled
+                ? HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING
+                : HttpHeaders.ACCEPT;
+        registry.addInterceptor(new VaryHeaderInterceptor(vary)).addPathPatterns("/api/**");
+    }
+
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "junie.json.blackbird.enabled")
+    BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,30 @@
+package com.meh.juniemvc.json;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Lists the request headers that select the representation in the Vary header of every API response.
+ * <p>
+ * The body is JSON, CBOR or Smile depending on Accept, while a beer carries the same ETag in each, so
+ * without Vary a shared cache could answer a JSON request with a CBOR copy, or revalidate one with the
+ * other. When responses may be compressed, Accept-Encoding is listed as well.
+ * </p>
+ */
+@RequiredArgsConstructor
+class VaryHeaderInterceptor implements HandlerInterceptor {
+
+    private final String vary;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Also runs on async dispatches, after the first dispatch already set the header
+        if (!response.containsHeader(HttpHeaders.VARY)) {
+            response.addHeader(HttpHeaders.VARY, vary);
+        }
+        return true;
+    }
+}
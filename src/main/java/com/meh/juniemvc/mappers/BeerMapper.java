@@ -4,8 +4,12 @@ import com.meh.juniemvc.domain.Beer;
 import com.meh.juniemvc.domain.BeerCreateRequest;
 import com.meh.juniemvc.domain.BeerDto;
 import com.meh.juniemvc.domain.BeerUpdateRequest;
+import com.meh.juniemvc.domain.BeerUpsertRequest;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+import java.time.LocalDateTime;
 
 /**
  * MapStruct mapper for converting between Beer entity and DTOs.
@@ -57,4 +61,31 @@ public interface BeerMapper {
     @Mapping(target = "createdDate", ignore = true)
     @Mapping(target = "updateDate", ignore = true)
     Beer beerUpdateRequestToBeer(BeerUpdateRequest beerUpdateRequest);
+    
+    /**
+     * Builds the BeerDto of a beer that was updated in place from a BeerUpdateRequest,
+     * without an intermediate entity or a reload.
+     *
+     * @param id the beer ID
+     * @param version the version after the update
+     * @param beerUpdateRequest the BeerUpdateRequest that was applied
+     * @param createdDate the creation date of the beer
+     * @param updateDate the update timestamp that was recorded
+     * @return the BeerDto as it now stands in the database
+     */
+    BeerDto beerUpdateRequestToBeerDto(Integer id, Integer version, BeerUpdateRequest beerUpdateRequest,
+                                       LocalDateTime createdDate, LocalDateTime updateDate);
+    
+    /**
+     * Copies the fields of a BeerUpsertRequest onto a Beer entity.
+     * Ignores id, version, createdDate, and updateDate fields.
+     *
+     * @param beerUpsertRequest the BeerUpsertRequest to copy from
+     * @param beer the Beer entity to update
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "createdDate", ignore = true)
+    @Mapping(target = "updateDate", ignore = true)
+    void updateBeerFromUpsertRequest(BeerUpsertRequest beerUpsertRequest, @MappingTarget Beer beer);
 }
\ No newline at end of file
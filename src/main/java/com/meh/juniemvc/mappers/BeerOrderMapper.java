@@ -5,6 +5,7 @@ import com.meh.juniemvc.api.model.BeerOrderLineDto;
 import com.meh.juniemvc.domain.BeerOrder;
 import com.meh.juniemvc.domain.BeerOrderLine;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 /**
  * Mapper interface for converting between BeerOrder/BeerOrderLine entities and their DTOs.
@@ -26,6 +27,8 @@ public interface BeerOrderMapper {
      * @param beerOrderDto the BeerOrderDto to convert
      * @return the corresponding BeerOrder entity
      */
+    @Mapping(target = "totalQuantity", ignore = true)
+    @Mapping(target = "totalPrice", ignore = true)
     BeerOrder beerOrderDtoToBeerOrder(BeerOrderDto beerOrderDto);
     
     /**
@@ -3,6 +3,8 @@ package com.meh.juniemvc.mappers;
 import com.meh.juniemvc.api.model.CustomerDto;
 import com.meh.juniemvc.domain.Customer;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 /**
  * Mapper interface for converting between Customer entity and CustomerDto.
@@ -25,4 +27,18 @@ public interface CustomerMapper {
      * @return the corresponding Customer entity
      */
     Customer customerDtoToCustomer(CustomerDto customerDto);
-}
\ No newline at end of file
+    
+    /**
+     * Copies the fields of a CustomerDto onto a Customer entity.
+     * Ignores id, version, createdDate, updateDate, and beerOrders fields.
+     *
+     * @param customerDto the CustomerDto to copy from
+     * @param customer the Customer entity to update
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "createdDate", ignore = true)
+    @Mapping(target = "updateDate", ignore = true)
+    @Mapping(target = "beerOrders", ignore = true)
+    void updateCustomerFromDto(CustomerDto customerDto, @MappingTarget Customer customer);
+}
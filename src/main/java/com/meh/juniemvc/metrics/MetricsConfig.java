@@ -0,0 +1,37 @@
+package com.meh.juniemvc.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration for the application metrics that Spring Boot doesn't record on its own.
+ * <p>
+ * HTTP, repository, Hikari pool and {@code @Timed} service metrics come from Actuator. This adds the
+ * number of SQL statements each request issues.
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    MetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StatementCountInterceptor(meterRegistry));
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer statementCountingHibernateCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(
+                AvailableSettings.STATEMENT_INSPECTOR, new StatementCountingInspector());
+    }
+}
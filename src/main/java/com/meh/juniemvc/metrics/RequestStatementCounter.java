@@ -0,0 +1,30 @@
+package com.meh.juniemvc.metrics;
+
+/**
+ * Counts the SQL statements prepared by Hibernate on the current request thread.
+ * Counting only happens between {@link #start()} and {@link #stop()}, so work outside a request costs nothing.
+ */
+final class RequestStatementCounter {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private RequestStatementCounter() {
+    }
+
+    static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    static void increment() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
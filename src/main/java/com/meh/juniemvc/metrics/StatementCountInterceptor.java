@@ -0,0 +1,56 @@
+package com.meh.juniemvc.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records how many SQL statements each request issued, tagged by URI template and HTTP method.
+ * <p>
+ * The count lives on the request thread, so asynchronously handled requests, such as the streamed
+ * beer export, are not recorded: their statements run on another thread, and the async dispatch that
+ * completes them would report a misleadingly low count. The counter is dropped as soon as the request
+ * goes async so the pooled thread doesn't carry it into the next request.
+ * </p>
+ */
+@RequiredArgsConstructor
+class StatementCountInterceptor implements AsyncHandlerInterceptor {
+
+    static final String METRIC_NAME = "hibernate.statements.per.request";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            RequestStatementCounter.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStatementCounter.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int statements = RequestStatementCounter.stop();
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return;
+        }
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        DistributionSummary.builder(METRIC_NAME)
+                .description("SQL statements prepared while handling a request, excluding asynchronously handled requests")
+                .tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+                .tag("method", request.getMethod())
+                .register(meterRegistry)
+                .record(statements);
+    }
+}
@@ -0,0 +1,16 @@
+package com.meh.juniemvc.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that counts each prepared statement against the current request.
+ * The SQL is passed through unchanged.
+ */
+class StatementCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatementCounter.increment();
+        return sql;
+    }
+}
@@ -0,0 +1,25 @@
+package com.meh.juniemvc.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Sink that writes each event to the application log. Useful in development and as a trace of
+ * what was dispatched next to real sinks.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "junie.outbox.log-sink.enabled", matchIfMissing = true)
+class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            log.info("Outbox event {} {} {}#{}: {}", message.id(), message.eventType(),
+                    message.aggregateType(), message.aggregateId(), message.payload());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.meh.juniemvc.outbox;
+
+import com.meh.juniemvc.domain.OutboxEvent;
+import com.meh.juniemvc.repositories.OutboxEventRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Drains the outbox in the background and hands events to every {@link OutboxSink}.
+ * <p>
+ * Each batch is read in ID order, published outside any transaction and deleted only after every
+ * sink accepted it, so events are delivered at least once. The order is not guaranteed: IDs come from
+ * a pooled sequence, so an event from a transaction that commits later can carry a lower ID than one
+ * already delivered, and events of different orders, or of one order written by concurrent
+ * transactions, may arrive in any order. A failing sink stops
+ * the poll and the same batch is retried after a backoff that doubles up to the configured maximum.
+ * The dispatcher pulls at most {@code maxBatchesPerPoll} batches per poll, so a slow sink slows the
+ * dispatcher down and the backlog grows in the table instead of in memory.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class OutboxDispatcher implements MeterBinder {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final OutboxProperties properties;
+
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    // Not synchronized: the scheduler may run on a virtual thread, which must not be pinned while it waits for a connection
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Duration backoff;
+    private Instant retryAt = Instant.MIN;
+
+    @Scheduled(fixedDelayString = "${junie.outbox.poll-interval:1s}")
+    void poll() {
+        if (properties.enabled() && !Instant.now().isBefore(retryAt)) {
+            drain();
+        }
+    }
+
+    /**
+     * Dispatches batches until the outbox is empty, a sink fails or the per-poll batch limit is reached.
+     *
+     * @return the number of events delivered
+     */
+    int drain() {
+        lock.lock();
+        try {
+            return dispatchBatches();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int dispatchBatches() {
+        int delivered = 0;
+        for (int batches = 0; batches < properties.maxBatchesPerPoll(); batches++) {
+            List<OutboxMessage> batch = outboxEventRepository.findAllByOrderByIdAsc(Limit.of(properties.batchSize()))
+                    .stream()
+                    .map(OutboxDispatcher::toMessage)
+                    .toList();
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            try {
+                for (OutboxSink sink : sinks) {
+                    sink.publish(batch);
+                }
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                backoff = backoff == null ? properties.pollInterval() : min(backoff.multipliedBy(2), properties.maxBackoff());
+                retryAt = Instant.now().plus(backoff);
+                log.warn("Dispatching {} outbox events from id {} failed, retrying in {}",
+                        batch.size(), batch.getFirst().id(), backoff, e);
+                break;
+            }
+
+            outboxEventRepository.deleteAllByIdInBatch(batch.stream().map(OutboxMessage::id).toList());
+            dispatched.addAndGet(batch.size());
+            delivered += batch.size();
+            backoff = null;
+            retryAt = Instant.MIN;
+            if (batch.size() < properties.batchSize()) {
+                break;
+            }
+        }
+        return delivered;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("outbox.dispatched", dispatched, AtomicLong::get)
+                .description("Outbox events delivered to every sink")
+                .register(registry);
+        FunctionCounter.builder("outbox.dispatch.failures", failures, AtomicLong::get)
+                .description("Outbox batches that a sink failed to accept")
+                .register(registry);
+        Gauge.builder("outbox.backlog", outboxEventRepository, OutboxEventRepository::count)
+                .description("Outbox events waiting to be dispatched")
+                .register(registry);
+    }
+
+    private static OutboxMessage toMessage(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getEventType(), event.getPayload(), event.getCreatedDate());
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
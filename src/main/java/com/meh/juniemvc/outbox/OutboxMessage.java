@@ -0,0 +1,22 @@
+package com.meh.juniemvc.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event as handed to sinks, detached from the persistence context.
+ *
+ * @param id the outbox event ID, unique but not ordered by commit; sinks can use it to drop duplicates
+ * @param aggregateType the type of the aggregate the event is about, e.g. {@code BeerOrder}
+ * @param aggregateId the ID of the aggregate
+ * @param eventType the event type, e.g. {@code BeerOrderStatusChanged}
+ * @param payload the event serialized as JSON
+ * @param createdDate when the event was written
+ */
+public record OutboxMessage(
+    Long id,
+    String aggregateType,
+    Integer aggregateId,
+    String eventType,
+    String payload,
+    LocalDateTime createdDate
+) {}
@@ -0,0 +1,41 @@
+package com.meh.juniemvc.outbox;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the outbox dispatcher.
+ *
+ * @param enabled whether the dispatcher polls the outbox; events are still written when disabled
+ * @param batchSize the maximum number of events read, published and deleted together
+ * @param maxBatchesPerPoll the maximum number of batches dispatched before yielding until the next poll
+ * @param pollInterval the delay between the end of one poll and the start of the next
+ * @param maxBackoff the longest the dispatcher waits after repeated sink failures
+ */
+@Validated
+@ConfigurationProperties("junie.outbox")
+record OutboxProperties(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @Positive
+    @DefaultValue("100")
+    int batchSize,
+
+    @Positive
+    @DefaultValue("10")
+    int maxBatchesPerPoll,
+
+    @NotNull
+    @DefaultValue("1s")
+    Duration pollInterval,
+
+    @NotNull
+    @DefaultValue("1m")
+    Duration maxBackoff
+) {}
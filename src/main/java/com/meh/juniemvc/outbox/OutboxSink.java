@@ -0,0 +1,23 @@
+package com.meh.juniemvc.outbox;
+
+import java.util.List;
+
+/**
+ * Destination for outbox events, such as a message broker or a webhook.
+ * <p>
+ * Every sink bean receives every event. Delivery is at least once: when any sink throws, the whole
+ * batch is offered again later, including to sinks that already accepted it, so sinks should
+ * ignore events whose ID they have already seen. IDs are not assigned in commit order, so a sink must
+ * remember the IDs it has seen rather than only the highest one.
+ * </p>
+ */
+public interface OutboxSink {
+
+    /**
+     * Delivers a batch of events. Events from concurrent transactions are not in commit order.
+     *
+     * @param messages the events, in ID order
+     * @throws RuntimeException if the batch could not be delivered and should be retried
+     */
+    void publish(List<OutboxMessage> messages);
+}
@@ -0,0 +1,53 @@
+package com.meh.juniemvc.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meh.juniemvc.domain.OutboxEvent;
+import com.meh.juniemvc.repositories.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes events to the outbox table as part of the caller's transaction, so an event is stored if
+ * and only if the change it describes is committed. The insert is flushed with the caller's other
+ * writes, so recording an event adds no commit and no round trip to a broker on the request path.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Records an event in the current transaction.
+     *
+     * @param aggregateType the type of the aggregate the event is about
+     * @param aggregateId the ID of the aggregate
+     * @param eventType the event type
+     * @param payload the event, serialized as JSON
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void write(String aggregateType, Integer aggregateId, String eventType, Object payload) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(toJson(payload))
+                .createdDate(LocalDateTime.now())
+                .build());
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Can't serialize outbox payload " + payload, e);
+        }
+    }
+}
@@ -1,11 +1,38 @@
 package com.meh.juniemvc.repositories;
 
+import com.meh.juniemvc.api.model.BeerOrderLineCompactDto;
 import com.meh.juniemvc.domain.BeerOrderLine;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 /**
  * Repository interface for BeerOrderLine entity.
  * Provides CRUD operations for BeerOrderLine entities.
  */
 public interface BeerOrderLineRepository extends JpaRepository<BeerOrderLine, Integer> {
-}
\ No newline at end of file
+
+    /**
+     * Finds the lines of a beer order as compact views, selecting only the displayed beer columns.
+     *
+     * @param beerOrderId the beer order ID
+     * @return the lines in ID order
+     */
+    @Query("""
+            select new com.meh.juniemvc.api.model.BeerOrderLineCompactDto(
+                l.id, b.id, b.beerName, b.upc, b.price, l.orderQuantity, l.quantityAllocated)
+            from BeerOrderLine l join l.beer b
+            where l.beerOrder.id = :beerOrderId
+            order by l.id
+            """)
+    List<BeerOrderLineCompactDto> findCompactByBeerOrderId(Integer beerOrderId);
+
+    /**
+     * Counts the lines of a beer order.
+     *
+     * @param beerOrderId the beer order ID
+     * @return the number of lines
+     */
+    long countByBeerOrderId(Integer beerOrderId);
+}
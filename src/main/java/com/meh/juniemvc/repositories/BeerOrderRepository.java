@@ -1,11 +1,190 @@
 package com.meh.juniemvc.repositories;
 
+import com.meh.juniemvc.api.model.BeerOrderHistoryDto;
 import com.meh.juniemvc.domain.BeerOrder;
+import com.meh.juniemvc.domain.BeerOrderHeader;
+import com.meh.juniemvc.domain.OrderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for BeerOrder entity.
  * Provides CRUD operations for BeerOrder entities.
  */
 public interface BeerOrderRepository extends JpaRepository<BeerOrder, Integer> {
-}
\ No newline at end of file
+
+    /**
+     * Finds a beer order together with its customer, lines and the beers on those lines in one query.
+     *
+     * @param id the beer order ID
+     * @return an Optional containing the fully loaded beer order, or empty if not found
+     */
+    @EntityGraph(attributePaths = {"customer", "beerOrderLines", "beerOrderLines.beer"})
+    Optional<BeerOrder> findWithLinesById(Integer id);
+
+    /**
+     * Finds a beer order together with its lines, leaving customer and beers unloaded.
+     *
+     * @param id the beer order ID
+     * @return an Optional containing the beer order with its lines, or empty if not found
+     */
+    @EntityGraph(attributePaths = "beerOrderLines")
+    Optional<BeerOrder> findWithLinesOnlyById(Integer id);
+
+    /**
+     * Finds beer orders together with their customers, lines and the beers on those lines in one query.
+     *
+     * @param ids the beer order IDs
+     * @return the fully loaded beer orders that exist, in ID order
+     */
+    @EntityGraph(attributePaths = {"customer", "beerOrderLines", "beerOrderLines.beer"})
+    List<BeerOrder> findWithLinesByIdInOrderById(Collection<Integer> ids);
+
+    /**
+     * Finds a page of beer orders with their customers joined.
+     * Lines and beers are loaded afterwards in batches by the default batch fetch size.
+     *
+     * @param pageable the page request
+     * @return the page of beer orders
+     */
+    @Override
+    @EntityGraph(attributePaths = "customer")
+    Page<BeerOrder> findAll(Pageable pageable);
+
+    /**
+     * Finds a page of beer orders for a customer with the customer joined.
+     *
+     * @param customerId the customer ID
+     * @param pageable the page request
+     * @return the page of beer orders for the customer
+     */
+    @EntityGraph(attributePaths = "customer")
+    Page<BeerOrder> findByCustomerId(Integer customerId, Pageable pageable);
+
+    /**
+     * Finds the columns of a beer order shown in the compact view, joining only the customer's ID and name.
+     *
+     * @param id the beer order ID
+     * @return an Optional containing the projection, or empty if not found
+     */
+    @Query("""
+            select new com.meh.juniemvc.domain.BeerOrderHeader(
+                o.id, o.version, o.orderStatus, o.createdDate, c.id, c.name, o.totalQuantity, o.totalPrice)
+            from BeerOrder o left join o.customer c
+            where o.id = :id
+            """)
+    Optional<BeerOrderHeader> findHeaderById(Integer id);
+
+    /**
+     * Finds the newest order headers of a customer, with line counts from a subquery per order.
+     * Reads idx_beer_order_customer_created in index order, so only the returned orders are visited.
+     *
+     * @param customerId the customer ID
+     * @param limit the maximum number of orders to return
+     * @return the order headers, newest first
+     */
+    @Query("""
+            select new com.meh.juniemvc.api.model.BeerOrderHistoryDto(
+                o.id, o.version, o.orderStatus, o.createdDate,
+                (select count(l) from BeerOrderLine l where l.beerOrder = o), o.totalQuantity, o.totalPrice)
+            from BeerOrder o
+            where o.customer.id = :customerId
+            order by o.customer.id, o.createdDate desc, o.id desc
+            """)
+    List<BeerOrderHistoryDto> findHistoryByCustomerId(Integer customerId, Limit limit);
+
+    /**
+     * Finds the order headers of a customer placed before the given cursor, newest first.
+     * The redundant {@code createdDate <= :beforeCreatedDate} lets the database seek into the index
+     * instead of scanning the customer's newer orders.
+     *
+     * @param customerId the customer ID
+     * @param beforeCreatedDate the created date of the last order on the previous page
+     * @param beforeId the ID of the last order on the previous page
+     * @param limit the maximum number of orders to return
+     * @return the order headers after the cursor, newest first
+     */
+    @Query("""
+            select new com.meh.juniemvc.api.model.BeerOrderHistoryDto(
+                o.id, o.version, o.orderStatus, o.createdDate,
+                (select count(l) from BeerOrderLine l where l.beerOrder = o), o.totalQuantity, o.totalPrice)
+            from BeerOrder o
+            where o.customer.id = :customerId
+              and o.createdDate <= :beforeCreatedDate
+              and (o.createdDate < :beforeCreatedDate or o.id < :beforeId)
+            order by o.customer.id, o.createdDate desc, o.id desc
+            """)
+    List<BeerOrderHistoryDto> findHistoryByCustomerIdBefore(Integer customerId, LocalDateTime beforeCreatedDate,
+                                                            Integer beforeId, Limit limit);
+
+    /**
+     * Finds the oldest beer orders in a status and locks them, skipping rows other transactions have locked.
+     * Only for dialects that support SKIP LOCKED; others silently fall back to a blocking FOR UPDATE.
+     *
+     * @param orderStatus the order status
+     * @param limit the maximum number of orders to return
+     * @return the locked beer orders in ID order
+     */
+    @Query("select o from BeerOrder o where o.orderStatus = :orderStatus order by o.orderStatus, o.id")
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    // -2 is LockOptions.SKIP_LOCKED
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    List<BeerOrder> findForClaimByOrderStatusOrderById(OrderStatus orderStatus, Limit limit);
+
+    /**
+     * Finds the IDs of the oldest beer orders in a status, without locking them.
+     *
+     * @param orderStatus the order status
+     * @param limit the maximum number of IDs to return
+     * @return the beer order IDs in ascending order
+     */
+    @Query("select o.id from BeerOrder o where o.orderStatus = :orderStatus order by o.orderStatus, o.id")
+    List<Integer> findIdsByOrderStatus(OrderStatus orderStatus, Limit limit);
+
+    /**
+     * Moves a beer order to the next status only if it is still in the expected one, bumping its version.
+     *
+     * @param id the beer order ID
+     * @param orderStatus the status the order is expected to be in
+     * @param nextStatus the status to move the order to
+     * @param updateDate the update timestamp to record
+     * @return 1 if the order was moved, 0 if it was not found or no longer in the expected status
+     */
+    @Modifying
+    @Query("""
+            update BeerOrder o
+            set o.orderStatus = :nextStatus,
+                o.version = o.version + 1,
+                o.updateDate = :updateDate
+            where o.id = :id and o.orderStatus = :orderStatus
+            """)
+    int compareAndSetStatus(Integer id, OrderStatus orderStatus, OrderStatus nextStatus, LocalDateTime updateDate);
+
+    /**
+     * Sets the totals of a beer order in a single statement, without loading it or changing its version.
+     *
+     * @param id the beer order ID
+     * @param totalQuantity the units ordered across all lines
+     * @param totalPrice the value of the order at the beer prices when it was placed
+     * @return 1 if the beer order was updated, 0 if it was not found
+     */
+    @Modifying
+    @Query("update BeerOrder o set o.totalQuantity = :totalQuantity, o.totalPrice = :totalPrice where o.id = :id")
+    int updateTotals(Integer id, Integer totalQuantity, BigDecimal totalPrice);
+}
@@ -1,11 +1,151 @@
 package com.meh.juniemvc.repositories;
 
 import com.meh.juniemvc.domain.Beer;
+import com.meh.juniemvc.domain.BeerRevision;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface BeerRepository extends JpaRepository<Beer, Integer> {
+public interface BeerRepository extends JpaRepository<Beer, Integer>, BeerRepositoryCustom {
     // Spring Data JPA will automatically implement basic CRUD operations
     // Custom query methods can be added here if needed
+
+    /**
+     * Streams every beer in ID order using a forward-only, read-only cursor.
+     * Must be called inside a transaction and the stream must be closed by the caller.
+     *
+     * @return a stream over all beers
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select b from Beer b order by b.id")
+    Stream<Beer> streamAll();
+
+    /**
+     * Reads the current quantity on hand of a beer without loading the entity.
+     *
+     * @param id the beer ID
+     * @return an Optional containing the quantity on hand, or empty if the beer was not found
+     */
+    @Query("select b.quantityOnHand from Beer b where b.id = :id")
+    Optional<Integer> findQuantityOnHandById(Integer id);
+
+    /**
+     * Finds a beer by its UPC, using the unique index on the column.
+     *
+     * @param upc the UPC
+     * @return an Optional containing the beer, or empty if no beer has this UPC
+     */
+    Optional<Beer> findByUpc(String upc);
+
+    /**
+     * Finds which of the given UPCs are already used by a beer, reading only the unique UPC index.
+     *
+     * @param upcs the UPCs to check
+     * @return the UPCs that are in use
+     */
+    @Query("select b.upc from Beer b where b.upc in :upcs")
+    List<String> findUpcsByUpcIn(Collection<String> upcs);
+
+    /**
+     * Reads the current version of a beer without loading the entity.
+     *
+     * @param id the beer ID
+     * @return an Optional containing the version, or empty if the beer was not found
+     */
+    @Query("select b.version from Beer b where b.id = :id")
+    Optional<Integer> findVersionById(Integer id);
+
+    /**
+     * Reads the version and creation date of a beer without loading the entity.
+     *
+     * @param id the beer ID
+     * @return an Optional containing the revision, or empty if the beer was not found
+     */
+    @Query("select new com.meh.juniemvc.domain.BeerRevision(b.version, b.createdDate) from Beer b where b.id = :id")
+    Optional<BeerRevision> findRevisionById(Integer id);
+
+    /**
+     * Overwrites the updatable fields of a beer in a single statement if it is still at the given version.
+     * Bumps the version the same way a managed update would.
+     *
+     * @param id the beer ID
+     * @param version the version the beer must be at
+     * @param beerName the new beer name
+     * @param beerStyle the new beer style
+     * @param upc the new UPC
+     * @param quantityOnHand the new quantity on hand
+     * @param price the new price
+     * @param updateDate the update timestamp to record
+     * @return 1 if the beer was updated, 0 if it is missing or at another version
+     */
+    @Modifying
+    @Query("""
+            update Beer b
+            set b.beerName = :beerName,
+                b.beerStyle = :beerStyle,
+                b.upc = :upc,
+                b.quantityOnHand = :quantityOnHand,
+                b.price = :price,
+                b.version = b.version + 1,
+                b.updateDate = :updateDate
+            where b.id = :id and b.version = :version
+            """)
+    int updateBeer(Integer id, Integer version, String beerName, String beerStyle, String upc,
+                   Integer quantityOnHand, BigDecimal price, LocalDateTime updateDate);
+
+    /**
+     * Deletes a beer in a single statement without loading it first.
+     *
+     * @param id the beer ID
+     * @return 1 if the beer was deleted, 0 if it was not found
+     */
+    @Modifying
+    @Query("delete from Beer b where b.id = :id")
+    int deleteBeerById(Integer id);
+
+    /**
+     * Deletes a beer in a single statement if it is still at one of the given versions.
+     *
+     * @param id the beer ID
+     * @param versions the versions the beer may be at
+     * @return 1 if the beer was deleted, 0 if it is missing or at another version
+     */
+    @Modifying
+    @Query("delete from Beer b where b.id = :id and b.version in :versions")
+    int deleteBeerByIdAndVersionIn(Integer id, Collection<Integer> versions);
+
+    /**
+     * Atomically takes stock from a beer if at least the requested quantity is on hand.
+     * Bumps the version so cached copies and clients holding the old version see the change.
+     *
+     * @param id the beer ID
+     * @param quantity the quantity to take
+     * @param updateDate the update timestamp to record
+     * @return 1 if the stock was taken, 0 if not enough was on hand
+     */
+    @Modifying
+    @Query("""
+            update Beer b
+            set b.quantityOnHand = b.quantityOnHand - :quantity,
+                b.version = b.version + 1,
+                b.updateDate = :updateDate
+            where b.id = :id and b.quantityOnHand >= :quantity
+            """)
+    int decrementQuantityOnHand(Integer id, int quantity, LocalDateTime updateDate);
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.meh.juniemvc.repositories;
+
+import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.domain.BeerPageRequest;
+
+import java.util.List;
+
+/**
+ * Custom query methods for the Beer entity that can't be expressed as derived queries.
+ */
+public interface BeerRepositoryCustom {
+
+    /**
+     * Finds a page of beers after the request's cursor, projected straight into DTOs.
+     *
+     * @param pageRequest the page request holding the filters, cursor and direction
+     * @param limit the maximum number of rows to fetch
+     * @return the matching beers ordered by ID in the requested direction
+     */
+    List<BeerDto> findBeerPage(BeerPageRequest pageRequest, int limit);
+}
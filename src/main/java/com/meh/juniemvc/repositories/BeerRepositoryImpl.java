@@ -0,0 +1,89 @@
+package com.meh.juniemvc.repositories;
+
+import com.meh.juniemvc.domain.Beer;
+import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.domain.BeerPageRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of the custom Beer queries.
+ * <p>
+ * Only the filters present on the request are added to the WHERE clause. Unfiltered pages read the
+ * primary key from the cursor on, and pages filtered by style read idx_beer_style_id, ordering by
+ * style and ID so the index order matches; both stop after one page and cost the same at any depth.
+ * A name prefix can't be served in ID order by any index: its pages read and sort every beer
+ * matching the prefix past the cursor, so their cost grows with the number of matches.
+ * </p>
+ */
+@RequiredArgsConstructor
+class BeerRepositoryImpl implements BeerRepositoryCustom {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<BeerDto> findBeerPage(BeerPageRequest pageRequest, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BeerDto> query = cb.createQuery(BeerDto.class);
+        Root<Beer> beer = query.from(Beer.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (pageRequest.beerName() != null) {
+            predicates.add(cb.like(beer.get("beerName"), escapeLike(pageRequest.beerName()) + "%", LIKE_ESCAPE));
+        }
+        if (pageRequest.beerStyle() != null) {
+            predicates.add(cb.equal(beer.get("beerStyle"), pageRequest.beerStyle()));
+        }
+
+        boolean descending = pageRequest.direction() == Sort.Direction.DESC;
+        if (pageRequest.afterId() != null) {
+            predicates.add(descending
+                    ? cb.lessThan(beer.get("id"), pageRequest.afterId())
+                    : cb.greaterThan(beer.get("id"), pageRequest.afterId()));
+        }
+
+        query.select(cb.construct(BeerDto.class,
+                        beer.get("id"),
+                        beer.get("version"),
+                        beer.get("beerName"),
+                        beer.get("beerStyle"),
+                        beer.get("upc"),
+                        beer.get("quantityOnHand"),
+                        beer.get("price"),
+                        beer.get("createdDate"),
+                        beer.get("updateDate")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(orderBy(cb, beer, pageRequest.beerStyle() != null, descending));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static List<Order> orderBy(CriteriaBuilder cb, Root<Beer> beer, boolean byStyle, boolean descending) {
+        List<Order> order = new ArrayList<>(2);
+        // The style is fixed by the filter, but naming it lets the database read idx_beer_style_id in order
+        if (byStyle) {
+            order.add(descending ? cb.desc(beer.get("beerStyle")) : cb.asc(beer.get("beerStyle")));
+        }
+        order.add(descending ? cb.desc(beer.get("id")) : cb.asc(beer.get("id")));
+        return order;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,81 @@
+package com.meh.juniemvc.repositories;
+
+import com.meh.juniemvc.domain.CustomerOrderSummary;
+import com.meh.juniemvc.domain.CustomerOrderSummaryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Repository interface for the CustomerOrderSummary read model.
+ * Totals are adjusted in place with single MERGE statements, so concurrent orders of the same
+ * customer queue on the summary row instead of overwriting each other's counts.
+ */
+public interface CustomerOrderSummaryRepository extends JpaRepository<CustomerOrderSummary, CustomerOrderSummaryId> {
+
+    /**
+     * Finds the summary rows of a customer, one per order status the customer has orders in.
+     *
+     * @param customerId the customer ID
+     * @return the summary rows, at most one per order status
+     */
+    List<CustomerOrderSummary> findByCustomerId(Integer customerId);
+
+    /**
+     * Adds to the totals of a customer and order status, creating the row if it does not exist.
+     * Pass negative values to take an order out of a status.
+     *
+     * @param customerId the customer ID
+     * @param orderStatus the order status name
+     * @param orderCount the number of orders to add
+     * @param totalQuantity the units to add
+     * @param totalPrice the value to add
+     * @return the number of rows merged
+     */
+    @Modifying
+    @Query(value = """
+            MERGE INTO customer_order_summary s
+            USING (VALUES (CAST(:customerId AS INT), CAST(:orderStatus AS VARCHAR(50)))) AS k(customer_id, order_status)
+            ON s.customer_id = k.customer_id AND s.order_status = k.order_status
+            WHEN MATCHED THEN UPDATE SET
+                order_count = s.order_count + :orderCount,
+                total_quantity = s.total_quantity + :totalQuantity,
+                total_price = s.total_price + :totalPrice
+            WHEN NOT MATCHED THEN INSERT (customer_id, order_status, order_count, total_quantity, total_price)
+                VALUES (k.customer_id, k.order_status, :orderCount, :totalQuantity, :totalPrice)
+            """, nativeQuery = true)
+    int addToTotals(@Param("customerId") Integer customerId,
+                    @Param("orderStatus") String orderStatus,
+                    @Param("orderCount") long orderCount,
+                    @Param("totalQuantity") long totalQuantity,
+                    @Param("totalPrice") BigDecimal totalPrice);
+
+    /**
+     * Deletes every summary row, ahead of a rebuild.
+     *
+     * @return the number of rows deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM customer_order_summary", nativeQuery = true)
+    int deleteAllRows();
+
+    /**
+     * Recomputes every summary row from the order totals in one statement. The database streams
+     * over beer_order and aggregates as it goes, so nothing is loaded into the application.
+     *
+     * @return the number of rows inserted
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO customer_order_summary (customer_id, order_status, order_count, total_quantity, total_price)
+            SELECT customer_id, order_status, COUNT(*), SUM(total_quantity), SUM(total_price)
+            FROM beer_order
+            WHERE customer_id IS NOT NULL
+            GROUP BY customer_id, order_status
+            """, nativeQuery = true)
+    int insertFromBeerOrders();
+}
@@ -1,11 +1,75 @@
 package com.meh.juniemvc.repositories;
 
+import com.meh.juniemvc.api.model.CustomerDto;
 import com.meh.juniemvc.domain.Customer;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Customer entity.
  * Provides CRUD operations for Customer entities.
+ * <p>
+ * Reads for the API select DTOs directly, so no Customer entity is loaded and its beer orders can't
+ * be initialized by accident.
+ * </p>
  */
 public interface CustomerRepository extends JpaRepository<Customer, Integer> {
-}
\ No newline at end of file
+
+    /**
+     * Finds a customer as a DTO.
+     *
+     * @param id the customer ID
+     * @return an Optional containing the customer, or empty if not found
+     */
+    @Query("""
+            select new com.meh.juniemvc.api.model.CustomerDto(c.id, c.version, c.name, c.email, c.phone)
+            from Customer c
+            where c.id = :id
+            """)
+    Optional<CustomerDto> findDtoById(Integer id);
+
+    /**
+     * Finds customers by exact email as DTOs, using the email index.
+     *
+     * @param email the email address
+     * @param limit the maximum number of customers to return
+     * @return the customers with this email in ID order
+     */
+    @Query("""
+            select new com.meh.juniemvc.api.model.CustomerDto(c.id, c.version, c.name, c.email, c.phone)
+            from Customer c
+            where c.email = :email
+            order by c.id
+            """)
+    List<CustomerDto> findDtosByEmail(String email, Limit limit);
+
+    /**
+     * Finds customers a page at a time as DTOs.
+     *
+     * @param pageable the page request
+     * @return a page of customers
+     */
+    @Query(value = """
+            select new com.meh.juniemvc.api.model.CustomerDto(c.id, c.version, c.name, c.email, c.phone)
+            from Customer c
+            """,
+            countQuery = "select count(c) from Customer c")
+    Page<CustomerDto> findAllDtos(Pageable pageable);
+
+    /**
+     * Deletes a customer in a single statement, without loading it.
+     *
+     * @param id the customer ID
+     * @return 1 if the customer was deleted, 0 if it was not found
+     */
+    @Modifying
+    @Query("delete from Customer c where c.id = :id")
+    int deleteCustomerById(Integer id);
+}
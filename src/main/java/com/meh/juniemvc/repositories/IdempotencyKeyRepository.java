@@ -0,0 +1,62 @@
+package com.meh.juniemvc.repositories;
+
+import com.meh.juniemvc.domain.IdempotencyKey;
+import com.meh.juniemvc.domain.IdempotencyKeyId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository interface for IdempotencyKey entity.
+ * Keys are inserted with a plain INSERT so a duplicate fails on the primary key rather than being
+ * merged, and expired keys are deleted in bounded batches.
+ */
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, IdempotencyKeyId> {
+
+    /**
+     * Reads the ID of the beer order created for a key without loading the entity.
+     *
+     * @param customerId the customer ID
+     * @param idempotencyKey the key sent by the client
+     * @return an Optional containing the beer order ID, or empty if the key is unknown
+     */
+    @Query("select k.beerOrderId from IdempotencyKey k where k.customerId = :customerId and k.idempotencyKey = :idempotencyKey")
+    Optional<Integer> findBeerOrderId(Integer customerId, String idempotencyKey);
+
+    /**
+     * Records the beer order created for a key.
+     *
+     * @param customerId the customer ID
+     * @param idempotencyKey the key sent by the client
+     * @param beerOrderId the ID of the created beer order
+     * @param createdDate when the key was recorded
+     * @return the number of rows inserted
+     * @throws org.springframework.dao.DataIntegrityViolationException if the key was already recorded
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_key (customer_id, idempotency_key, beer_order_id, created_date)
+            VALUES (:customerId, :idempotencyKey, :beerOrderId, :createdDate)
+            """, nativeQuery = true)
+    int insert(Integer customerId, String idempotencyKey, Integer beerOrderId, LocalDateTime createdDate);
+
+    /**
+     * Deletes up to a batch of keys recorded before a cutoff, in its own transaction.
+     *
+     * @param cutoff keys recorded before this time are deleted
+     * @param batchSize the maximum number of keys to delete
+     * @return the number of keys deleted
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM idempotency_key
+            WHERE created_date < :cutoff
+            FETCH FIRST :batchSize ROWS ONLY
+            """, nativeQuery = true)
+    int deleteCreatedBefore(LocalDateTime cutoff, int batchSize);
+}
@@ -0,0 +1,22 @@
+package com.meh.juniemvc.repositories;
+
+import com.meh.juniemvc.domain.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+/**
+ * Repository interface for OutboxEvent entity.
+ * Events are dispatched oldest first and deleted in bulk once delivered.
+ */
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Finds the oldest events waiting in the outbox.
+     *
+     * @param limit the maximum number of events to return
+     * @return the events in ID order
+     */
+    List<OutboxEvent> findAllByOrderByIdAsc(Limit limit);
+}
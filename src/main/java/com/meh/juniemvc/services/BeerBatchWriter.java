@@ -0,0 +1,143 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.domain.Beer;
+import com.meh.juniemvc.domain.BeerBulkResult;
+import com.meh.juniemvc.domain.BeerBulkStatus;
+import com.meh.juniemvc.domain.BeerCreateRequest;
+import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.domain.BeerUpsertRequest;
+import com.meh.juniemvc.mappers.BeerMapper;
+import com.meh.juniemvc.repositories.BeerRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes one chunk of a bulk beer request per transaction.
+ * <p>
+ * Each chunk is flushed once so Hibernate can group the statements into JDBC batches, then the
+ * persistence context is cleared so memory stays flat across chunks. UPCs are checked up front with
+ * one query per chunk, so a duplicate is reported on its item instead of failing the whole batch.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+class BeerBatchWriter {
+
+    private final BeerRepository beerRepository;
+    private final BeerMapper beerMapper;
+    private final BeerCache beerCache;
+    private final BeerSearchIndex beerSearchIndex;
+    private final EntityManager entityManager;
+
+    /**
+     * Inserts a chunk of new beers. Of several items with the same UPC, only the first is written.
+     *
+     * @param items the validated create requests with their request positions
+     * @return one result per item, in the same order
+     */
+    @Transactional
+    public List<BeerBulkResult> createChunk(List<BeerBulkItem<BeerCreateRequest>> items) {
+        Set<String> usedUpcs = findUsedUpcs(items.stream().map(item -> item.request().upc()).toList());
+
+        List<Beer> beers = new ArrayList<>(items.size());
+        for (BeerBulkItem<BeerCreateRequest> item : items) {
+            beers.add(usedUpcs.add(item.request().upc()) ? beerMapper.beerCreateRequestToBeer(item.request()) : null);
+        }
+        beerRepository.saveAll(beers.stream().filter(Objects::nonNull).toList());
+        beerRepository.flush();
+
+        List<BeerBulkResult> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            BeerBulkItem<BeerCreateRequest> item = items.get(i);
+            Beer beer = beers.get(i);
+            results.add(beer == null
+                    ? duplicate(item.index(), item.request().upc())
+                    : written(item.index(), BeerBulkStatus.CREATED, beer));
+        }
+        entityManager.clear();
+        return results;
+    }
+
+    /**
+     * Updates or inserts a chunk of beers. Existing beers are loaded with a single IN query.
+     * A beer may keep its own UPC; taking a UPC that another beer or an earlier item uses is a duplicate.
+     * So is updating a beer that an earlier item in the chunk already updates.
+     *
+     * @param items the validated upsert requests with their request positions
+     * @return one result per item, in the same order
+     */
+    @Transactional
+    public List<BeerBulkResult> upsertChunk(List<BeerBulkItem<BeerUpsertRequest>> items) {
+        List<Integer> ids = items.stream()
+                .map(item -> item.request().id())
+                .filter(Objects::nonNull)
+                .toList();
+        Map<Integer, Beer> existingBeers = beerRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+        Set<String> usedUpcs = findUsedUpcs(items.stream().map(item -> item.request().upc()).toList());
+        Set<Integer> updatedIds = new HashSet<>();
+
+        List<BeerBulkResult> results = new ArrayList<>(items.size());
+        List<Beer> beers = new ArrayList<>(items.size());
+        for (BeerBulkItem<BeerUpsertRequest> item : items) {
+            BeerUpsertRequest request = item.request();
+            Beer beer = request.id() == null ? new Beer() : existingBeers.get(request.id());
+            if (beer == null) {
+                results.add(new BeerBulkResult(item.index(), BeerBulkStatus.NOT_FOUND, null, List.of()));
+            } else if (request.id() != null && !updatedIds.add(request.id())) {
+                // Both items would share one managed beer, so the later one would overwrite the earlier
+                results.add(new BeerBulkResult(item.index(), BeerBulkStatus.DUPLICATE, null,
+                        List.of("Beer " + request.id() + " is already updated by an earlier item")));
+                beer = null;
+            } else if (!request.upc().equals(beer.getUpc()) && !usedUpcs.add(request.upc())) {
+                results.add(duplicate(item.index(), request.upc()));
+                beer = null;
+            } else {
+                beerMapper.updateBeerFromUpsertRequest(request, beer);
+                if (request.id() == null) {
+                    entityManager.persist(beer);
+                }
+                // Filled in once the chunk is flushed and the versions are final
+                results.add(null);
+            }
+            beers.add(beer);
+        }
+        beerRepository.flush();
+
+        for (int i = 0; i < items.size(); i++) {
+            BeerBulkItem<BeerUpsertRequest> item = items.get(i);
+            if (results.get(i) == null) {
+                BeerBulkStatus status = item.request().id() == null ? BeerBulkStatus.CREATED : BeerBulkStatus.UPDATED;
+                results.set(i, written(item.index(), status, beers.get(i)));
+            }
+        }
+        entityManager.clear();
+        return results;
+    }
+
+    private Set<String> findUsedUpcs(List<String> upcs) {
+        return new HashSet<>(beerRepository.findUpcsByUpcIn(new HashSet<>(upcs)));
+    }
+
+    private BeerBulkResult written(int index, BeerBulkStatus status, Beer beer) {
+        BeerDto beerDto = beerMapper.beerToBeerDto(beer);
+        beerCache.putAfterCommit(beerDto);
+        beerSearchIndex.indexAfterCommit(beerDto);
+        return new BeerBulkResult(index, status, beerDto, List.of());
+    }
+
+    private static BeerBulkResult duplicate(int index, String upc) {
+        return new BeerBulkResult(index, BeerBulkStatus.DUPLICATE, null, List.of("UPC " + upc + " is already in use"));
+    }
+}
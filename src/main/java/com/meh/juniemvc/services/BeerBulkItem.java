@@ -0,0 +1,10 @@
+package com.meh.juniemvc.services;
+
+/**
+ * A validated bulk request item together with its position in the original request.
+ *
+ * @param index the position of the item in the request
+ * @param request the request item
+ * @param <T> the request item type
+ */
+record BeerBulkItem<T>(int index, T request) {}
@@ -0,0 +1,19 @@
+package com.meh.juniemvc.services;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration properties for bulk beer writes.
+ *
+ * @param chunkSize the number of items written per transaction
+ */
+@Validated
+@ConfigurationProperties("junie.bulk.beer")
+record BeerBulkProperties(
+    @Positive
+    @DefaultValue("500")
+    int chunkSize
+) {}
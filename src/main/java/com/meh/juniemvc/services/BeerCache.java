@@ -0,0 +1,206 @@
+package com.meh.juniemvc.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.meh.juniemvc.domain.BeerDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-process cache of mapped beers keyed by ID.
+ * <p>
+ * Entries are evicted by size and by time since write. Writes are applied after the surrounding
+ * transaction commits, and an entry is never replaced by one carrying an older version. Beers loaded
+ * by readers are stored with the eviction count at the start of their load; every eviction records the
+ * count it raised the total to, and a load that started before the last eviction of its beer is dropped. Together these keep a slow reader
+ * from overwriting a newer beer, or bringing back a deleted one, with the stale copy it loaded. Eviction
+ * marks are kept as long as entries live. Hit, miss and eviction counts are published as cache metrics
+ * named "beer".
+ * </p>
+ * <p>
+ * A second cache maps UPCs to beer IDs and is filled by every accepted write. A UPC lookup only hits
+ * when the cached beer still carries that UPC, so renumbered and deleted beers never need to be
+ * tracked down by their old UPC. Its metrics are named "beer_upc".
+ * </p>
+ */
+@Component
+class BeerCache implements MeterBinder {
+
+    private final Cache<Integer, BeerDto> cache;
+    private final Cache<String, Integer> idsByUpc;
+    private final Cache<Integer, Long> evictedAt;
+    private final AtomicLong evictions = new AtomicLong();
+
+    BeerCache(BeerCacheProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        this.idsByUpc = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        this.evictedAt = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .build();
+    }
+
+    /**
+     * Looks up a beer in the cache.
+     *
+     * @param id the beer ID
+     * @return an Optional containing the cached beer, or empty on a miss
+     */
+    Optional<BeerDto> get(Integer id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    /**
+     * Looks up many beers in the cache at once.
+     *
+     * @param ids the beer IDs
+     * @return the cached beers keyed by ID; misses are absent
+     */
+    Map<Integer, BeerDto> getAll(Collection<Integer> ids) {
+        return cache.getAllPresent(ids);
+    }
+
+    /**
+     * Looks up a beer in the cache by its UPC.
+     *
+     * @param upc the UPC
+     * @return an Optional containing the cached beer, or empty on a miss or if the beer no longer has this UPC
+     */
+    Optional<BeerDto> getByUpc(String upc) {
+        Integer id = idsByUpc.getIfPresent(upc);
+        if (id == null) {
+            return Optional.empty();
+        }
+        
+        BeerDto beer = cache.getIfPresent(id);
+        if (beer == null || !upc.equals(beer.upc())) {
+            idsByUpc.asMap().remove(upc, id);
+            return Optional.empty();
+        }
+        return Optional.of(beer);
+    }
+
+    /**
+     * Marks the start of a database load whose result will be passed to {@link #putLoaded(BeerDto, long)}.
+     *
+     * @return the number of evictions so far, marking the start of the load
+     */
+    long startLoad() {
+        return evictions.get();
+    }
+
+    /**
+     * Stores a beer that was written and committed, unless the cache already holds a newer version of it.
+     *
+     * @param beer the beer to store
+     */
+    void put(BeerDto beer) {
+        store(beer, cache.asMap().merge(beer.id(), beer, BeerCache::newerOf));
+    }
+
+    /**
+     * Stores a beer read from the database, unless the cache already holds a newer version of it or
+     * the beer was evicted after the load started, in which case the loaded copy may be stale.
+     *
+     * @param beer the beer to store
+     * @param loadStartedAt the value {@link #startLoad()} returned before the beer was read
+     */
+    void putLoaded(BeerDto beer, long loadStartedAt) {
+        store(beer, cache.asMap().compute(beer.id(), (id, existing) -> {
+            Long evicted = evictedAt.getIfPresent(id);
+            if (evicted != null && evicted > loadStartedAt) {
+                return existing;
+            }
+            return existing == null ? beer : newerOf(existing, beer);
+        }));
+    }
+
+    private void store(BeerDto beer, BeerDto stored) {
+        if (stored == beer && beer.upc() != null) {
+            idsByUpc.put(beer.upc(), beer.id());
+        }
+    }
+
+    /**
+     * Stores a beer once the current transaction commits, or immediately if there is none.
+     *
+     * @param beer the beer to store
+     */
+    void putAfterCommit(BeerDto beer) {
+        AfterCommit.run(() -> put(beer));
+    }
+
+    /**
+     * Removes a beer once the current transaction commits, or immediately if there is none.
+     *
+     * @param id the beer ID
+     */
+    void evictAfterCommit(Integer id) {
+        AfterCommit.run(() -> evict(id));
+    }
+
+    private void evict(Integer id) {
+        // Recorded under the entry's lock, so a concurrent putLoaded sees either no eviction or this one
+        cache.asMap().compute(id, (key, existing) -> {
+            evictedAt.put(key, evictions.incrementAndGet());
+            return null;
+        });
+    }
+
+    /**
+     * Returns the hit, miss and eviction counts recorded since startup.
+     *
+     * @return the cache statistics
+     */
+    CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Returns the approximate number of cached beers.
+     *
+     * @return the estimated cache size
+     */
+    long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Performs any pending size or time based evictions.
+     */
+    void cleanUp() {
+        cache.cleanUp();
+        idsByUpc.cleanUp();
+        evictedAt.cleanUp();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "beer");
+        CaffeineCacheMetrics.monitor(registry, idsByUpc, "beer_upc");
+    }
+
+    private static BeerDto newerOf(BeerDto existing, BeerDto incoming) {
+        if (existing.version() != null && incoming.version() != null
+                && incoming.version() < existing.version()) {
+            return existing;
+        }
+        return incoming;
+    }
+}
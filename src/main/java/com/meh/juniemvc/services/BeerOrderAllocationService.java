@@ -0,0 +1,21 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.api.model.BeerOrderDto;
+
+/**
+ * Service interface for allocating inventory to beer orders.
+ */
+public interface BeerOrderAllocationService {
+
+    /**
+     * Allocates as much stock as is on hand to each line of a NEW beer order.
+     * The order moves to READY once every line is fully allocated, otherwise it stays NEW
+     * and can be allocated again after a restock.
+     *
+     * @param beerOrderId the beer order ID
+     * @return the beer order after allocation
+     * @throws jakarta.persistence.EntityNotFoundException if the beer order was not found
+     * @throws com.meh.juniemvc.exceptions.InvalidOrderStatusException if the beer order is not NEW
+     */
+    BeerOrderDto allocateBeerOrder(Integer beerOrderId);
+}
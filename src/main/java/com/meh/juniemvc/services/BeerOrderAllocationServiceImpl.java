@@ -0,0 +1,109 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.api.model.BeerOrderDto;
+import com.meh.juniemvc.domain.BeerOrder;
+import com.meh.juniemvc.domain.BeerOrderLine;
+import com.meh.juniemvc.domain.OrderStatus;
+import com.meh.juniemvc.exceptions.InvalidOrderStatusException;
+import com.meh.juniemvc.mappers.BeerOrderMapper;
+import com.meh.juniemvc.repositories.BeerOrderRepository;
+import com.meh.juniemvc.repositories.BeerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Implementation of the BeerOrderAllocationService interface.
+ * <p>
+ * Stock is taken with a conditional UPDATE on the beer row instead of a read-modify-write of the
+ * versioned entity, so concurrent orders for the same beer queue briefly on the row lock rather
+ * than failing with optimistic lock errors and retrying, and orders for different beers never wait
+ * on each other. Lines are allocated in beer ID order so two orders sharing beers always lock them
+ * in the same order and cannot deadlock.
+ * </p>
+ */
+@Slf4j
+@Service
+@Timed("service.calls")
+@RequiredArgsConstructor
+public class BeerOrderAllocationServiceImpl implements BeerOrderAllocationService {
+
+    private final BeerOrderRepository beerOrderRepository;
+    private final BeerRepository beerRepository;
+    private final BeerOrderMapper beerOrderMapper;
+    private final BeerCache beerCache;
+    private final BeerOrderEvents beerOrderEvents;
+    private final CustomerOrderSummaryWriter customerOrderSummaryWriter;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public BeerOrderDto allocateBeerOrder(Integer beerOrderId) {
+        BeerOrder beerOrder = beerOrderRepository.findWithLinesOnlyById(beerOrderId)
+                .orElseThrow(() -> new EntityNotFoundException("Beer order not found with id: " + beerOrderId));
+
+        if (beerOrder.getOrderStatus() != OrderStatus.NEW) {
+            throw new InvalidOrderStatusException(
+                    "Beer order " + beerOrderId + " can't be allocated in status " + beerOrder.getOrderStatus());
+        }
+
+        List<BeerOrderLine> lines = beerOrder.getBeerOrderLines().stream()
+                .sorted(Comparator.comparing(line -> line.getBeer().getId()))
+                .toList();
+
+        boolean fullyAllocated = true;
+        for (BeerOrderLine line : lines) {
+            int outstanding = line.getOrderQuantity() - line.getQuantityAllocated();
+            if (outstanding > 0) {
+                Integer beerId = line.getBeer().getId();
+                int allocated = takeStock(beerId, outstanding);
+                if (allocated > 0) {
+                    line.setQuantityAllocated(line.getQuantityAllocated() + allocated);
+                    beerCache.evictAfterCommit(beerId);
+                }
+                fullyAllocated &= allocated == outstanding;
+            }
+        }
+
+        if (fullyAllocated) {
+            beerOrder.setOrderStatus(OrderStatus.READY);
+            beerOrderEvents.statusChanged(beerOrder, OrderStatus.NEW);
+            customerOrderSummaryWriter.statusChanged(beerOrder, OrderStatus.NEW);
+        }
+
+        // Write the allocation, then reload the order so the response reflects the new stock levels
+        entityManager.flush();
+        entityManager.clear();
+        return beerOrderRepository.findWithLinesById(beerOrderId)
+                .map(beerOrderMapper::beerOrderToBeerOrderDto)
+                .orElseThrow();
+    }
+
+    /**
+     * Takes up to the wanted quantity of a beer. When another order takes stock between the read and
+     * the conditional update, the update matches no row and the smaller remaining stock is retried.
+     * Each retry means some other order made progress, so the loop always terminates.
+     */
+    private int takeStock(Integer beerId, int wanted) {
+        while (true) {
+            int onHand = beerRepository.findQuantityOnHandById(beerId).orElse(0);
+            int quantity = Math.min(onHand, wanted);
+            if (quantity <= 0) {
+                return 0;
+            }
+
+            if (beerRepository.decrementQuantityOnHand(beerId, quantity, LocalDateTime.now()) == 1) {
+                return quantity;
+            }
+            log.debug("Stock of beer {} changed during allocation, retrying", beerId);
+        }
+    }
+}
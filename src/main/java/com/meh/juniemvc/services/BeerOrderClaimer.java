@@ -0,0 +1,137 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.domain.BeerOrder;
+import com.meh.juniemvc.domain.OrderStatus;
+import com.meh.juniemvc.repositories.BeerOrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Claims batches of beer orders for workers draining a status queue, such as fulfillment moving
+ * READY orders to PICKED_UP, so that no order is claimed twice and workers don't wait on each other.
+ * <p>
+ * Where the dialect supports it, the oldest orders are read with {@code FOR UPDATE SKIP LOCKED}
+ * and moved in one transaction: rows another worker is claiming are passed over instead of waited for.
+ * Other databases, H2 included, get a portable fallback: each worker reads a window of the oldest
+ * candidate IDs without locking, shuffles them so workers rarely start on the same row, and moves
+ * each with a compare-and-set UPDATE in its own short transaction. A lost compare-and-set means
+ * another worker took the order; a round with losses is followed by a fresh read, up to a few rounds.
+ * </p>
+ */
+@Slf4j
+@Component
+class BeerOrderClaimer {
+
+    static final int CANDIDATE_WINDOW = 4;
+    static final int MAX_COMPARE_AND_SET_ROUNDS = 3;
+
+    private final BeerOrderRepository beerOrderRepository;
+    private final BeerOrderEvents beerOrderEvents;
+    private final CustomerOrderSummaryWriter customerOrderSummaryWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean skipLocked;
+
+    BeerOrderClaimer(BeerOrderRepository beerOrderRepository,
+                     BeerOrderEvents beerOrderEvents,
+                     CustomerOrderSummaryWriter customerOrderSummaryWriter,
+                     PlatformTransactionManager transactionManager,
+                     EntityManagerFactory entityManagerFactory) {
+        this.beerOrderRepository = beerOrderRepository;
+        this.beerOrderEvents = beerOrderEvents;
+        this.customerOrderSummaryWriter = customerOrderSummaryWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.skipLocked = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().supportsSkipLocked();
+        log.info("Claiming beer orders with {}", skipLocked ? "SKIP LOCKED" : "compare-and-set updates");
+    }
+
+    /**
+     * Moves up to the given number of the oldest orders in one status to the next status.
+     *
+     * @param orderStatus the status to claim orders from
+     * @param nextStatus the status claimed orders are moved to
+     * @param maxOrders the maximum number of orders to claim
+     * @return the IDs of the claimed orders in ascending order, empty if none could be claimed
+     */
+    List<Integer> claim(OrderStatus orderStatus, OrderStatus nextStatus, int maxOrders) {
+        return skipLocked
+                ? claimSkippingLocked(orderStatus, nextStatus, maxOrders)
+                : claimByCompareAndSet(orderStatus, nextStatus, maxOrders);
+    }
+
+    List<Integer> claimSkippingLocked(OrderStatus orderStatus, OrderStatus nextStatus, int maxOrders) {
+        return transactionTemplate.execute(status -> {
+            List<BeerOrder> beerOrders =
+                    beerOrderRepository.findForClaimByOrderStatusOrderById(orderStatus, Limit.of(maxOrders));
+            List<Integer> claimed = new ArrayList<>(beerOrders.size());
+            for (BeerOrder beerOrder : beerOrders) {
+                beerOrder.setOrderStatus(nextStatus);
+                statusChanged(beerOrder, orderStatus);
+                claimed.add(beerOrder.getId());
+            }
+            return claimed;
+        });
+    }
+
+    List<Integer> claimByCompareAndSet(OrderStatus orderStatus, OrderStatus nextStatus, int maxOrders) {
+        List<Integer> claimed = new ArrayList<>(maxOrders);
+        for (int round = 0; round < MAX_COMPARE_AND_SET_ROUNDS && claimed.size() < maxOrders; round++) {
+            int wanted = maxOrders - claimed.size();
+            List<Integer> candidates = new ArrayList<>(
+                    beerOrderRepository.findIdsByOrderStatus(orderStatus, Limit.of(wanted * CANDIDATE_WINDOW)));
+            Collections.shuffle(candidates);
+
+            boolean contended = false;
+            for (int i = 0; i < candidates.size() && claimed.size() < maxOrders; i++) {
+                Integer id = candidates.get(i);
+                if (compareAndSet(id, orderStatus, nextStatus)) {
+                    claimed.add(id);
+                } else {
+                    contended = true;
+                }
+            }
+            // Without losses every candidate was free, so there is nothing more to find
+            if (!contended) {
+                break;
+            }
+            log.debug("Lost beer orders in {} to other workers in round {}, {} of {} claimed",
+                    orderStatus, round, claimed.size(), maxOrders);
+        }
+        Collections.sort(claimed);
+        return claimed;
+    }
+
+    private boolean compareAndSet(Integer id, OrderStatus orderStatus, OrderStatus nextStatus) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (beerOrderRepository.compareAndSetStatus(id, orderStatus, nextStatus, LocalDateTime.now()) == 0) {
+                    return false;
+                }
+                // Loaded after the update, so it already carries the next status
+                BeerOrder beerOrder = beerOrderRepository.findById(id).orElseThrow();
+                statusChanged(beerOrder, orderStatus);
+                return true;
+            }));
+        } catch (PessimisticLockingFailureException e) {
+            // Another worker held the row for longer than the lock timeout; leave the order to it
+            log.debug("Timed out waiting for beer order {}", id, e);
+            return false;
+        }
+    }
+
+    private void statusChanged(BeerOrder beerOrder, OrderStatus previousStatus) {
+        beerOrderEvents.statusChanged(beerOrder, previousStatus);
+        customerOrderSummaryWriter.statusChanged(beerOrder, previousStatus);
+    }
+}
@@ -0,0 +1,14 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.api.model.BeerOrderDto;
+
+/**
+ * Outcome of an idempotent beer order creation.
+ *
+ * @param beerOrder the created beer order, or the one created earlier for the same key
+ * @param replayed true if the order was created by an earlier request with the same key
+ */
+public record BeerOrderCreation(
+    BeerOrderDto beerOrder,
+    boolean replayed
+) {}
@@ -0,0 +1,35 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.domain.BeerOrder;
+import com.meh.juniemvc.domain.BeerOrderStatusChangedEvent;
+import com.meh.juniemvc.domain.OrderStatus;
+import com.meh.juniemvc.outbox.OutboxWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records beer order events in the outbox. Must be called inside the transaction that makes the change.
+ */
+@Component
+@RequiredArgsConstructor
+class BeerOrderEvents {
+
+    static final String AGGREGATE_TYPE = "BeerOrder";
+    static final String STATUS_CHANGED = "BeerOrderStatusChanged";
+
+    private final OutboxWriter outboxWriter;
+
+    /**
+     * Records a status change, unless the status did not actually change.
+     */
+    void statusChanged(BeerOrder beerOrder, OrderStatus previousStatus) {
+        if (beerOrder.getOrderStatus() == previousStatus) {
+            return;
+        }
+        Integer customerId = beerOrder.getCustomer() != null ? beerOrder.getCustomer().getId() : null;
+        outboxWriter.write(AGGREGATE_TYPE, beerOrder.getId(), STATUS_CHANGED, new BeerOrderStatusChangedEvent(
+                beerOrder.getId(), customerId, previousStatus, beerOrder.getOrderStatus(), LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,19 @@
+package com.meh.juniemvc.services;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration properties for streamed beer order lines.
+ *
+ * @param chunkSize the number of lines flushed and cleared from the persistence context at a time
+ */
+@Validated
+@ConfigurationProperties("junie.bulk.beer-order-line")
+record BeerOrderLineBulkProperties(
+    @Positive
+    @DefaultValue("1000")
+    int chunkSize
+) {}
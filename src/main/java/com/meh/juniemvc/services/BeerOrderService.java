@@ -1,8 +1,17 @@
 package com.meh.juniemvc.services;
 
+import com.meh.juniemvc.api.model.BeerOrderCompactDto;
 import com.meh.juniemvc.api.model.BeerOrderDto;
+import com.meh.juniemvc.api.model.BeerOrderHistoryPage;
+import com.meh.juniemvc.api.model.BeerOrderIngestDto;
+import com.meh.juniemvc.api.model.BeerOrderLineDto;
+import com.meh.juniemvc.api.model.CustomerOrderSummaryDto;
 import com.meh.juniemvc.domain.OrderStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,8 +25,33 @@ public interface BeerOrderService {
      *
      * @param beerOrderDto the beer order data
      * @return the created beer order
+     * @throws jakarta.persistence.EntityNotFoundException if the customer or a beer was not found
      */
     BeerOrderDto createBeerOrder(BeerOrderDto beerOrderDto);
+
+    /**
+     * Creates a new beer order at most once per idempotency key and customer. A retry with a key
+     * seen before, including one racing the original request, gets the order created for that key.
+     * Keys are honoured for at least the configured TTL.
+     *
+     * @param beerOrderDto the beer order data
+     * @param idempotencyKey the client's idempotency key, or null to always create a new order
+     * @return the created or previously created beer order, and whether it was replayed
+     * @throws jakarta.persistence.EntityNotFoundException if the customer or a beer was not found
+     */
+    BeerOrderCreation createBeerOrder(BeerOrderDto beerOrderDto, String idempotencyKey);
+
+    /**
+     * Creates a new beer order from lines consumed one at a time, writing them in flushed and cleared
+     * chunks so memory use doesn't depend on the number of lines.
+     *
+     * @param customerId the customer ID
+     * @param beerOrderLines the lines, consumed once
+     * @return the created beer order without its lines
+     * @throws jakarta.persistence.EntityNotFoundException if the customer or a beer was not found
+     * @throws jakarta.validation.ConstraintViolationException if a line is invalid
+     */
+    BeerOrderIngestDto ingestBeerOrder(Integer customerId, Iterator<BeerOrderLineDto> beerOrderLines);
     
     /**
      * Retrieves a beer order by its ID.
@@ -26,21 +60,44 @@ public interface BeerOrderService {
      * @return an Optional containing the beer order if found, or empty if not found
      */
     Optional<BeerOrderDto> getBeerOrderById(Integer id);
+
+    /**
+     * Retrieves the compact view of a beer order, read with projections instead of entities.
+     *
+     * @param id the beer order ID
+     * @return an Optional containing the compact beer order if found, or empty if not found
+     */
+    Optional<BeerOrderCompactDto> getCompactBeerOrderById(Integer id);
     
     /**
-     * Retrieves all beer orders.
+     * Retrieves beer orders a page at a time.
      *
-     * @return a list of all beer orders
+     * @param pageable the page request
+     * @return a page of beer orders
      */
-    List<BeerOrderDto> getAllBeerOrders();
+    Page<BeerOrderDto> getAllBeerOrders(Pageable pageable);
     
     /**
-     * Retrieves all beer orders for a specific customer.
+     * Retrieves beer orders for a specific customer a page at a time.
      *
      * @param customerId the customer ID
-     * @return a list of beer orders for the customer
+     * @param pageable the page request
+     * @return a page of beer orders for the customer
      */
-    List<BeerOrderDto> getBeerOrdersByCustomerId(Integer customerId);
+    Page<BeerOrderDto> getBeerOrdersByCustomerId(Integer customerId, Pageable pageable);
+
+    /**
+     * Retrieves a page of a customer's order history, newest first, using the created date and ID
+     * of the last order seen as the cursor. Orders come without their lines.
+     *
+     * @param customerId the customer ID
+     * @param beforeCreatedDate the created date of the last order on the previous page, or null for the first page
+     * @param beforeId the ID of the last order on the previous page, or null for the first page
+     * @param size the page size, clamped to between 1 and 100
+     * @return the page of order headers and the cursor for the next page
+     */
+    BeerOrderHistoryPage getBeerOrderHistory(Integer customerId, LocalDateTime beforeCreatedDate, Integer beforeId,
+                                             int size);
     
     /**
      * Updates the status of a beer order.
@@ -48,6 +105,37 @@ public interface BeerOrderService {
      * @param id the beer order ID
      * @param orderStatus the new order status
      * @return the updated beer order
+     * @throws jakarta.persistence.EntityNotFoundException if the beer order was not found
      */
     BeerOrderDto updateBeerOrderStatus(Integer id, OrderStatus orderStatus);
-}
\ No newline at end of file
+
+    /**
+     * Claims up to the given number of the oldest orders in one status by moving them to the next,
+     * for workers draining a status queue in parallel. No order is claimed by two callers, and callers
+     * pass over orders others are claiming instead of waiting for them.
+     *
+     * @param orderStatus the status to claim orders from
+     * @param nextStatus the status claimed orders are moved to
+     * @param maxOrders the maximum number of orders to claim, clamped to between 1 and 100
+     * @return the claimed beer orders with their lines in ID order, empty if none could be claimed
+     * @throws com.meh.juniemvc.exceptions.InvalidOrderStatusException if the next status is not the one
+     *         orders move to from the given status, READY to PICKED_UP or PICKED_UP to DELIVERED
+     */
+    List<BeerOrderDto> claimBeerOrders(OrderStatus orderStatus, OrderStatus nextStatus, int maxOrders);
+
+    /**
+     * Retrieves the order totals of a customer from the summary read model, without touching the orders.
+     *
+     * @param customerId the customer ID
+     * @return the totals overall and by order status, all zero if the customer has no orders
+     */
+    CustomerOrderSummaryDto getCustomerOrderSummary(Integer customerId);
+
+    /**
+     * Recomputes the summary read model of every customer from the beer orders, for recovery
+     * after the summary was lost or got out of step.
+     *
+     * @return the number of customer and order status rows written
+     */
+    int rebuildCustomerOrderSummaries();
+}
@@ -0,0 +1,225 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.api.model.BeerOrderCompactDto;
+import com.meh.juniemvc.api.model.BeerOrderDto;
+import com.meh.juniemvc.api.model.BeerOrderHistoryDto;
+import com.meh.juniemvc.api.model.BeerOrderHistoryPage;
+import com.meh.juniemvc.api.model.BeerOrderIngestDto;
+import com.meh.juniemvc.api.model.BeerOrderLineDto;
+import com.meh.juniemvc.api.model.CustomerOrderSummaryDto;
+import com.meh.juniemvc.api.model.OrderStatusSummaryDto;
+import com.meh.juniemvc.domain.BeerOrder;
+import com.meh.juniemvc.domain.CustomerOrderSummary;
+import com.meh.juniemvc.domain.OrderStatus;
+import com.meh.juniemvc.exceptions.InvalidOrderStatusException;
+import com.meh.juniemvc.mappers.BeerOrderMapper;
+import com.meh.juniemvc.repositories.BeerOrderLineRepository;
+import com.meh.juniemvc.repositories.BeerOrderRepository;
+import com.meh.juniemvc.repositories.CustomerOrderSummaryRepository;
+import jakarta.persistence.EntityNotFoundException;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementation of the BeerOrderService interface.
+ * <p>
+ * Single orders are read with one query that joins the customer, lines and beers. Pages of orders
+ * join the customer and rely on batch fetching for lines and beers, so the number of statements
+ * depends on the page size divided by the batch size rather than on the number of lines.
+ * A customer's order history is read as projected headers with keyset pagination instead, so a
+ * page costs the same however many orders the customer has.
+ * </p>
+ */
+@Service
+@Timed("service.calls")
+@RequiredArgsConstructor
+public class BeerOrderServiceImpl implements BeerOrderService {
+
+    static final int MAX_HISTORY_PAGE_SIZE = 100;
+    static final int MAX_CLAIM_SIZE = 100;
+
+    /**
+     * The status each claimable status moves to. NEW orders only become READY through allocation,
+     * which takes the stock, and DELIVERED and CANCELLED are final.
+     */
+    static final Map<OrderStatus, OrderStatus> CLAIM_TRANSITIONS = Map.of(
+            OrderStatus.READY, OrderStatus.PICKED_UP,
+            OrderStatus.PICKED_UP, OrderStatus.DELIVERED);
+
+    private final BeerOrderRepository beerOrderRepository;
+    private final BeerOrderLineRepository beerOrderLineRepository;
+    private final BeerOrderMapper beerOrderMapper;
+    private final BeerOrderWriter beerOrderWriter;
+    private final BeerOrderStreamWriter beerOrderStreamWriter;
+    private final BeerOrderEvents beerOrderEvents;
+    private final CustomerOrderSummaryRepository customerOrderSummaryRepository;
+    private final CustomerOrderSummaryWriter customerOrderSummaryWriter;
+    private final IdempotencyKeys idempotencyKeys;
+    private final BeerOrderClaimer beerOrderClaimer;
+
+    @Override
+    public BeerOrderDto createBeerOrder(BeerOrderDto beerOrderDto) {
+        return beerOrderWriter.create(beerOrderDto, null);
+    }
+
+    @Override
+    public BeerOrderCreation createBeerOrder(BeerOrderDto beerOrderDto, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return new BeerOrderCreation(beerOrderWriter.create(beerOrderDto, null), false);
+        }
+
+        Integer customerId = beerOrderDto.customer().id();
+        Optional<BeerOrderCreation> replay = findReplay(customerId, idempotencyKey);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+
+        try {
+            return new BeerOrderCreation(beerOrderWriter.create(beerOrderDto, idempotencyKey), false);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key committed first, so answer with its order
+            return findReplay(customerId, idempotencyKey).orElseThrow(() -> e);
+        }
+    }
+
+    @Override
+    public BeerOrderIngestDto ingestBeerOrder(Integer customerId, Iterator<BeerOrderLineDto> beerOrderLines) {
+        return beerOrderStreamWriter.ingest(customerId, beerOrderLines);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<BeerOrderDto> getBeerOrderById(Integer id) {
+        return beerOrderRepository.findWithLinesById(id)
+                .map(beerOrderMapper::beerOrderToBeerOrderDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<BeerOrderCompactDto> getCompactBeerOrderById(Integer id) {
+        return beerOrderRepository.findHeaderById(id)
+                .map(header -> new BeerOrderCompactDto(header.id(), header.version(), header.orderStatus(),
+                        header.createdDate(), header.customerId(), header.customerName(), header.totalQuantity(),
+                        header.totalPrice(), beerOrderLineRepository.findCompactByBeerOrderId(id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BeerOrderDto> getAllBeerOrders(Pageable pageable) {
+        return beerOrderRepository.findAll(pageable)
+                .map(beerOrderMapper::beerOrderToBeerOrderDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BeerOrderDto> getBeerOrdersByCustomerId(Integer customerId, Pageable pageable) {
+        return beerOrderRepository.findByCustomerId(customerId, pageable)
+                .map(beerOrderMapper::beerOrderToBeerOrderDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BeerOrderHistoryPage getBeerOrderHistory(Integer customerId, LocalDateTime beforeCreatedDate,
+                                                    Integer beforeId, int size) {
+        int pageSize = Math.clamp(size, 1, MAX_HISTORY_PAGE_SIZE);
+
+        // Fetch one extra row to know whether another page follows
+        Limit limit = Limit.of(pageSize + 1);
+        List<BeerOrderHistoryDto> orders = beforeCreatedDate == null || beforeId == null
+                ? beerOrderRepository.findHistoryByCustomerId(customerId, limit)
+                : beerOrderRepository.findHistoryByCustomerIdBefore(customerId, beforeCreatedDate, beforeId, limit);
+        if (orders.size() <= pageSize) {
+            return new BeerOrderHistoryPage(orders, null, null);
+        }
+
+        BeerOrderHistoryDto last = orders.get(pageSize - 1);
+        return new BeerOrderHistoryPage(List.copyOf(orders.subList(0, pageSize)), last.createdDate(), last.id());
+    }
+
+    @Override
+    @Transactional
+    public BeerOrderDto updateBeerOrderStatus(Integer id, OrderStatus orderStatus) {
+        BeerOrder beerOrder = beerOrderRepository.findWithLinesById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Beer order not found with id: " + id));
+
+        OrderStatus previousStatus = beerOrder.getOrderStatus();
+        beerOrder.setOrderStatus(orderStatus);
+        beerOrderEvents.statusChanged(beerOrder, previousStatus);
+        customerOrderSummaryWriter.statusChanged(beerOrder, previousStatus);
+        BeerOrder savedBeerOrder = beerOrderRepository.saveAndFlush(beerOrder);
+        return beerOrderMapper.beerOrderToBeerOrderDto(savedBeerOrder);
+    }
+
+    /**
+     * Not transactional: the claimer runs its own transactions, and the claimed orders are read
+     * after they committed, in one query.
+     */
+    @Override
+    public List<BeerOrderDto> claimBeerOrders(OrderStatus orderStatus, OrderStatus nextStatus, int maxOrders) {
+        if (CLAIM_TRANSITIONS.get(orderStatus) != nextStatus) {
+            throw new InvalidOrderStatusException(
+                    "Beer orders can't be claimed from " + orderStatus + " to " + nextStatus);
+        }
+        List<Integer> claimed = beerOrderClaimer.claim(orderStatus, nextStatus, Math.clamp(maxOrders, 1, MAX_CLAIM_SIZE));
+        if (claimed.isEmpty()) {
+            return List.of();
+        }
+        return beerOrderRepository.findWithLinesByIdInOrderById(claimed).stream()
+                .map(beerOrderMapper::beerOrderToBeerOrderDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerOrderSummaryDto getCustomerOrderSummary(Integer customerId) {
+        Map<OrderStatus, OrderStatusSummaryDto> byStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus orderStatus : OrderStatus.values()) {
+            byStatus.put(orderStatus, new OrderStatusSummaryDto(0, 0, BigDecimal.ZERO));
+        }
+
+        long orderCount = 0;
+        long totalQuantity = 0;
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        for (CustomerOrderSummary summary : customerOrderSummaryRepository.findByCustomerId(customerId)) {
+            byStatus.put(summary.getOrderStatus(), new OrderStatusSummaryDto(
+                    summary.getOrderCount(), summary.getTotalQuantity(), summary.getTotalPrice()));
+            orderCount += summary.getOrderCount();
+            totalQuantity += summary.getTotalQuantity();
+            totalPrice = totalPrice.add(summary.getTotalPrice());
+        }
+        return new CustomerOrderSummaryDto(customerId, orderCount, totalQuantity, totalPrice, byStatus);
+    }
+
+    @Override
+    @Transactional
+    public int rebuildCustomerOrderSummaries() {
+        customerOrderSummaryRepository.deleteAllRows();
+        return customerOrderSummaryRepository.insertFromBeerOrders();
+    }
+
+    /**
+     * Looks up the order created earlier for an idempotency key and loads its current state.
+     */
+    private Optional<BeerOrderCreation> findReplay(Integer customerId, String idempotencyKey) {
+        return idempotencyKeys.findBeerOrderId(customerId, idempotencyKey)
+                .map(beerOrderId -> beerOrderRepository.findWithLinesById(beerOrderId)
+                        .map(beerOrderMapper::beerOrderToBeerOrderDto)
+                        .orElseThrow(() -> new EntityNotFoundException(
+                                "Beer order " + beerOrderId + " created for this idempotency key no longer exists")))
+                .map(beerOrderDto -> new BeerOrderCreation(beerOrderDto, true));
+    }
+}
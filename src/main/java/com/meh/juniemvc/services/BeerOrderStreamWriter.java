@@ -0,0 +1,208 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.api.model.BeerOrderIngestDto;
+import com.meh.juniemvc.api.model.BeerOrderLineDto;
+import com.meh.juniemvc.domain.Beer;
+import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.domain.BeerOrder;
+import com.meh.juniemvc.domain.BeerOrderLine;
+import com.meh.juniemvc.domain.Customer;
+import com.meh.juniemvc.domain.OrderStatus;
+import com.meh.juniemvc.repositories.BeerOrderRepository;
+import com.meh.juniemvc.repositories.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates a beer order from lines that are read one at a time, for orders too large to hold in memory.
+ * <p>
+ * Lines are validated as they arrive and written a chunk at a time: the beers of a chunk not seen
+ * before are resolved cache-first with one multi-get, the chunk is flushed in JDBC batches and the
+ * persistence context is cleared. Only the prices of the distinct beers are kept across chunks, so
+ * memory doesn't grow with the number of lines.
+ * </p>
+ * <p>
+ * The order is written in one transaction so an invalid line rolls all of it back. The first chunk is
+ * read and validated before the transaction starts, so an order of up to one chunk never holds a
+ * connection while the client is still sending it. Past the first chunk the transaction stays open
+ * while the rest of the lines are read; the caller bounds that by limiting how long the body may take.
+ * </p>
+ */
+@Component
+class BeerOrderStreamWriter {
+
+    private final BeerOrderRepository beerOrderRepository;
+    private final CustomerRepository customerRepository;
+    private final BeerService beerService;
+    private final CustomerOrderSummaryWriter customerOrderSummaryWriter;
+    private final BeerOrderLineBulkProperties beerOrderLineBulkProperties;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    BeerOrderStreamWriter(BeerOrderRepository beerOrderRepository,
+                          CustomerRepository customerRepository,
+                          BeerService beerService,
+                          CustomerOrderSummaryWriter customerOrderSummaryWriter,
+                          BeerOrderLineBulkProperties beerOrderLineBulkProperties,
+                          Validator validator,
+                          EntityManager entityManager,
+                          PlatformTransactionManager transactionManager) {
+        this.beerOrderRepository = beerOrderRepository;
+        this.customerRepository = customerRepository;
+        this.beerService = beerService;
+        this.customerOrderSummaryWriter = customerOrderSummaryWriter;
+        this.beerOrderLineBulkProperties = beerOrderLineBulkProperties;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Creates a beer order and writes its lines as the iterator yields them.
+     *
+     * @param customerId the customer ID
+     * @param beerOrderLines the lines, consumed once
+     * @return the created beer order without its lines
+     * @throws EntityNotFoundException if the customer or a beer was not found
+     * @throws ConstraintViolationException if a line is invalid or the total quantity exceeds an int
+     */
+    public BeerOrderIngestDto ingest(Integer customerId, Iterator<BeerOrderLineDto> beerOrderLines) {
+        int chunkSize = beerOrderLineBulkProperties.chunkSize();
+        List<BeerOrderLineDto> firstChunk = new ArrayList<>(chunkSize);
+        long firstChunkQuantity = 0;
+        while (firstChunk.size() < chunkSize && beerOrderLines.hasNext()) {
+            BeerOrderLineDto lineDto = beerOrderLines.next();
+            validate(lineDto, firstChunk.size() + 1);
+            firstChunkQuantity = addQuantity(firstChunkQuantity, lineDto, firstChunk.size() + 1);
+            firstChunk.add(lineDto);
+        }
+        long totalQuantity = firstChunkQuantity;
+        return transactionTemplate.execute(status -> write(customerId, firstChunk, totalQuantity, beerOrderLines));
+    }
+
+    private BeerOrderIngestDto write(Integer customerId, List<BeerOrderLineDto> firstChunk, long firstChunkQuantity,
+                                     Iterator<BeerOrderLineDto> beerOrderLines) {
+        Customer customer = customerRepository.findById(customerId)
+                .orElseThrow(() -> new EntityNotFoundException("Customer not found with id: " + customerId));
+
+        BeerOrder beerOrder = BeerOrder.builder()
+                .orderStatus(OrderStatus.NEW)
+                .customer(customer)
+                .build();
+        entityManager.persist(beerOrder);
+
+        int chunkSize = beerOrderLineBulkProperties.chunkSize();
+        Map<Integer, BigDecimal> pricesByBeerId = new HashMap<>();
+        int lineCount = firstChunk.size();
+        long totalQuantity = firstChunkQuantity;
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        if (!firstChunk.isEmpty()) {
+            totalPrice = writeChunk(beerOrder.getId(), firstChunk, pricesByBeerId);
+        }
+
+        List<BeerOrderLineDto> chunk = new ArrayList<>(chunkSize);
+        while (beerOrderLines.hasNext()) {
+            BeerOrderLineDto lineDto = beerOrderLines.next();
+            lineCount++;
+            validate(lineDto, lineCount);
+            totalQuantity = addQuantity(totalQuantity, lineDto, lineCount);
+            chunk.add(lineDto);
+            if (chunk.size() == chunkSize) {
+                totalPrice = totalPrice.add(writeChunk(beerOrder.getId(), chunk, pricesByBeerId));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            totalPrice = totalPrice.add(writeChunk(beerOrder.getId(), chunk, pricesByBeerId));
+        }
+
+        beerOrder.setTotalQuantity((int) totalQuantity);
+        beerOrder.setTotalPrice(totalPrice);
+        if (!entityManager.contains(beerOrder)) {
+            // Detached by the first chunk's clear, so the totals are set with an update instead of dirty checking
+            beerOrderRepository.updateTotals(beerOrder.getId(), beerOrder.getTotalQuantity(), totalPrice);
+        }
+        customerOrderSummaryWriter.orderCreated(beerOrder);
+
+        return new BeerOrderIngestDto(beerOrder.getId(), beerOrder.getOrderStatus(), customerId, lineCount,
+                beerOrder.getTotalQuantity(), totalPrice);
+    }
+
+    private void validate(BeerOrderLineDto lineDto, int lineNumber) {
+        Set<ConstraintViolation<BeerOrderLineDto>> violations = validator.validate(lineDto);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException("Invalid beer order line " + lineNumber, violations);
+        }
+        if (lineDto.beer().id() == null) {
+            throw new ConstraintViolationException("Invalid beer order line " + lineNumber + ": beer ID is required",
+                    Set.of());
+        }
+    }
+
+    /**
+     * Adds a line's quantity to the running total, failing on the line that takes it past an int.
+     */
+    private static long addQuantity(long totalQuantity, BeerOrderLineDto lineDto, int lineNumber) {
+        long newTotal = totalQuantity + lineDto.orderQuantity();
+        if (newTotal > Integer.MAX_VALUE) {
+            throw new ConstraintViolationException("Invalid beer order line " + lineNumber
+                    + ": total order quantity exceeds " + Integer.MAX_VALUE, Set.of());
+        }
+        return newTotal;
+    }
+
+    /**
+     * Persists one chunk of lines, then flushes and clears the persistence context.
+     *
+     * @return the value of the chunk's lines
+     */
+    private BigDecimal writeChunk(Integer beerOrderId, List<BeerOrderLineDto> chunk,
+                                  Map<Integer, BigDecimal> pricesByBeerId) {
+        Set<Integer> unknownBeerIds = chunk.stream()
+                .map(lineDto -> lineDto.beer().id())
+                .filter(beerId -> !pricesByBeerId.containsKey(beerId))
+                .collect(Collectors.toSet());
+        if (!unknownBeerIds.isEmpty()) {
+            for (BeerDto beer : beerService.getBeersByIds(unknownBeerIds).values()) {
+                pricesByBeerId.put(beer.id(), beer.price() == null ? BigDecimal.ZERO : beer.price());
+            }
+            for (Integer beerId : unknownBeerIds) {
+                if (!pricesByBeerId.containsKey(beerId)) {
+                    throw new EntityNotFoundException("Beer not found with id: " + beerId);
+                }
+            }
+        }
+
+        BeerOrder beerOrder = entityManager.getReference(BeerOrder.class, beerOrderId);
+        BigDecimal chunkPrice = BigDecimal.ZERO;
+        for (BeerOrderLineDto lineDto : chunk) {
+            Integer beerId = lineDto.beer().id();
+            entityManager.persist(BeerOrderLine.builder()
+                    .beerOrder(beerOrder)
+                    .beer(entityManager.getReference(Beer.class, beerId))
+                    .orderQuantity(lineDto.orderQuantity())
+                    .quantityAllocated(0)
+                    .build());
+            chunkPrice = chunkPrice.add(pricesByBeerId.get(beerId).multiply(BigDecimal.valueOf(lineDto.orderQuantity())));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return chunkPrice;
+    }
+}
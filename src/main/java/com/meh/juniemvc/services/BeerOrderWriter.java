@@ -0,0 +1,115 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.api.model.BeerOrderDto;
+import com.meh.juniemvc.api.model.BeerOrderLineDto;
+import com.meh.juniemvc.domain.Beer;
+import com.meh.juniemvc.domain.BeerOrder;
+import com.meh.juniemvc.domain.BeerOrderLine;
+import com.meh.juniemvc.domain.Customer;
+import com.meh.juniemvc.domain.OrderStatus;
+import com.meh.juniemvc.mappers.BeerOrderMapper;
+import com.meh.juniemvc.repositories.BeerOrderRepository;
+import com.meh.juniemvc.repositories.BeerRepository;
+import com.meh.juniemvc.repositories.CustomerRepository;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates one beer order per transaction.
+ * <p>
+ * Kept apart from BeerOrderServiceImpl so the service can call it through the transactional proxy
+ * and handle a duplicate idempotency key after the failed transaction has rolled back.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+class BeerOrderWriter {
+
+    private final BeerOrderRepository beerOrderRepository;
+    private final CustomerRepository customerRepository;
+    private final BeerRepository beerRepository;
+    private final BeerOrderMapper beerOrderMapper;
+    private final CustomerOrderSummaryWriter customerOrderSummaryWriter;
+    private final IdempotencyKeys idempotencyKeys;
+
+    /**
+     * Creates a beer order with its lines and, when a key is given, records the key with it.
+     *
+     * @param beerOrderDto the beer order data
+     * @param idempotencyKey the client's idempotency key, or null
+     * @return the created beer order
+     * @throws EntityNotFoundException if the customer or a beer was not found
+     * @throws ConstraintViolationException if the total quantity of the lines exceeds the integer range
+     * @throws org.springframework.dao.DataIntegrityViolationException if the key was already recorded
+     */
+    @Transactional
+    public BeerOrderDto create(BeerOrderDto beerOrderDto, String idempotencyKey) {
+        Set<BeerOrderLineDto> lineDtos = beerOrderDto.beerOrderLines() == null ? Set.of() : beerOrderDto.beerOrderLines();
+        // Summed as a long, as each line alone may be up to the column's limit
+        long totalQuantity = lineDtos.stream().mapToLong(BeerOrderLineDto::orderQuantity).sum();
+        if (totalQuantity > Integer.MAX_VALUE) {
+            throw new ConstraintViolationException(
+                    "Total order quantity " + totalQuantity + " exceeds " + Integer.MAX_VALUE, Set.of());
+        }
+
+        Integer customerId = beerOrderDto.customer().id();
+        Customer customer = customerRepository.findById(customerId)
+                .orElseThrow(() -> new EntityNotFoundException("Customer not found with id: " + customerId));
+        Map<Integer, Beer> beersById = findBeers(lineDtos);
+
+        BeerOrder beerOrder = BeerOrder.builder()
+                .orderStatus(OrderStatus.NEW)
+                .customer(customer)
+                .build();
+
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        for (BeerOrderLineDto lineDto : lineDtos) {
+            Beer beer = beersById.get(lineDto.beer().id());
+            beerOrder.addBeerOrderLine(BeerOrderLine.builder()
+                    .beer(beer)
+                    .orderQuantity(lineDto.orderQuantity())
+                    .quantityAllocated(0)
+                    .build());
+            if (beer.getPrice() != null) {
+                totalPrice = totalPrice.add(beer.getPrice().multiply(BigDecimal.valueOf(lineDto.orderQuantity())));
+            }
+        }
+        beerOrder.setTotalQuantity((int) totalQuantity);
+        beerOrder.setTotalPrice(totalPrice);
+
+        BeerOrder savedBeerOrder = beerOrderRepository.save(beerOrder);
+        if (idempotencyKey != null) {
+            idempotencyKeys.record(customerId, idempotencyKey, savedBeerOrder.getId());
+        }
+        customerOrderSummaryWriter.orderCreated(savedBeerOrder);
+        return beerOrderMapper.beerOrderToBeerOrderDto(savedBeerOrder);
+    }
+
+    /**
+     * Loads every beer referenced by the order lines with a single IN query.
+     */
+    private Map<Integer, Beer> findBeers(Set<BeerOrderLineDto> lineDtos) {
+        Set<Integer> beerIds = lineDtos.stream()
+                .map(lineDto -> lineDto.beer().id())
+                .collect(Collectors.toSet());
+
+        Map<Integer, Beer> beersById = beerRepository.findAllById(beerIds).stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+
+        for (Integer beerId : beerIds) {
+            if (!beersById.containsKey(beerId)) {
+                throw new EntityNotFoundException("Beer not found with id: " + beerId);
+            }
+        }
+        return beersById;
+    }
+}
@@ -0,0 +1,643 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.domain.BeerDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over beer names, styles and UPCs, used for ranked prefix search.
+ * <p>
+ * Names and styles are split into lowercase, accent-free tokens kept in sorted term maps, so every
+ * term starting with a prefix is one contiguous range. Each term points at a sorted array of beer IDs.
+ * The first word of each name is also kept in a map of its own, so names that begin with the query
+ * can be ranked first. One and two letter prefixes, whose ranges span too many terms to merge per
+ * query, get ID lists of their own. UPCs are only matched exactly. Like {@link BeerCache}, writes
+ * carrying an older version than the indexed one are ignored.
+ * </p>
+ * <p>
+ * Searches never score beers one by one. Each query word matches in a fixed set of tiers, from a whole
+ * word at the start of the name down to a prefix of a style word. Combinations of tiers are visited
+ * from the highest total down, each as an intersection of ID lists walked in ID order, and the search
+ * stops as soon as enough beers have been found. A short prefix that matches a large part of the
+ * catalog therefore costs about as much as a precise one.
+ * </p>
+ * <p>
+ * The index only returns IDs. Callers resolve them to beers, which drops any ID whose beer has been
+ * deleted in the meantime.
+ * </p>
+ */
+@Component
+class BeerSearchIndex implements MeterBinder {
+
+    static final int MAX_QUERY_TOKENS = 4;
+    static final int SHORT_PREFIX_LENGTH = 2;
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final String[] NO_TOKENS = new String[0];
+
+    // Scores of the match tiers. Only the first query word can earn the leading tiers.
+    private static final int LEADING_EXACT = 7;
+    private static final int NAME_EXACT = 6;
+    private static final int LEADING_PREFIX = 5;
+    private static final int NAME_PREFIX = 4;
+    private static final int STYLE_EXACT = 3;
+    private static final int STYLE_PREFIX = 2;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TermIndex nameTerms = new TermIndex();
+    private final TermIndex leadingTerms = new TermIndex();
+    private final TermIndex styleTerms = new TermIndex();
+    private final Map<String, IntPostings> upcs = new HashMap<>();
+    private final Map<Integer, IndexedBeer> beers = new HashMap<>();
+
+    /**
+     * Adds a beer to the index or replaces its entry, unless the index already holds a newer version.
+     *
+     * @param beer the beer to index
+     */
+    void index(BeerDto beer) {
+        String[] nameTokens = tokenize(beer.beerName());
+        String[] styleTokens = tokenize(beer.beerStyle());
+        String upc = normalizeUpc(beer.upc());
+
+        lock.writeLock().lock();
+        try {
+            IndexedBeer existing = beers.get(beer.id());
+            if (existing != null) {
+                if (existing.version() != null && beer.version() != null && beer.version() < existing.version()) {
+                    return;
+                }
+                unlink(beer.id(), existing);
+            }
+
+            IndexedBeer indexed = new IndexedBeer(nameTerms.canonical(nameTokens), styleTerms.canonical(styleTokens),
+                    upc, beer.version());
+            nameTerms.add(indexed.nameTokens(), beer.id());
+            leadingTerms.add(indexed.leadingToken(), beer.id());
+            styleTerms.add(indexed.styleTokens(), beer.id());
+            if (upc != null) {
+                link(upcs, upc, beer.id());
+            }
+            beers.put(beer.id(), indexed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a beer from the index.
+     *
+     * @param id the beer ID
+     */
+    void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            IndexedBeer existing = beers.remove(id);
+            if (existing != null) {
+                unlink(id, existing);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a beer once the current transaction commits, or immediately if there is none.
+     *
+     * @param beer the beer to index
+     */
+    void indexAfterCommit(BeerDto beer) {
+        AfterCommit.run(() -> index(beer));
+    }
+
+    /**
+     * Removes a beer once the current transaction commits, or immediately if there is none.
+     *
+     * @param id the beer ID
+     */
+    void removeAfterCommit(Integer id) {
+        AfterCommit.run(() -> remove(id));
+    }
+
+    /**
+     * Finds the beers whose name or style has a word starting with every query word, plus any beer whose
+     * UPC equals the whole query. Only the first {@value #MAX_QUERY_TOKENS} query words are used.
+     * <p>
+     * Each query word scores by its best match: a whole name word, then the start of a name word, then a
+     * whole style word, then the start of a style word. Matching the first word of the name with the first
+     * query word ranks higher still, and a UPC match outranks everything. Ties go to the lower ID.
+     * </p>
+     *
+     * @param query the search text, typically what the user has typed so far
+     * @param limit the maximum number of results
+     * @return the matching beer IDs, best match first
+     */
+    List<Integer> search(String query, int limit) {
+        String[] queryTokens = tokenize(query);
+        if (queryTokens.length > MAX_QUERY_TOKENS) {
+            queryTokens = Arrays.copyOf(queryTokens, MAX_QUERY_TOKENS);
+        }
+        String upc = normalizeUpc(query);
+        if (limit <= 0 || (queryTokens.length == 0 && upc == null)) {
+            return List.of();
+        }
+
+        Set<Integer> found = new LinkedHashSet<>();
+        lock.readLock().lock();
+        try {
+            IntPostings upcMatches = upc == null ? null : upcs.get(upc);
+            for (int i = 0; upcMatches != null && i < upcMatches.size() && found.size() < limit; i++) {
+                found.add(upcMatches.get(i));
+            }
+            if (queryTokens.length > 0 && found.size() < limit) {
+                collectTokenMatches(queryTokens, limit, found);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return List.copyOf(found);
+    }
+
+    /**
+     * Returns the number of indexed beers.
+     *
+     * @return the index size
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return beers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("beer.search.index.beers", this, BeerSearchIndex::size)
+                .description("Beers in the search index")
+                .register(registry);
+        Gauge.builder("beer.search.index.terms", this, BeerSearchIndex::termCount)
+                .description("Distinct name and style words in the search index")
+                .register(registry);
+    }
+
+    /**
+     * Splits text into lowercase tokens of letters and digits, with accents removed.
+     *
+     * @param text the text to split, may be null
+     * @return the tokens in order of appearance
+     */
+    static String[] tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return NO_TOKENS;
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return Arrays.stream(TOKEN_SEPARATOR.split(folded.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Visits tier combinations from the highest total score down. Combinations with the same total are
+     * merged so their beers come out in ID order. A beer is kept from the first combination it appears in,
+     * which is its best.
+     */
+    private void collectTokenMatches(String[] queryTokens, int limit, Set<Integer> found) {
+        List<List<Tier>> tiersPerToken = new ArrayList<>(queryTokens.length);
+        for (int i = 0; i < queryTokens.length; i++) {
+            List<Tier> tiers = tiers(queryTokens[i], i == 0);
+            if (tiers.isEmpty()) {
+                return;
+            }
+            tiersPerToken.add(tiers);
+        }
+
+        List<Tier[]> combinations = new ArrayList<>();
+        combine(tiersPerToken, new Tier[queryTokens.length], 0, combinations);
+        combinations.sort(Comparator.comparingInt(BeerSearchIndex::totalScore).reversed());
+
+        int start = 0;
+        while (start < combinations.size() && found.size() < limit) {
+            int score = totalScore(combinations.get(start));
+            int end = start;
+            List<DocStream> group = new ArrayList<>();
+            while (end < combinations.size() && totalScore(combinations.get(end)) == score) {
+                group.add(intersection(combinations.get(end++)));
+            }
+
+            DocStream matches = group.size() == 1 ? group.get(0) : new UnionStream(group);
+            for (int id = matches.nextDoc(); id != DocStream.NO_MORE && found.size() < limit; id = matches.nextDoc()) {
+                found.add(id);
+            }
+            start = end;
+        }
+    }
+
+    private List<Tier> tiers(String token, boolean first) {
+        List<Tier> tiers = new ArrayList<>(6);
+        if (first) {
+            leadingTerms.addTiers(tiers, token, LEADING_EXACT, LEADING_PREFIX);
+        }
+        nameTerms.addTiers(tiers, token, NAME_EXACT, NAME_PREFIX);
+        styleTerms.addTiers(tiers, token, STYLE_EXACT, STYLE_PREFIX);
+        return tiers;
+    }
+
+    private static void combine(List<List<Tier>> tiersPerToken, Tier[] current, int token, List<Tier[]> combinations) {
+        if (token == tiersPerToken.size()) {
+            combinations.add(current.clone());
+            return;
+        }
+        for (Tier tier : tiersPerToken.get(token)) {
+            current[token] = tier;
+            combine(tiersPerToken, current, token + 1, combinations);
+        }
+    }
+
+    private static int totalScore(Tier[] combination) {
+        int total = 0;
+        for (Tier tier : combination) {
+            total += tier.score();
+        }
+        return total;
+    }
+
+    /**
+     * Intersects the tiers of a combination, driven by the one with the fewest IDs.
+     */
+    private static DocStream intersection(Tier[] combination) {
+        if (combination.length == 1) {
+            return combination[0].stream();
+        }
+        Tier[] bySize = combination.clone();
+        Arrays.sort(bySize, Comparator.comparingLong(Tier::size));
+        DocStream[] streams = new DocStream[bySize.length];
+        for (int i = 0; i < bySize.length; i++) {
+            streams[i] = bySize[i].stream();
+        }
+        return new IntersectionStream(streams);
+    }
+
+    private void unlink(Integer id, IndexedBeer indexed) {
+        nameTerms.remove(indexed.nameTokens(), id);
+        leadingTerms.remove(indexed.leadingToken(), id);
+        styleTerms.remove(indexed.styleTokens(), id);
+        if (indexed.upc() != null) {
+            unlink(upcs, indexed.upc(), id);
+        }
+    }
+
+    private static void link(Map<String, IntPostings> map, String key, int id) {
+        map.computeIfAbsent(key, k -> new IntPostings()).add(id);
+    }
+
+    private static void unlink(Map<String, IntPostings> map, String key, int id) {
+        IntPostings postings = map.get(key);
+        if (postings != null && postings.remove(id) && postings.size() == 0) {
+            map.remove(key);
+        }
+    }
+
+    private int termCount() {
+        lock.readLock().lock();
+        try {
+            return nameTerms.termCount() + styleTerms.termCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String normalizeUpc(String upc) {
+        if (upc == null || upc.isBlank()) {
+            return null;
+        }
+        return upc.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private record IndexedBeer(String[] nameTokens, String[] styleTokens, String upc, Integer version) {
+
+        String[] leadingToken() {
+            return nameTokens.length == 0 ? NO_TOKENS : new String[]{nameTokens[0]};
+        }
+    }
+
+    /**
+     * The terms of one field, each mapped to the IDs of the beers containing it, plus the IDs of the beers
+     * with a term starting with each short prefix.
+     */
+    private static final class TermIndex {
+
+        private final TreeMap<String, IntPostings> terms = new TreeMap<>();
+        private final Map<String, IntPostings> shortPrefixes = new HashMap<>();
+
+        void add(String[] tokens, int id) {
+            for (String token : tokens) {
+                link(terms, token, id);
+                for (int length = 1; length <= Math.min(SHORT_PREFIX_LENGTH, token.length()); length++) {
+                    link(shortPrefixes, token.substring(0, length), id);
+                }
+            }
+        }
+
+        void remove(String[] tokens, int id) {
+            for (String token : tokens) {
+                unlink(terms, token, id);
+                for (int length = 1; length <= Math.min(SHORT_PREFIX_LENGTH, token.length()); length++) {
+                    unlink(shortPrefixes, token.substring(0, length), id);
+                }
+            }
+        }
+
+        /**
+         * Adds the exact and prefix tiers of this field for a query word. The prefix tier is left out when
+         * it would hold no beer the exact tier does not.
+         */
+        void addTiers(List<Tier> tiers, String token, int exactScore, int prefixScore) {
+            IntPostings exact = terms.get(token);
+            if (exact != null) {
+                tiers.add(new Tier(exactScore, List.of(exact)));
+            }
+
+            if (token.length() <= SHORT_PREFIX_LENGTH) {
+                IntPostings prefixed = shortPrefixes.get(token);
+                if (prefixed != null && (exact == null || prefixed.size() > exact.size())) {
+                    tiers.add(new Tier(prefixScore, List.of(prefixed)));
+                }
+                return;
+            }
+            NavigableMap<String, IntPostings> range = terms.subMap(token, true, token + Character.MAX_VALUE, false);
+            if (!range.isEmpty() && (exact == null || !range.lastKey().equals(token))) {
+                tiers.add(new Tier(prefixScore, List.copyOf(range.values())));
+            }
+        }
+
+        /**
+         * Replaces tokens with the equal key already in the term map, so each distinct term is held once.
+         */
+        String[] canonical(String[] tokens) {
+            for (int i = 0; i < tokens.length; i++) {
+                String existing = terms.ceilingKey(tokens[i]);
+                if (tokens[i].equals(existing)) {
+                    tokens[i] = existing;
+                }
+            }
+            return tokens;
+        }
+
+        int termCount() {
+            return terms.size();
+        }
+    }
+
+    /**
+     * The beers matching one query word in one way, such as "a name word starts with it".
+     */
+    private record Tier(int score, List<IntPostings> postings) {
+
+        long size() {
+            long size = 0;
+            for (IntPostings list : postings) {
+                size += list.size();
+            }
+            return size;
+        }
+
+        DocStream stream() {
+            if (postings.size() == 1) {
+                return new PostingsStream(postings.get(0));
+            }
+            List<DocStream> streams = new ArrayList<>(postings.size());
+            for (IntPostings list : postings) {
+                streams.add(new PostingsStream(list));
+            }
+            return new UnionStream(streams);
+        }
+    }
+
+    /**
+     * Sorted, growable array of beer IDs. IDs arrive mostly in ascending order, which appends.
+     */
+    private static final class IntPostings {
+
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            if (size == 0 || ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        int get(int index) {
+            return ids[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Returns the index of the first ID at or after {@code from} that is not below the target,
+         * galloping ahead before the binary search since targets are usually close by.
+         */
+        int ceilingIndex(int from, int target) {
+            int low = from;
+            int step = 1;
+            while (low + step < size && ids[low + step] < target) {
+                low += step;
+                step <<= 1;
+            }
+            int position = Arrays.binarySearch(ids, low, Math.min(low + step + 1, size), target);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+    }
+
+    /**
+     * Iterator over beer IDs in ascending order. Starts before the first ID.
+     */
+    private abstract static class DocStream {
+
+        static final int NO_MORE = Integer.MAX_VALUE;
+
+        int doc = -1;
+
+        /**
+         * Moves to the next ID.
+         *
+         * @return the ID, or {@link #NO_MORE} when exhausted
+         */
+        abstract int nextDoc();
+
+        /**
+         * Moves to the first ID not below the target, which must be above the current ID.
+         *
+         * @return the ID, or {@link #NO_MORE} when exhausted
+         */
+        abstract int advance(int target);
+    }
+
+    private static final class PostingsStream extends DocStream {
+
+        private final IntPostings postings;
+        private int position = -1;
+
+        PostingsStream(IntPostings postings) {
+            this.postings = postings;
+        }
+
+        @Override
+        int nextDoc() {
+            position++;
+            return doc = position < postings.size() ? postings.get(position) : NO_MORE;
+        }
+
+        @Override
+        int advance(int target) {
+            position = postings.ceilingIndex(Math.max(position, 0), target);
+            return doc = position < postings.size() ? postings.get(position) : NO_MORE;
+        }
+    }
+
+    /**
+     * IDs found in any of the sub-streams, each returned once.
+     */
+    private static final class UnionStream extends DocStream {
+
+        private final List<DocStream> streams;
+        private final PriorityQueue<DocStream> heap;
+        private boolean started;
+
+        UnionStream(List<DocStream> streams) {
+            this.streams = streams;
+            this.heap = new PriorityQueue<>(streams.size(), Comparator.comparingInt(stream -> stream.doc));
+        }
+
+        @Override
+        int nextDoc() {
+            if (!started) {
+                started = true;
+                for (DocStream stream : streams) {
+                    if (stream.nextDoc() != NO_MORE) {
+                        heap.add(stream);
+                    }
+                }
+            } else {
+                while (!heap.isEmpty() && heap.peek().doc == doc) {
+                    DocStream stream = heap.poll();
+                    if (stream.nextDoc() != NO_MORE) {
+                        heap.add(stream);
+                    }
+                }
+            }
+            return doc = heap.isEmpty() ? NO_MORE : heap.peek().doc;
+        }
+
+        @Override
+        int advance(int target) {
+            if (!started) {
+                started = true;
+                for (DocStream stream : streams) {
+                    if (stream.advance(target) != NO_MORE) {
+                        heap.add(stream);
+                    }
+                }
+            } else {
+                while (!heap.isEmpty() && heap.peek().doc < target) {
+                    DocStream stream = heap.poll();
+                    if (stream.advance(target) != NO_MORE) {
+                        heap.add(stream);
+                    }
+                }
+            }
+            return doc = heap.isEmpty() ? NO_MORE : heap.peek().doc;
+        }
+    }
+
+    /**
+     * IDs found in all of the sub-streams. The first stream leads and the others leapfrog to catch up.
+     */
+    private static final class IntersectionStream extends DocStream {
+
+        private final DocStream[] streams;
+
+        IntersectionStream(DocStream[] streams) {
+            this.streams = streams;
+        }
+
+        @Override
+        int nextDoc() {
+            return align(streams[0].nextDoc());
+        }
+
+        @Override
+        int advance(int target) {
+            return align(streams[0].advance(target));
+        }
+
+        private int align(int target) {
+            outer:
+            while (target != NO_MORE) {
+                for (int i = 1; i < streams.length; i++) {
+                    DocStream stream = streams[i];
+                    if (stream.doc < target) {
+                        stream.advance(target);
+                    }
+                    if (stream.doc > target) {
+                        target = streams[0].advance(stream.doc);
+                        continue outer;
+                    }
+                }
+                return doc = target;
+            }
+            return doc = NO_MORE;
+        }
+    }
+}
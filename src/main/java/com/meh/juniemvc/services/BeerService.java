@@ -1,11 +1,20 @@
 package com.meh.juniemvc.services;
 
 
+import com.meh.juniemvc.domain.BeerBulkResult;
 import com.meh.juniemvc.domain.BeerCreateRequest;
 import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.domain.BeerPage;
+import com.meh.juniemvc.domain.BeerPageRequest;
 import com.meh.juniemvc.domain.BeerUpdateRequest;
+import com.meh.juniemvc.domain.BeerUpsertRequest;
+import com.meh.juniemvc.domain.VersionPrecondition;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service interface for managing beer operations.
@@ -19,6 +28,26 @@ public interface BeerService {
      */
     BeerDto saveBeer(BeerCreateRequest beerCreateRequest);
     
+    /**
+     * Saves many new beers using JDBC batching, one transaction per chunk.
+     * Invalid items and items whose UPC is already in use are reported in the results and skipped,
+     * the rest are written.
+     *
+     * @param beerCreateRequests the beer creation requests
+     * @return one result per request item, in request order
+     */
+    List<BeerBulkResult> saveBeers(List<BeerCreateRequest> beerCreateRequests);
+    
+    /**
+     * Updates existing beers and creates new ones using JDBC batching, one transaction per chunk.
+     * Items without an ID are created, items with an unknown ID are reported as not found.
+     * An item that takes another beer's UPC, or that loses a concurrent update, is reported and skipped.
+     *
+     * @param beerUpsertRequests the beer upsert requests
+     * @return one result per request item, in request order
+     */
+    List<BeerBulkResult> upsertBeers(List<BeerUpsertRequest> beerUpsertRequests);
+    
     /**
      * Retrieves a beer by its ID.
      *
@@ -27,6 +56,57 @@ public interface BeerService {
      */
     Optional<BeerDto> getBeerById(Integer id);
     
+    /**
+     * Retrieves many beers by ID at once, from the cache when possible and otherwise with a few IN
+     * queries instead of one query per beer.
+     *
+     * @param ids the beer IDs; duplicates and nulls are ignored
+     * @return the found beers keyed by ID; IDs without a beer are absent
+     */
+    Map<Integer, BeerDto> getBeersByIds(Collection<Integer> ids);
+    
+    /**
+     * Retrieves a beer by its UPC, from the cache when possible.
+     *
+     * @param upc the UPC
+     * @return an Optional containing the beer DTO if found, or empty if not found
+     */
+    Optional<BeerDto> getBeerByUpc(String upc);
+    
+    /**
+     * Retrieves the current version of a beer, from the cache when possible, without mapping the beer.
+     * Lets conditional GETs be answered with 304 (Not Modified) cheaply.
+     *
+     * @param id the beer ID
+     * @return an Optional containing the version, or empty if the beer was not found
+     */
+    Optional<Integer> getBeerVersion(Integer id);
+    
+    /**
+     * Lists beers a page at a time, using the ID of the last beer seen as the cursor.
+     *
+     * @param pageRequest the filters, cursor, direction and page size
+     * @return the page of beers and the cursor for the next page
+     */
+    BeerPage listBeers(BeerPageRequest pageRequest);
+    
+    /**
+     * Searches beer names and styles by word prefix, and UPCs exactly, using the in-memory search index.
+     * Every word of the query must match the start of a word in the beer's name or style.
+     *
+     * @param query the search text, typically what the user has typed so far
+     * @param limit the maximum number of results, capped at {@value BeerServiceImpl#MAX_SEARCH_RESULTS}
+     * @return the matching beers, best match first
+     */
+    List<BeerDto> searchBeers(String query, int limit);
+    
+    /**
+     * Streams every beer to the given consumer in ID order, holding only one beer in memory at a time.
+     *
+     * @param beerConsumer the consumer receiving each beer
+     */
+    void exportBeers(Consumer<BeerDto> beerConsumer);
+    
     /**
      * Updates an existing beer.
      *
@@ -36,6 +116,18 @@ public interface BeerService {
      */
     BeerDto updateBeer(Integer id, BeerUpdateRequest beerUpdateRequest);
     
+    /**
+     * Updates an existing beer if it is still at one of the accepted versions.
+     *
+     * @param id the beer ID
+     * @param beerUpdateRequest the beer update request
+     * @param precondition the versions the client accepts, or null to update unconditionally
+     * @return the updated beer as a DTO, or null if the beer was not found and there is no precondition
+     * @throws com.meh.juniemvc.exceptions.PreconditionFailedException if the beer is at another version,
+     *         or was not found and there is a precondition
+     */
+    BeerDto updateBeer(Integer id, BeerUpdateRequest beerUpdateRequest, VersionPrecondition precondition);
+    
     /**
      * Deletes a beer by its ID.
      *
@@ -43,4 +135,15 @@ public interface BeerService {
      * @return true if the beer was deleted, false if it was not found
      */
     boolean deleteBeer(Integer id);
+    
+    /**
+     * Deletes a beer by its ID if it is still at one of the accepted versions.
+     *
+     * @param id the beer ID
+     * @param precondition the versions the client accepts, or null to delete unconditionally
+     * @return true if the beer was deleted, false if it was not found and there is no precondition
+     * @throws com.meh.juniemvc.exceptions.PreconditionFailedException if the beer is at another version,
+     *         or was not found and there is a precondition
+     */
+    boolean deleteBeer(Integer id, VersionPrecondition precondition);
 }
\ No newline at end of file
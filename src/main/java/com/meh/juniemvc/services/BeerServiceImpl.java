@@ -1,73 +1,416 @@
 package com.meh.juniemvc.services;
 
 import com.meh.juniemvc.domain.Beer;
+import com.meh.juniemvc.domain.BeerBulkResult;
+import com.meh.juniemvc.domain.BeerBulkStatus;
 import com.meh.juniemvc.domain.BeerCreateRequest;
 import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.domain.BeerPage;
+import com.meh.juniemvc.domain.BeerPageRequest;
+import com.meh.juniemvc.domain.BeerRevision;
 import com.meh.juniemvc.domain.BeerUpdateRequest;
+import com.meh.juniemvc.domain.BeerUpsertRequest;
+import com.meh.juniemvc.domain.VersionPrecondition;
+import com.meh.juniemvc.exceptions.PreconditionFailedException;
 import com.meh.juniemvc.mappers.BeerMapper;
 import com.meh.juniemvc.repositories.BeerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of the BeerService interface.
  */
+@Slf4j
 @Service
+@Timed("service.calls")
 @RequiredArgsConstructor
 public class BeerServiceImpl implements BeerService {
 
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_SEARCH_RESULTS = 50;
+    static final int MAX_IDS_PER_QUERY = 1000;
+
     private final BeerRepository beerRepository;
     private final BeerMapper beerMapper;
+    private final BeerCache beerCache;
+    private final BeerSearchIndex beerSearchIndex;
+    private final BeerBatchWriter beerBatchWriter;
+    private final BeerBulkProperties beerBulkProperties;
+    private final Validator validator;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
     public BeerDto saveBeer(BeerCreateRequest beerCreateRequest) {
         Beer beer = beerMapper.beerCreateRequestToBeer(beerCreateRequest);
         Beer savedBeer = beerRepository.save(beer);
-        return beerMapper.beerToBeerDto(savedBeer);
+        BeerDto savedBeerDto = beerMapper.beerToBeerDto(savedBeer);
+        beerCache.putAfterCommit(savedBeerDto);
+        beerSearchIndex.indexAfterCommit(savedBeerDto);
+        return savedBeerDto;
     }
 
     @Override
-    @Transactional(readOnly = true)
+    public List<BeerBulkResult> saveBeers(List<BeerCreateRequest> beerCreateRequests) {
+        return writeInChunks(beerCreateRequests, beerBatchWriter::createChunk);
+    }
+
+    @Override
+    public List<BeerBulkResult> upsertBeers(List<BeerUpsertRequest> beerUpsertRequests) {
+        return writeInChunks(beerUpsertRequests, beerBatchWriter::upsertChunk);
+    }
+
+    /**
+     * Serves the beer from the cache when possible. Not transactional on purpose: a cache hit must
+     * not check out a connection, and on a miss the repository call runs in its own read-only transaction.
+     */
+    @Override
     public Optional<BeerDto> getBeerById(Integer id) {
-        return beerRepository.findById(id)
+        Optional<BeerDto> cachedBeer = beerCache.get(id);
+        if (cachedBeer.isPresent()) {
+            return cachedBeer;
+        }
+
+        long loadStartedAt = beerCache.startLoad();
+        Optional<BeerDto> beer = beerRepository.findById(id)
                 .map(beerMapper::beerToBeerDto);
+        beer.ifPresent(beerDto -> beerCache.putLoaded(beerDto, loadStartedAt));
+        return beer;
     }
 
+    /**
+     * Not transactional for the same reason as {@link #getBeerById(Integer)}. A miss is a single seek on
+     * the unique UPC index and populates both the ID and the UPC cache.
+     */
     @Override
-    @Transactional
-    public BeerDto updateBeer(Integer id, BeerUpdateRequest beerUpdateRequest) {
-        Optional<Beer> existingBeerOptional = beerRepository.findById(id);
+    public Optional<BeerDto> getBeerByUpc(String upc) {
+        Optional<BeerDto> cachedBeer = beerCache.getByUpc(upc);
+        if (cachedBeer.isPresent()) {
+            return cachedBeer;
+        }
+
+        long loadStartedAt = beerCache.startLoad();
+        Optional<BeerDto> beer = beerRepository.findByUpc(upc)
+                .map(beerMapper::beerToBeerDto);
+        beer.ifPresent(beerDto -> beerCache.putLoaded(beerDto, loadStartedAt));
+        return beer;
+    }
+
+    /**
+     * Not transactional for the same reason as {@link #getBeerById(Integer)}. A miss reads only the
+     * version column and does not populate the cache.
+     */
+    @Override
+    public Optional<Integer> getBeerVersion(Integer id) {
+        Optional<BeerDto> cachedBeer = beerCache.get(id);
+        if (cachedBeer.isPresent()) {
+            return cachedBeer.map(BeerDto::version);
+        }
         
-        if (existingBeerOptional.isEmpty()) {
-            return null;
+        return beerRepository.findVersionById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BeerPage listBeers(BeerPageRequest pageRequest) {
+        int size = Math.clamp(pageRequest.size(), 1, MAX_PAGE_SIZE);
+        
+        // Fetch one extra row to know whether another page follows
+        List<BeerDto> beers = beerRepository.findBeerPage(pageRequest, size + 1);
+        if (beers.size() <= size) {
+            return new BeerPage(beers, null);
         }
         
-        Beer existingBeer = existingBeerOptional.get();
+        List<BeerDto> page = beers.subList(0, size);
+        return new BeerPage(List.copyOf(page), page.get(size - 1).id());
+    }
+
+    /**
+     * Not transactional for the same reason as {@link #getBeerById(Integer)}. Cached beers are looked up
+     * with one cache call; the rest are loaded with one IN query per {@value #MAX_IDS_PER_QUERY} IDs,
+     * which keeps each query within the bind parameter limits of common databases, and are cached.
+     */
+    @Override
+    public Map<Integer, BeerDto> getBeersByIds(Collection<Integer> ids) {
+        Set<Integer> uniqueIds = new HashSet<>(ids);
+        uniqueIds.remove(null);
+        if (uniqueIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Integer, BeerDto> found = new HashMap<>(beerCache.getAll(uniqueIds));
+        List<Integer> missingIds = uniqueIds.stream()
+                .filter(id -> !found.containsKey(id))
+                .toList();
+        for (int from = 0; from < missingIds.size(); from += MAX_IDS_PER_QUERY) {
+            List<Integer> chunk = missingIds.subList(from, Math.min(from + MAX_IDS_PER_QUERY, missingIds.size()));
+            long loadStartedAt = beerCache.startLoad();
+            for (Beer beer : beerRepository.findAllById(chunk)) {
+                BeerDto beerDto = beerMapper.beerToBeerDto(beer);
+                beerCache.putLoaded(beerDto, loadStartedAt);
+                found.put(beerDto.id(), beerDto);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Ranks matching IDs in memory, then resolves them with {@link #getBeersByIds(Collection)}; IDs whose
+     * beer no longer exists are dropped. Not transactional, like {@link #getBeerById(Integer)}.
+     */
+    @Override
+    public List<BeerDto> searchBeers(String query, int limit) {
+        List<Integer> ids = beerSearchIndex.search(query, Math.clamp(limit, 1, MAX_SEARCH_RESULTS));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, BeerDto> found = getBeersByIds(ids);
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Loads the search index from the database once the application has started. Beers written while
+     * the index loads are indexed by their own commits; older copies read here do not overwrite them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildSearchIndex() {
+        long start = System.nanoTime();
+        exportBeers(beerSearchIndex::index);
+        log.info("Indexed {} beers for search in {} ms", beerSearchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBeers(Consumer<BeerDto> beerConsumer) {
+        try (Stream<Beer> beers = beerRepository.streamAll()) {
+            beers.forEach(beer -> {
+                beerConsumer.accept(beerMapper.beerToBeerDto(beer));
+                // Detach as we go so the persistence context doesn't grow with the catalog
+                entityManager.detach(beer);
+            });
+        }
+    }
+
+    @Override
+    @Transactional
+    public BeerDto updateBeer(Integer id, BeerUpdateRequest beerUpdateRequest) {
+        return updateBeer(id, beerUpdateRequest, null);
+    }
+
+    /**
+     * Updates the beer with one versioned UPDATE and builds the result from the request, without loading
+     * the entity. The version and creation date come from the cache when possible, so a cache hit costs a
+     * single statement. If the UPDATE misses, the revision is re-read from the database and tried once more.
+     * A cached version is only ever a guess: when it fails the precondition, a single accepted version is
+     * tried as is, and the precondition fails only when the revision read from the database disagrees.
+     */
+    @Override
+    @Transactional
+    public BeerDto updateBeer(Integer id, BeerUpdateRequest beerUpdateRequest, VersionPrecondition precondition) {
+        Optional<BeerRevision> revision = beerCache.get(id)
+                .map(beer -> new BeerRevision(beer.version(), beer.createdDate()));
+        Integer version;
+        if (revision.isPresent() && (precondition == null || precondition.matches(revision.get().version()))) {
+            version = revision.get().version();
+        } else if (revision.isPresent() && precondition.versions().size() == 1) {
+            version = precondition.versions().iterator().next();
+        } else {
+            revision = beerRepository.findRevisionById(id);
+            if (revision.isEmpty()) {
+                return notFound(id, precondition);
+            }
+            checkVersion(id, revision.get().version(), precondition);
+            version = revision.get().version();
+        }
         
-        // Map properties from update request to existing beer
-        Beer beerFromRequest = beerMapper.beerUpdateRequestToBeer(beerUpdateRequest);
-        existingBeer.setBeerName(beerFromRequest.getBeerName());
-        existingBeer.setBeerStyle(beerFromRequest.getBeerStyle());
-        existingBeer.setUpc(beerFromRequest.getUpc());
-        existingBeer.setPrice(beerFromRequest.getPrice());
-        existingBeer.setQuantityOnHand(beerFromRequest.getQuantityOnHand());
+        LocalDateTime updateDate = LocalDateTime.now();
+        if (!updateAtVersion(id, version, beerUpdateRequest, updateDate)) {
+            // The cached version was stale, or another writer got in first
+            revision = beerRepository.findRevisionById(id);
+            if (revision.isEmpty()) {
+                return notFound(id, precondition);
+            }
+            checkVersion(id, revision.get().version(), precondition);
+            version = revision.get().version();
+            if (!updateAtVersion(id, version, beerUpdateRequest, updateDate)) {
+                if (precondition != null) {
+                    throw new PreconditionFailedException("Beer " + id + " was modified concurrently");
+                }
+                throw new ObjectOptimisticLockingFailureException(Beer.class, id);
+            }
+        }
         
-        Beer savedBeer = beerRepository.save(existingBeer);
-        return beerMapper.beerToBeerDto(savedBeer);
+        BeerDto updatedBeerDto = beerMapper.beerUpdateRequestToBeerDto(id, version + 1,
+                beerUpdateRequest, revision.get().createdDate(), updateDate);
+        beerCache.putAfterCommit(updatedBeerDto);
+        beerSearchIndex.indexAfterCommit(updatedBeerDto);
+        return updatedBeerDto;
     }
 
     @Override
     @Transactional
     public boolean deleteBeer(Integer id) {
-        if (!beerRepository.existsById(id)) {
+        return deleteBeer(id, null);
+    }
+
+    /**
+     * Deletes the beer with one DELETE and checks the affected row count. The version is only read
+     * back when a conditional delete misses, to tell a stale version from a missing beer.
+     */
+    @Override
+    @Transactional
+    public boolean deleteBeer(Integer id, VersionPrecondition precondition) {
+        int deleted = precondition == null || precondition.versions() == null
+                ? beerRepository.deleteBeerById(id)
+                : beerRepository.deleteBeerByIdAndVersionIn(id, precondition.versions());
+        if (deleted == 0) {
+            if (precondition != null) {
+                Integer currentVersion = beerRepository.findVersionById(id).orElse(null);
+                if (currentVersion == null) {
+                    notFound(id, precondition);
+                }
+                checkVersion(id, currentVersion, precondition);
+            }
             return false;
         }
         
-        beerRepository.deleteById(id);
+        beerCache.evictAfterCommit(id);
+        beerSearchIndex.removeAfterCommit(id);
         return true;
     }
+
+    private boolean updateAtVersion(Integer id, Integer version, BeerUpdateRequest beerUpdateRequest,
+                                    LocalDateTime updateDate) {
+        return beerRepository.updateBeer(id, version,
+                beerUpdateRequest.beerName(),
+                beerUpdateRequest.beerStyle(),
+                beerUpdateRequest.upc(),
+                beerUpdateRequest.quantityOnHand(),
+                beerUpdateRequest.price(),
+                updateDate) == 1;
+    }
+
+    private static void checkVersion(Integer id, Integer currentVersion, VersionPrecondition precondition) {
+        if (precondition != null && !precondition.matches(currentVersion)) {
+            throw new PreconditionFailedException("Beer " + id + " is at version " + currentVersion + ", not "
+                    + precondition.versions().stream().sorted().map(String::valueOf).collect(Collectors.joining(" or ")));
+        }
+    }
+
+    /**
+     * A beer that does not exist has no version to match, so any precondition fails.
+     */
+    private static BeerDto notFound(Integer id, VersionPrecondition precondition) {
+        if (precondition != null) {
+            throw new PreconditionFailedException("Beer " + id + " does not exist");
+        }
+        return null;
+    }
+
+    /**
+     * Validates each request in a single pass and hands valid items to the chunk writer as soon as a
+     * chunk fills up. Every chunk commits on its own, so a failure only rolls back the current chunk.
+     */
+    private <T> List<BeerBulkResult> writeInChunks(List<T> requests,
+                                                   Function<List<BeerBulkItem<T>>, List<BeerBulkResult>> chunkWriter) {
+        int chunkSize = beerBulkProperties.chunkSize();
+        BeerBulkResult[] results = new BeerBulkResult[requests.size()];
+        List<BeerBulkItem<T>> chunk = new ArrayList<>(chunkSize);
+        
+        for (int index = 0; index < requests.size(); index++) {
+            T request = requests.get(index);
+            List<String> errors = validate(request);
+            if (!errors.isEmpty()) {
+                results[index] = new BeerBulkResult(index, BeerBulkStatus.INVALID, null, errors);
+                continue;
+            }
+            
+            chunk.add(new BeerBulkItem<>(index, request));
+            if (chunk.size() == chunkSize) {
+                writeChunk(chunk, chunkWriter).forEach(result -> results[result.index()] = result);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, chunkWriter).forEach(result -> results[result.index()] = result);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Writes a chunk in one batch. If the database rejects it, for example because a concurrent request
+     * took a UPC after the chunk checked it, the rolled back chunk is written again one item per
+     * transaction so only the offending items fail.
+     */
+    private <T> List<BeerBulkResult> writeChunk(List<BeerBulkItem<T>> chunk,
+                                                Function<List<BeerBulkItem<T>>, List<BeerBulkResult>> chunkWriter) {
+        if (chunk.size() > 1) {
+            try {
+                return chunkWriter.apply(chunk);
+            } catch (DataIntegrityViolationException | OptimisticLockingFailureException e) {
+                log.warn("Bulk chunk of {} beers was rejected, writing its items one at a time: {}",
+                        chunk.size(), e.getMessage());
+            }
+        }
+        
+        List<BeerBulkResult> results = new ArrayList<>(chunk.size());
+        for (BeerBulkItem<T> item : chunk) {
+            try {
+                results.addAll(chunkWriter.apply(List.of(item)));
+            } catch (DataIntegrityViolationException e) {
+                // The unique UPC index is the only constraint that validation does not cover
+                results.add(new BeerBulkResult(item.index(), BeerBulkStatus.DUPLICATE, null,
+                        List.of("UPC is already in use")));
+            } catch (OptimisticLockingFailureException e) {
+                results.add(new BeerBulkResult(item.index(), BeerBulkStatus.CONFLICT, null,
+                        List.of("Beer was modified concurrently")));
+            }
+        }
+        return results;
+    }
+
+    private <T> List<String> validate(T request) {
+        if (request == null) {
+            return List.of("Beer is required");
+        }
+        
+        Set<ConstraintViolation<T>> violations = validator.validate(request);
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,242 @@
+package com.meh.juniemvc.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.meh.juniemvc.api.model.CustomerDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of customers keyed by ID, with a second cache mapping emails to IDs.
+ * <p>
+ * Works like BeerCache: writes are applied after commit, older versions never replace newer ones,
+ * and a load that started before the customer was deleted is not cached. Metrics are named
+ * "customer" and "customer_email".
+ * </p>
+ * <p>
+ * Emails are not unique and a lookup returns the customer with the lowest ID, so only an email load
+ * maps an email to an ID. A written customer can't tell whether it is the lowest, so a write only
+ * drops a mapping it now outranks and marks the email as changed; an email load that started before
+ * the mark leaves the mapping alone. An email lookup only hits when the cached customer still has
+ * that email.
+ * </p>
+ * <p>
+ * Email lookups come in bursts, e.g. many logins of the same customer at once. Concurrent misses for
+ * one email share a single load instead of each querying the database. The load runs on the calling
+ * thread outside any lock, so a virtual thread waiting on the database doesn't pin its carrier.
+ * </p>
+ */
+@Component
+class CustomerCache implements MeterBinder {
+
+    private final Cache<Integer, CustomerDto> cache;
+    private final Cache<String, Integer> idsByEmail;
+    private final Cache<Integer, Long> evictedAt;
+    private final Cache<String, Long> emailChangedAt;
+    private final AtomicLong changes = new AtomicLong();
+    private final ConcurrentMap<String, CompletableFuture<Optional<CustomerDto>>> emailLoads = new ConcurrentHashMap<>();
+
+    CustomerCache(CustomerCacheProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        this.evictedAt = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .build();
+        this.emailChangedAt = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.ttl())
+                .build();
+    }
+
+    /**
+     * Looks up a customer in the cache.
+     *
+     * @param id the customer ID
+     * @return an Optional containing the cached customer, or empty on a miss
+     */
+    Optional<CustomerDto> get(Integer id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    /**
+     * Looks up a customer by email, loading it on a miss. Callers missing on the same email at the same
+     * time wait for the first caller's load; a found customer is cached.
+     *
+     * @param email the email address
+     * @param loader loads the customer from the database
+     * @return an Optional containing the customer, or empty if none has this email
+     */
+    Optional<CustomerDto> getByEmail(String email, Supplier<Optional<CustomerDto>> loader) {
+        Optional<CustomerDto> cachedCustomer = getCachedByEmail(email);
+        if (cachedCustomer.isPresent()) {
+            return cachedCustomer;
+        }
+
+        CompletableFuture<Optional<CustomerDto>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<CustomerDto>> inFlight = emailLoads.putIfAbsent(email, load);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+        try {
+            long loadStartedAt = startLoad();
+            Optional<CustomerDto> customer = loader.get();
+            customer.ifPresent(loaded -> putLoadedByEmail(email, loaded, loadStartedAt));
+            load.complete(customer);
+            return customer;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            emailLoads.remove(email, load);
+        }
+    }
+
+    /**
+     * Marks the start of a database load whose result will be passed to {@link #putLoaded(CustomerDto, long)}.
+     *
+     * @return the number of evictions and email changes so far, marking the start of the load
+     */
+    long startLoad() {
+        return changes.get();
+    }
+
+    /**
+     * Stores a customer that was written and committed, unless the cache already holds a newer version
+     * of it. If the email was mapped to a higher ID, the mapping is dropped for the next email load.
+     *
+     * @param customer the customer to store
+     */
+    void put(CustomerDto customer) {
+        cache.asMap().merge(customer.id(), customer, CustomerCache::newerOf);
+        if (customer.email() != null) {
+            idsByEmail.asMap().compute(customer.email(), (email, mappedId) -> {
+                emailChangedAt.put(email, changes.incrementAndGet());
+                return mappedId != null && mappedId <= customer.id() ? mappedId : null;
+            });
+        }
+    }
+
+    /**
+     * Stores a customer read from the database by ID, unless the cache already holds a newer version or
+     * the customer was evicted after the load started, in which case the loaded copy may be stale.
+     * The email mapping is left alone.
+     *
+     * @param customer the customer to store
+     * @param loadStartedAt the value {@link #startLoad()} returned before the customer was read
+     * @return the customer now cached under the ID, or null if none is
+     */
+    CustomerDto putLoaded(CustomerDto customer, long loadStartedAt) {
+        return cache.asMap().compute(customer.id(), (id, existing) -> {
+            Long evicted = evictedAt.getIfPresent(id);
+            if (evicted != null && evicted > loadStartedAt) {
+                return existing;
+            }
+            return existing == null ? customer : newerOf(existing, customer);
+        });
+    }
+
+    /**
+     * Stores a customer once the current transaction commits, or immediately if there is none.
+     *
+     * @param customer the customer to store
+     */
+    void putAfterCommit(CustomerDto customer) {
+        AfterCommit.run(() -> put(customer));
+    }
+
+    /**
+     * Removes a customer once the current transaction commits, or immediately if there is none.
+     *
+     * @param id the customer ID
+     */
+    void evictAfterCommit(Integer id) {
+        AfterCommit.run(() -> evict(id));
+    }
+
+    private void evict(Integer id) {
+        // Recorded under the entry's lock, so a concurrent putLoaded sees either no eviction or this one
+        cache.asMap().compute(id, (key, existing) -> {
+            evictedAt.put(key, changes.incrementAndGet());
+            return null;
+        });
+    }
+
+    /**
+     * Returns the hit, miss and eviction counts of the ID cache recorded since startup.
+     *
+     * @return the cache statistics
+     */
+    CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "customer");
+        CaffeineCacheMetrics.monitor(registry, idsByEmail, "customer_email");
+    }
+
+    private void putLoadedByEmail(String email, CustomerDto customer, long loadStartedAt) {
+        CustomerDto stored = putLoaded(customer, loadStartedAt);
+        if (stored == null || !email.equals(stored.email())) {
+            return;
+        }
+        idsByEmail.asMap().compute(email, (key, mappedId) -> {
+            Long changed = emailChangedAt.getIfPresent(key);
+            return changed != null && changed > loadStartedAt ? mappedId : stored.id();
+        });
+    }
+
+    private Optional<CustomerDto> getCachedByEmail(String email) {
+        Integer id = idsByEmail.getIfPresent(email);
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        CustomerDto customer = cache.getIfPresent(id);
+        if (customer == null || !email.equals(customer.email())) {
+            idsByEmail.asMap().remove(email, id);
+            return Optional.empty();
+        }
+        return Optional.of(customer);
+    }
+
+    private static Optional<CustomerDto> join(CompletableFuture<Optional<CustomerDto>> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static CustomerDto newerOf(CustomerDto existing, CustomerDto incoming) {
+        if (existing.version() != null && incoming.version() != null
+                && incoming.version() < existing.version()) {
+            return existing;
+        }
+        return incoming;
+    }
+}
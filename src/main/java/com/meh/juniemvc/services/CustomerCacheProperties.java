@@ -0,0 +1,27 @@
+package com.meh.juniemvc.services;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the in-process customer cache.
+ *
+ * @param maxSize the maximum number of customers kept in the cache
+ * @param ttl how long an entry stays in the cache after it was written
+ */
+@Validated
+@ConfigurationProperties("junie.cache.customer")
+record CustomerCacheProperties(
+    @Positive
+    @DefaultValue("10000")
+    long maxSize,
+
+    @NotNull
+    @DefaultValue("10m")
+    Duration ttl
+) {}
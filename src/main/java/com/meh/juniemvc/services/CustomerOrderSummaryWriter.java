@@ -0,0 +1,52 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.domain.BeerOrder;
+import com.meh.juniemvc.domain.OrderStatus;
+import com.meh.juniemvc.repositories.CustomerOrderSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the customer order summary in step with beer orders. Must be called inside the transaction
+ * that creates the order or changes its status, so the summary commits or rolls back with it.
+ */
+@Component
+@RequiredArgsConstructor
+class CustomerOrderSummaryWriter {
+
+    private final CustomerOrderSummaryRepository customerOrderSummaryRepository;
+
+    /**
+     * Adds a new order to the totals of its status.
+     */
+    void orderCreated(BeerOrder beerOrder) {
+        add(beerOrder, beerOrder.getOrderStatus(), 1);
+    }
+
+    /**
+     * Moves an order's totals from its previous status to its current one, unless the status did not change.
+     */
+    void statusChanged(BeerOrder beerOrder, OrderStatus previousStatus) {
+        OrderStatus orderStatus = beerOrder.getOrderStatus();
+        if (orderStatus == previousStatus) {
+            return;
+        }
+        // Touch the two rows in status order so orders of one customer moving in opposite directions can't deadlock
+        if (previousStatus.compareTo(orderStatus) < 0) {
+            add(beerOrder, previousStatus, -1);
+            add(beerOrder, orderStatus, 1);
+        } else {
+            add(beerOrder, orderStatus, 1);
+            add(beerOrder, previousStatus, -1);
+        }
+    }
+
+    private void add(BeerOrder beerOrder, OrderStatus orderStatus, int sign) {
+        if (beerOrder.getCustomer() == null) {
+            return;
+        }
+        customerOrderSummaryRepository.addToTotals(beerOrder.getCustomer().getId(), orderStatus.name(), sign,
+                (long) sign * beerOrder.getTotalQuantity(),
+                sign < 0 ? beerOrder.getTotalPrice().negate() : beerOrder.getTotalPrice());
+    }
+}
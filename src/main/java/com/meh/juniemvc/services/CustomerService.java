@@ -0,0 +1,64 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.api.model.CustomerDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+
+/**
+ * Service interface for customer operations.
+ */
+public interface CustomerService {
+
+    /**
+     * Saves a new customer.
+     *
+     * @param customerDto the customer data; ID and version are ignored
+     * @return the saved customer
+     */
+    CustomerDto saveCustomer(CustomerDto customerDto);
+
+    /**
+     * Retrieves a customer by ID, from the cache when possible.
+     *
+     * @param id the customer ID
+     * @return an Optional containing the customer if found, or empty if not found
+     */
+    Optional<CustomerDto> getCustomerById(Integer id);
+
+    /**
+     * Retrieves a customer by exact email, from the cache when possible. If several customers share the
+     * email, the one created first is returned.
+     *
+     * @param email the email address
+     * @return an Optional containing the customer if found, or empty if not found
+     */
+    Optional<CustomerDto> getCustomerByEmail(String email);
+
+    /**
+     * Retrieves customers a page at a time.
+     *
+     * @param pageable the page request
+     * @return a page of customers
+     */
+    Page<CustomerDto> listCustomers(Pageable pageable);
+
+    /**
+     * Updates an existing customer.
+     *
+     * @param id the customer ID
+     * @param customerDto the new customer data; ID and version are ignored
+     * @return the updated customer, or null if the customer was not found
+     */
+    CustomerDto updateCustomer(Integer id, CustomerDto customerDto);
+
+    /**
+     * Deletes a customer by ID.
+     *
+     * @param id the customer ID
+     * @return true if the customer was deleted, false if it was not found
+     * @throws org.springframework.dao.DataIntegrityViolationException if the customer has beer orders
+     */
+    boolean deleteCustomer(Integer id);
+}
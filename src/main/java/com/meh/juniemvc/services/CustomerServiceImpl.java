@@ -0,0 +1,95 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.api.model.CustomerDto;
+import com.meh.juniemvc.domain.Customer;
+import com.meh.juniemvc.mappers.CustomerMapper;
+import com.meh.juniemvc.repositories.CustomerRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Implementation of the CustomerService interface.
+ * <p>
+ * Reads select DTOs instead of entities, so a customer's beer orders are never loaded. Lookups by ID
+ * and email go through the customer cache and are not transactional, so a cache hit doesn't check out
+ * a connection; on a miss the repository call runs in its own read-only transaction.
+ * </p>
+ */
+@Service
+@Timed("service.calls")
+@RequiredArgsConstructor
+public class CustomerServiceImpl implements CustomerService {
+
+    private final CustomerRepository customerRepository;
+    private final CustomerMapper customerMapper;
+    private final CustomerCache customerCache;
+
+    @Override
+    @Transactional
+    public CustomerDto saveCustomer(CustomerDto customerDto) {
+        Customer customer = new Customer();
+        customerMapper.updateCustomerFromDto(customerDto, customer);
+        CustomerDto savedCustomer = customerMapper.customerToCustomerDto(customerRepository.save(customer));
+        customerCache.putAfterCommit(savedCustomer);
+        return savedCustomer;
+    }
+
+    @Override
+    public Optional<CustomerDto> getCustomerById(Integer id) {
+        Optional<CustomerDto> cachedCustomer = customerCache.get(id);
+        if (cachedCustomer.isPresent()) {
+            return cachedCustomer;
+        }
+
+        long loadStartedAt = customerCache.startLoad();
+        Optional<CustomerDto> customer = customerRepository.findDtoById(id);
+        customer.ifPresent(customerDto -> customerCache.putLoaded(customerDto, loadStartedAt));
+        return customer;
+    }
+
+    @Override
+    public Optional<CustomerDto> getCustomerByEmail(String email) {
+        return customerCache.getByEmail(email, () -> customerRepository.findDtosByEmail(email, Limit.of(1))
+                .stream()
+                .findFirst());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<CustomerDto> listCustomers(Pageable pageable) {
+        return customerRepository.findAllDtos(pageable);
+    }
+
+    @Override
+    @Transactional
+    public CustomerDto updateCustomer(Integer id, CustomerDto customerDto) {
+        Optional<Customer> customer = customerRepository.findById(id);
+        if (customer.isEmpty()) {
+            return null;
+        }
+
+        customerMapper.updateCustomerFromDto(customerDto, customer.get());
+        // Flush so the returned DTO carries the incremented version
+        CustomerDto updatedCustomer = customerMapper.customerToCustomerDto(customerRepository.saveAndFlush(customer.get()));
+        customerCache.putAfterCommit(updatedCustomer);
+        return updatedCustomer;
+    }
+
+    @Override
+    @Transactional
+    public boolean deleteCustomer(Integer id) {
+        if (customerRepository.deleteCustomerById(id) == 0) {
+            return false;
+        }
+
+        customerCache.evictAfterCommit(id);
+        return true;
+    }
+}
@@ -0,0 +1,104 @@
+package com.meh.juniemvc.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.meh.juniemvc.domain.IdempotencyKeyId;
+import com.meh.juniemvc.repositories.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Store of the idempotency keys of created beer orders.
+ * <p>
+ * The idempotency_key table is the source of truth and a bounded in-process cache answers retries
+ * that reach this instance. Lookups are plain primary key reads and a new key is inserted with the
+ * order, so a first-time request takes no lock beyond its own insert; a concurrent duplicate fails
+ * on the primary key and is answered from the key the winner recorded. Cache metrics are named
+ * "idempotency_key".
+ * </p>
+ * <p>
+ * Keys are honoured for at least the configured TTL and are deleted in batches by a background
+ * purge, each batch in its own short transaction.
+ * </p>
+ */
+@Slf4j
+@Component
+class IdempotencyKeys implements MeterBinder {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyProperties properties;
+    private final Cache<IdempotencyKeyId, Integer> beerOrderIds;
+
+    IdempotencyKeys(IdempotencyKeyRepository idempotencyKeyRepository, IdempotencyProperties properties) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.properties = properties;
+        this.beerOrderIds = Caffeine.newBuilder()
+                .maximumSize(properties.cacheMaxSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Finds the beer order created for a key, from the cache or else the database.
+     *
+     * @param customerId the customer ID
+     * @param idempotencyKey the key sent by the client
+     * @return an Optional containing the beer order ID, or empty if the key is unknown
+     */
+    Optional<Integer> findBeerOrderId(Integer customerId, String idempotencyKey) {
+        IdempotencyKeyId id = new IdempotencyKeyId(customerId, idempotencyKey);
+        Integer cached = beerOrderIds.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<Integer> stored = idempotencyKeyRepository.findBeerOrderId(customerId, idempotencyKey);
+        stored.ifPresent(beerOrderId -> beerOrderIds.put(id, beerOrderId));
+        return stored;
+    }
+
+    /**
+     * Records the beer order created for a key in the current transaction. The key is cached once
+     * the transaction commits.
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException if the key was already recorded
+     */
+    void record(Integer customerId, String idempotencyKey, Integer beerOrderId) {
+        idempotencyKeyRepository.insert(customerId, idempotencyKey, beerOrderId, LocalDateTime.now());
+        AfterCommit.run(() -> beerOrderIds.put(new IdempotencyKeyId(customerId, idempotencyKey), beerOrderId));
+    }
+
+    /**
+     * Deletes the keys older than the TTL, a batch per transaction, until none are left.
+     *
+     * @return the number of keys deleted
+     */
+    @Scheduled(fixedDelayString = "${junie.idempotency.purge-interval:1m}")
+    int purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.ttl());
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = idempotencyKeyRepository.deleteCreatedBefore(cutoff, properties.purgeBatchSize());
+            purged += deleted;
+        } while (deleted == properties.purgeBatchSize());
+
+        if (purged > 0) {
+            log.debug("Purged {} idempotency keys created before {}", purged, cutoff);
+        }
+        return purged;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, beerOrderIds, "idempotency_key");
+    }
+}
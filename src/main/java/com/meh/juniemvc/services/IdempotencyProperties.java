@@ -0,0 +1,37 @@
+package com.meh.juniemvc.services;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for idempotent beer order creation.
+ *
+ * @param ttl how long a key is honoured; expired keys are deleted by the next purge
+ * @param cacheMaxSize the maximum number of keys kept in the in-process cache
+ * @param purgeInterval the delay between the end of one purge and the start of the next
+ * @param purgeBatchSize the maximum number of expired keys deleted per transaction
+ */
+@Validated
+@ConfigurationProperties("junie.idempotency")
+record IdempotencyProperties(
+    @NotNull
+    @DefaultValue("24h")
+    Duration ttl,
+
+    @Positive
+    @DefaultValue("10000")
+    long cacheMaxSize,
+
+    @NotNull
+    @DefaultValue("1m")
+    Duration purgeInterval,
+
+    @Positive
+    @DefaultValue("1000")
+    int purgeBatchSize
+) {}
@@ -0,0 +1,17 @@
+-- Move primary keys from identity columns to sequences so Hibernate can assign IDs up front
+-- and batch inserts. The increment is the ID allocation size used by the pooled-lo optimizer.
+ALTER TABLE beer ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE customer ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE beer_order ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE beer_order_line ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE beer_seq START WITH 1 INCREMENT BY ${id_allocation_size};
+CREATE SEQUENCE customer_seq START WITH 1 INCREMENT BY ${id_allocation_size};
+CREATE SEQUENCE beer_order_seq START WITH 1 INCREMENT BY ${id_allocation_size};
+CREATE SEQUENCE beer_order_line_seq START WITH 1 INCREMENT BY ${id_allocation_size};
+
+-- Continue after the IDs already handed out by the identity columns
+ALTER SEQUENCE beer_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM beer);
+ALTER SEQUENCE customer_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM customer);
+ALTER SEQUENCE beer_order_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM beer_order);
+ALTER SEQUENCE beer_order_line_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM beer_order_line);
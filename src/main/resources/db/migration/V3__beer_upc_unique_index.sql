@@ -0,0 +1,3 @@
+-- Scanners resolve beers by barcode, so UPC lookups must be index seeks. A UPC identifies one beer;
+-- multiple NULLs are still allowed.
+CREATE UNIQUE INDEX uk_beer_upc ON beer(upc);
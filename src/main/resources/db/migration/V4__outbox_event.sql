@@ -0,0 +1,12 @@
+-- Transactional outbox: events are inserted in the same transaction as the change they describe
+-- and deleted once the dispatcher has handed them to every sink.
+CREATE SEQUENCE outbox_event_seq START WITH 1 INCREMENT BY ${id_allocation_size};
+
+CREATE TABLE outbox_event (
+    id BIGINT PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id INTEGER NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    payload VARCHAR(4000) NOT NULL,
+    created_date TIMESTAMP NOT NULL
+);
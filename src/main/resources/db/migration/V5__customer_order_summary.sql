@@ -0,0 +1,26 @@
+-- Keep the units and value of each order on the order itself, priced when the order is placed,
+-- so the summary can move an order between statuses without joining lines and beers
+ALTER TABLE beer_order ADD COLUMN total_quantity INT DEFAULT 0 NOT NULL;
+ALTER TABLE beer_order ADD COLUMN total_price DECIMAL(19, 2) DEFAULT 0 NOT NULL;
+
+UPDATE beer_order o SET
+    total_quantity = (SELECT COALESCE(SUM(l.order_quantity), 0) FROM beer_order_line l WHERE l.beer_order_id = o.id),
+    total_price = (SELECT COALESCE(SUM(l.order_quantity * b.price), 0)
+                   FROM beer_order_line l JOIN beer b ON b.id = l.beer_id WHERE l.beer_order_id = o.id);
+
+-- Per-customer totals by order status, maintained incrementally as orders are created and change status.
+-- No foreign key to customer: the summary is a derived read model and can always be rebuilt.
+CREATE TABLE customer_order_summary (
+    customer_id INT NOT NULL,
+    order_status VARCHAR(50) NOT NULL,
+    order_count BIGINT NOT NULL,
+    total_quantity BIGINT NOT NULL,
+    total_price DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (customer_id, order_status)
+);
+
+INSERT INTO customer_order_summary (customer_id, order_status, order_count, total_quantity, total_price)
+SELECT customer_id, order_status, COUNT(*), SUM(total_quantity), SUM(total_price)
+FROM beer_order
+WHERE customer_id IS NOT NULL
+GROUP BY customer_id, order_status;
@@ -0,0 +1,12 @@
+-- Idempotency keys of created beer orders, scoped to the customer. A retry that races the original
+-- request fails on the primary key instead of creating a second order.
+-- No foreign keys: rows are short-lived and purged in the background once their window has passed.
+CREATE TABLE idempotency_key (
+    customer_id INT NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    beer_order_id INT NOT NULL,
+    created_date TIMESTAMP NOT NULL,
+    PRIMARY KEY (customer_id, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_key_created_date ON idempotency_key(created_date);
@@ -0,0 +1,6 @@
+-- Serves a customer's order history newest first: the equality on customer_id and the range on
+-- created_date seek into the index, and its column order matches the ORDER BY so no sort is needed.
+-- The descending columns only mirror that ORDER BY: H2 reads an index in either direction, so
+-- (customer_id, created_date, id) would serve it as well.
+-- idx_beer_order_customer stays, as H2 backs the customer foreign key with it.
+CREATE INDEX idx_beer_order_customer_created ON beer_order(customer_id, created_date DESC, id DESC);
@@ -0,0 +1,6 @@
+-- Serves the keyset listing filtered by style: the equality on beer_style and the range on id seek
+-- into the index, and ordering by style and ID reads it in order, forward or backward, without a sort.
+-- It replaces idx_beer_style, which is a prefix of it.
+CREATE INDEX idx_beer_style_id ON beer(beer_style, id);
+
+DROP INDEX idx_beer_style;
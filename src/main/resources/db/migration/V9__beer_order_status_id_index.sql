@@ -0,0 +1,7 @@
+-- Serves the claim queries: the equality on order_status seeks into the index, and ordering by
+-- status and ID reads the oldest orders of the status in order, so a poll reads only the rows it
+-- returns instead of sorting every order in the status.
+-- It replaces idx_beer_order_status, which is a prefix of it.
+CREATE INDEX idx_beer_order_status_id ON beer_order(order_status, id);
+
+DROP INDEX idx_beer_order_status;
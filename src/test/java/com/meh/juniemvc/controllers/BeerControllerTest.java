@@ -1,31 +1,59 @@
 package com.meh.juniemvc.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meh.juniemvc.domain.BeerBulkCreateRequest;
+import com.meh.juniemvc.domain.BeerBulkResult;
+import com.meh.juniemvc.domain.BeerBulkStatus;
+import com.meh.juniemvc.domain.BeerBulkUpsertRequest;
 import com.meh.juniemvc.domain.BeerCreateRequest;
 import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.domain.BeerPage;
+import com.meh.juniemvc.domain.BeerPageRequest;
 import com.meh.juniemvc.domain.BeerUpdateRequest;
+import com.meh.juniemvc.domain.BeerUpsertRequest;
+import com.meh.juniemvc.domain.VersionPrecondition;
+import com.meh.juniemvc.exceptions.PreconditionFailedException;
 import com.meh.juniemvc.services.BeerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+@Import(SimpleMeterRegistry.class)
 @WebMvcTest(BeerController.class)
 class BeerControllerTest {
 
@@ -109,6 +137,59 @@ class BeerControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void testCreateBeersBulk() throws Exception {
+        // Given
+        given(beerService.saveBeers(anyList())).willReturn(List.of(
+                new BeerBulkResult(0, BeerBulkStatus.CREATED, testBeerDto, List.of()),
+                new BeerBulkResult(1, BeerBulkStatus.INVALID, null, List.of("Beer name is required"))));
+
+        BeerBulkCreateRequest request = new BeerBulkCreateRequest(List.of(
+                validBeerCreateRequest,
+                new BeerCreateRequest("", "Lager", "654321", 50, new BigDecimal("9.99"))));
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results", hasSize(2)))
+                .andExpect(jsonPath("$.results[0].status", is("CREATED")))
+                .andExpect(jsonPath("$.results[1].status", is("INVALID")))
+                .andExpect(jsonPath("$.results[1].errors[0]", is("Beer name is required")));
+
+        verify(beerService).saveBeers(anyList());
+    }
+
+    @Test
+    void testCreateBeersBulkEmptyIsRejected() throws Exception {
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BeerBulkCreateRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testUpsertBeersBulk() throws Exception {
+        // Given
+        given(beerService.upsertBeers(anyList())).willReturn(List.of(
+                new BeerBulkResult(0, BeerBulkStatus.UPDATED, testBeerDto, List.of())));
+
+        BeerBulkUpsertRequest request = new BeerBulkUpsertRequest(List.of(
+                new BeerUpsertRequest(1, "Test Beer", "IPA", "123456", 100, new BigDecimal("12.99"))));
+
+        // When/Then
+        mockMvc.perform(put("/api/v1/beer/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status", is("UPDATED")))
+                .andExpect(jsonPath("$.results[0].beer.id", is(1)));
+
+        verify(beerService).upsertBeers(anyList());
+    }
+
     @Test
     void testUpdateBeer() throws Exception {
         // Given
@@ -124,7 +205,7 @@ class BeerControllerTest {
                 LocalDateTime.now()
         );
 
-        given(beerService.updateBeer(anyInt(), any(BeerUpdateRequest.class))).willReturn(updatedBeerDto);
+        given(beerService.updateBeer(anyInt(), any(BeerUpdateRequest.class), isNull())).willReturn(updatedBeerDto);
 
         // When/Then
         mockMvc.perform(put("/api/v1/beer/1")
@@ -136,9 +217,10 @@ class BeerControllerTest {
                 .andExpect(jsonPath("$.beerStyle", is("Stout")))
                 .andExpect(jsonPath("$.upc", is("111111")))
                 .andExpect(jsonPath("$.price", is(14.99)))
-                .andExpect(jsonPath("$.quantityOnHand", is(75)));
+                .andExpect(jsonPath("$.quantityOnHand", is(75)))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-1\""));
 
-        verify(beerService).updateBeer(anyInt(), any(BeerUpdateRequest.class));
+        verify(beerService).updateBeer(anyInt(), any(BeerUpdateRequest.class), isNull());
     }
     
     @Test
@@ -162,7 +244,7 @@ class BeerControllerTest {
     @Test
     void testUpdateBeerNotFound() throws Exception {
         // Given
-        given(beerService.updateBeer(anyInt(), any(BeerUpdateRequest.class))).willReturn(null);
+        given(beerService.updateBeer(anyInt(), any(BeerUpdateRequest.class), isNull())).willReturn(null);
 
         // When/Then
         mockMvc.perform(put("/api/v1/beer/1")
@@ -170,31 +252,110 @@ class BeerControllerTest {
                 .content(objectMapper.writeValueAsString(validBeerUpdateRequest)))
                 .andExpect(status().isNotFound());
 
-        verify(beerService).updateBeer(anyInt(), any(BeerUpdateRequest.class));
+        verify(beerService).updateBeer(anyInt(), any(BeerUpdateRequest.class), isNull());
+    }
+
+    @Test
+    void testUpdateBeerIfMatch() throws Exception {
+        // Given
+        given(beerService.updateBeer(eq(1), any(BeerUpdateRequest.class), eq(VersionPrecondition.of(1)))).willReturn(testBeerDto);
+
+        // When/Then
+        mockMvc.perform(put("/api/v1/beer/1")
+                .header(HttpHeaders.IF_MATCH, "\"1-1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validBeerUpdateRequest)))
+                .andExpect(status().isOk());
+
+        verify(beerService).updateBeer(eq(1), any(BeerUpdateRequest.class), eq(VersionPrecondition.of(1)));
+    }
+
+    @Test
+    void testUpdateBeerIfMatchStaleVersion() throws Exception {
+        // Given
+        given(beerService.updateBeer(eq(1), any(BeerUpdateRequest.class), eq(VersionPrecondition.of(0))))
+                .willThrow(new PreconditionFailedException("Beer 1 is at version 1, not 0"));
+
+        // When/Then
+        mockMvc.perform(put("/api/v1/beer/1")
+                .header(HttpHeaders.IF_MATCH, "\"1-0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validBeerUpdateRequest)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message", is("Beer 1 is at version 1, not 0")));
+    }
+
+    @Test
+    void testUpdateBeerIfMatchListsSeveralVersions() throws Exception {
+        // Given
+        given(beerService.updateBeer(eq(1), any(BeerUpdateRequest.class), eq(VersionPrecondition.of(1, 2))))
+                .willReturn(testBeerDto);
+
+        // When/Then
+        mockMvc.perform(put("/api/v1/beer/1")
+                .header(HttpHeaders.IF_MATCH, "\"1-1\", \"1-2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validBeerUpdateRequest)))
+                .andExpect(status().isOk());
     }
 
     @Test
     void testDeleteBeer() throws Exception {
         // Given
-        given(beerService.deleteBeer(anyInt())).willReturn(true);
+        given(beerService.deleteBeer(anyInt(), isNull())).willReturn(true);
 
         // When/Then
         mockMvc.perform(delete("/api/v1/beer/1"))
                 .andExpect(status().isNoContent());
 
-        verify(beerService).deleteBeer(anyInt());
+        verify(beerService).deleteBeer(anyInt(), isNull());
     }
 
     @Test
     void testDeleteBeerNotFound() throws Exception {
         // Given
-        given(beerService.deleteBeer(anyInt())).willReturn(false);
+        given(beerService.deleteBeer(anyInt(), isNull())).willReturn(false);
 
         // When/Then
         mockMvc.perform(delete("/api/v1/beer/1"))
                 .andExpect(status().isNotFound());
 
-        verify(beerService).deleteBeer(anyInt());
+        verify(beerService).deleteBeer(anyInt(), isNull());
+    }
+
+    @Test
+    void testDeleteBeerIfMatchOfAnotherBeer() throws Exception {
+        // When/Then
+        mockMvc.perform(delete("/api/v1/beer/1")
+                .header(HttpHeaders.IF_MATCH, "\"2-1\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(beerService, never()).deleteBeer(anyInt(), any());
+    }
+
+    @Test
+    void testDeleteBeerIfMatch() throws Exception {
+        // Given
+        given(beerService.deleteBeer(1, VersionPrecondition.of(1))).willReturn(true);
+
+        // When/Then
+        mockMvc.perform(delete("/api/v1/beer/1")
+                .header(HttpHeaders.IF_MATCH, "W/\"1-0\", \"1-1\""))
+                .andExpect(status().isNoContent());
+
+        verify(beerService).deleteBeer(1, VersionPrecondition.of(1));
+    }
+
+    @Test
+    void testDeleteBeerIfMatchAnyOfMissingBeer() throws Exception {
+        // Given
+        given(beerService.deleteBeer(1, VersionPrecondition.ANY))
+                .willThrow(new PreconditionFailedException("Beer 1 does not exist"));
+
+        // When/Then
+        mockMvc.perform(delete("/api/v1/beer/1")
+                .header(HttpHeaders.IF_MATCH, "*"))
+                .andExpect(status().isPreconditionFailed());
     }
 
     @Test
@@ -207,11 +368,41 @@ class BeerControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.beerName", is("Test Beer")))
-                .andExpect(jsonPath("$.beerStyle", is("IPA")));
+                .andExpect(jsonPath("$.beerStyle", is("IPA")))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-1\""));
 
         verify(beerService).getBeerById(anyInt());
     }
 
+    @Test
+    void testGetBeerByIdNotModified() throws Exception {
+        // Given
+        given(beerService.getBeerVersion(1)).willReturn(Optional.of(1));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"1-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-1\""))
+                .andExpect(content().string(""));
+
+        verify(beerService, never()).getBeerById(anyInt());
+    }
+
+    @Test
+    void testGetBeerByIdStaleIfNoneMatch() throws Exception {
+        // Given
+        given(beerService.getBeerVersion(1)).willReturn(Optional.of(1));
+        given(beerService.getBeerById(1)).willReturn(Optional.of(testBeerDto));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-1\""))
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
     @Test
     void testGetBeerByIdNotFound() throws Exception {
         // Given
@@ -223,4 +414,150 @@ class BeerControllerTest {
 
         verify(beerService).getBeerById(anyInt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetBeerByUpc() throws Exception {
+        // Given
+        given(beerService.getBeerByUpc("123456")).willReturn(Optional.of(testBeerDto));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer/upc/123456"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.upc", is("123456")))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-1\""));
+
+        verify(beerService).getBeerByUpc("123456");
+    }
+
+    @Test
+    void testGetBeerByUpcNotFound() throws Exception {
+        // Given
+        given(beerService.getBeerByUpc("999999")).willReturn(Optional.empty());
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer/upc/999999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testCreateBeerDuplicateUpcIsConflict() throws Exception {
+        // Given
+        given(beerService.saveBeer(any(BeerCreateRequest.class)))
+                .willThrow(new DataIntegrityViolationException("Unique index or primary key violation"));
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validBeerCreateRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status", is(409)));
+    }
+
+    @Test
+    void testListBeers() throws Exception {
+        // Given
+        BeerPageRequest expectedRequest = new BeerPageRequest("Test", "IPA", 10, Sort.Direction.DESC, 5);
+        given(beerService.listBeers(expectedRequest)).willReturn(new BeerPage(List.of(testBeerDto), 1));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer")
+                .param("beerName", "Test")
+                .param("beerStyle", "IPA")
+                .param("afterId", "10")
+                .param("direction", "DESC")
+                .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.beers", hasSize(1)))
+                .andExpect(jsonPath("$.beers[0].beerName", is("Test Beer")))
+                .andExpect(jsonPath("$.nextAfterId", is(1)));
+
+        verify(beerService).listBeers(expectedRequest);
+    }
+
+    @Test
+    void testListBeersDefaults() throws Exception {
+        // Given
+        BeerPageRequest expectedRequest = new BeerPageRequest(null, null, null, Sort.Direction.ASC, 25);
+        given(beerService.listBeers(expectedRequest)).willReturn(new BeerPage(List.of(), null));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.beers", hasSize(0)))
+                .andExpect(jsonPath("$.nextAfterId", nullValue()));
+
+        verify(beerService).listBeers(expectedRequest);
+    }
+
+    @Test
+    void testListBeersInvalidDirection() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer")
+                .param("direction", "sideways"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Validation Error")))
+                .andExpect(jsonPath("$.details[0]", is("Invalid value 'sideways' for parameter 'direction'")));
+
+        verify(beerService, never()).listBeers(any());
+    }
+
+    @Test
+    void testSearchBeersMissingQuery() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details[0]", is("Required parameter 'q' is missing")));
+
+        verify(beerService, never()).searchBeers(any(), anyInt());
+    }
+
+    @Test
+    void testSearchBeers() throws Exception {
+        // Given
+        given(beerService.searchBeers("test ip", 5)).willReturn(List.of(testBeerDto));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer/search")
+                .param("q", "test ip")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.beers", hasSize(1)))
+                .andExpect(jsonPath("$.beers[0].beerName", is("Test Beer")));
+
+        verify(beerService).searchBeers("test ip", 5);
+    }
+
+    @Test
+    void testGetBeersByIds() throws Exception {
+        // Given
+        BeerDto otherBeerDto = new BeerDto(2, 1, "Other Beer", "Stout", "222222", 10, new BigDecimal("8.99"),
+                testBeerDto.createdDate(), testBeerDto.updateDate());
+        given(beerService.getBeersByIds(List.of(2, 1, 2, 9))).willReturn(Map.of(1, testBeerDto, 2, otherBeerDto));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer")
+                .param("ids", "2,1,2,9"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.beers[*].id", contains(2, 1)))
+                .andExpect(jsonPath("$.notFoundIds", contains(9)));
+
+        verify(beerService, never()).listBeers(any());
+    }
+
+    @Test
+    void testGetBeersByIdsRejectsTooManyIds() throws Exception {
+        // Given
+        String ids = IntStream.rangeClosed(1, BeerController.MAX_BATCH_IDS + 1)
+                .mapToObj(Integer::toString)
+                .collect(Collectors.joining(","));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer")
+                .param("ids", ids))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details[0]", is("At most 500 beer IDs can be requested at once")));
+
+        verify(beerService, never()).getBeersByIds(any());
+    }
+}
@@ -0,0 +1,113 @@
+package com.meh.juniemvc.controllers;
+
+import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.services.BeerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import(SimpleMeterRegistry.class)
+@WebMvcTest(BeerExportController.class)
+class BeerExportControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    BeerService beerService;
+
+    BeerDto firstBeerDto;
+    BeerDto secondBeerDto;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime createdDate = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+        firstBeerDto = new BeerDto(1, 0, "Test Beer", "IPA", "123456", 100,
+                new BigDecimal("12.99"), createdDate, createdDate);
+        secondBeerDto = new BeerDto(2, 3, "Beer, \"Quoted\"", "Stout", "654321", 5,
+                new BigDecimal("9.50"), createdDate, createdDate);
+
+        willAnswer(invocation -> {
+            Consumer<BeerDto> consumer = invocation.getArgument(0);
+            consumer.accept(firstBeerDto);
+            consumer.accept(secondBeerDto);
+            return null;
+        }).given(beerService).exportBeers(any());
+    }
+
+    @Test
+    void testExportNdjson() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/beer/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"beers.ndjson\""))
+                .andExpect(content().string(
+                        "{\"id\":1,\"version\":0,\"beerName\":\"Test Beer\",\"beerStyle\":\"IPA\",\"upc\":\"123456\","
+                                + "\"quantityOnHand\":100,\"price\":12.99,\"createdDate\":\"2025-01-01T12:00:00\","
+                                + "\"updateDate\":\"2025-01-01T12:00:00\"}\n"
+                                + "{\"id\":2,\"version\":3,\"beerName\":\"Beer, \\\"Quoted\\\"\",\"beerStyle\":\"Stout\","
+                                + "\"upc\":\"654321\",\"quantityOnHand\":5,\"price\":9.50,"
+                                + "\"createdDate\":\"2025-01-01T12:00:00\",\"updateDate\":\"2025-01-01T12:00:00\"}\n"));
+
+        verify(beerService).exportBeers(any());
+    }
+
+    @Test
+    void testExportCsv() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/beer/export").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(content().string(
+                        "id,version,beerName,beerStyle,upc,quantityOnHand,price,createdDate,updateDate\n"
+                                + "1,0,Test Beer,IPA,123456,100,12.99,2025-01-01T12:00,2025-01-01T12:00\n"
+                                + "2,3,\"Beer, \"\"Quoted\"\"\",Stout,654321,5,9.50,2025-01-01T12:00,2025-01-01T12:00\n"));
+
+        verify(beerService).exportBeers(any());
+    }
+
+    @Test
+    void testExportUnknownFormat() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer/export").param("format", "XML"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details[0]", is("Invalid value 'XML' for parameter 'format'")));
+
+        verify(beerService, never()).exportBeers(any());
+    }
+}
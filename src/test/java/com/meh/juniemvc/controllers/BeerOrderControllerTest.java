@@ -0,0 +1,471 @@
+package com.meh.juniemvc.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meh.juniemvc.api.model.BeerDto;
+import com.meh.juniemvc.api.model.BeerOrderClaimRequest;
+import com.meh.juniemvc.api.model.BeerOrderCompactDto;
+import com.meh.juniemvc.api.model.BeerOrderDto;
+import com.meh.juniemvc.api.model.BeerOrderHistoryDto;
+import com.meh.juniemvc.api.model.BeerOrderHistoryPage;
+import com.meh.juniemvc.api.model.BeerOrderIngestDto;
+import com.meh.juniemvc.api.model.BeerOrderLineCompactDto;
+import com.meh.juniemvc.api.model.BeerOrderLineDto;
+import com.meh.juniemvc.api.model.BeerOrderStatusUpdateRequest;
+import com.meh.juniemvc.api.model.CustomerDto;
+import com.meh.juniemvc.api.model.CustomerOrderSummaryDto;
+import com.meh.juniemvc.api.model.OrderStatusSummaryDto;
+import com.meh.juniemvc.domain.OrderStatus;
+import com.meh.juniemvc.exceptions.InvalidOrderStatusException;
+import com.meh.juniemvc.services.BeerOrderAllocationService;
+import com.meh.juniemvc.services.BeerOrderCreation;
+import com.meh.juniemvc.services.BeerOrderService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import(SimpleMeterRegistry.class)
+@EnableConfigurationProperties(StreamUploadProperties.class)
+@WebMvcTest(BeerOrderController.class)
+class BeerOrderControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @MockBean
+    BeerOrderService beerOrderService;
+
+    @MockBean
+    BeerOrderAllocationService beerOrderAllocationService;
+
+    BeerOrderDto testBeerOrderDto;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+
+        BeerDto beerDto = new BeerDto(1, 1, "Test Beer", "IPA", "123456", 100, new BigDecimal("12.99"), now, now);
+        CustomerDto customerDto = new CustomerDto(1, 1, "Test Customer", "test@example.com", "555-1234");
+
+        testBeerOrderDto = new BeerOrderDto(
+                1,
+                1,
+                now,
+                now,
+                null,
+                OrderStatus.NEW,
+                customerDto,
+                Set.of(new BeerOrderLineDto(1, 1, beerDto, 5, 0))
+        );
+    }
+
+    @Test
+    void testCreateBeerOrder() throws Exception {
+        // Given
+        given(beerOrderService.createBeerOrder(any(BeerOrderDto.class), isNull()))
+                .willReturn(new BeerOrderCreation(testBeerOrderDto, false));
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer-order")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testBeerOrderDto)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.beerOrderLines", hasSize(1)));
+
+        verify(beerOrderService).createBeerOrder(any(BeerOrderDto.class), isNull());
+    }
+
+    @Test
+    void testCreateBeerOrderReplaysIdempotencyKey() throws Exception {
+        // Given
+        given(beerOrderService.createBeerOrder(any(BeerOrderDto.class), eq("order-42")))
+                .willReturn(new BeerOrderCreation(testBeerOrderDto, true));
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer-order")
+                .header("Idempotency-Key", "order-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testBeerOrderDto)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
+    @Test
+    void testCreateBeerOrderFallsBackToCustomerRef() throws Exception {
+        // Given
+        BeerOrderDto withCustomerRef = new BeerOrderDto(null, null, null, null, "PO-1001", OrderStatus.NEW,
+                testBeerOrderDto.customer(), testBeerOrderDto.beerOrderLines());
+        given(beerOrderService.createBeerOrder(any(BeerOrderDto.class), eq("PO-1001")))
+                .willReturn(new BeerOrderCreation(testBeerOrderDto, false));
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer-order")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(withCustomerRef)))
+                .andExpect(status().isCreated());
+
+        verify(beerOrderService).createBeerOrder(any(BeerOrderDto.class), eq("PO-1001"));
+    }
+
+    @Test
+    void testCreateBeerOrderRejectsLongIdempotencyKey() throws Exception {
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer-order")
+                .header("Idempotency-Key", "k".repeat(256))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testBeerOrderDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details[0]", is("Idempotency-Key must be at most 255 characters")));
+    }
+
+    @Test
+    void testCreateBeerOrderValidationError() throws Exception {
+        // Given
+        BeerOrderDto invalidOrder = new BeerOrderDto(null, null, null, null, null, OrderStatus.NEW, null, Set.of());
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer-order")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(invalidOrder)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testIngestBeerOrderParsesNdjsonLines() throws Exception {
+        // Given
+        BeerOrderLineDto line = testBeerOrderDto.beerOrderLines().iterator().next();
+        String body = objectMapper.writeValueAsString(line) + "\n" + objectMapper.writeValueAsString(line) + "\n";
+        given(beerOrderService.ingestBeerOrder(eq(1), any())).willAnswer(invocation -> {
+            Iterator<BeerOrderLineDto> lines = invocation.getArgument(1);
+            int lineCount = 0;
+            while (lines.hasNext()) {
+                assertThat(lines.next().orderQuantity()).isEqualTo(5);
+                lineCount++;
+            }
+            return new BeerOrderIngestDto(1, OrderStatus.NEW, 1, lineCount, lineCount * 5, new BigDecimal("129.90"));
+        });
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer-order/stream")
+                .param("customerId", "1")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.lineCount", is(2)))
+                .andExpect(jsonPath("$.totalQuantity", is(10)));
+    }
+
+    @Test
+    void testIngestBeerOrderInvalidLine() throws Exception {
+        // Given
+        given(beerOrderService.ingestBeerOrder(eq(1), any()))
+                .willThrow(new ConstraintViolationException("Invalid beer order line 7", Set.of()));
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer-order/stream")
+                .param("customerId", "1")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{}\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Invalid beer order line 7")));
+    }
+
+    @Test
+    void testIngestBeerOrderMalformedLine() throws Exception {
+        // Given
+        BeerOrderLineDto line = testBeerOrderDto.beerOrderLines().iterator().next();
+        String body = objectMapper.writeValueAsString(line) + "\n{\"beer\": oops}\n";
+        given(beerOrderService.ingestBeerOrder(eq(1), any())).willAnswer(invocation -> {
+            Iterator<BeerOrderLineDto> lines = invocation.getArgument(1);
+            while (lines.hasNext()) {
+                lines.next();
+            }
+            return null;
+        });
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer-order/stream")
+                .param("customerId", "1")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", startsWith("Malformed beer order line 2: ")));
+    }
+
+    @Test
+    void testGetBeerOrderById() throws Exception {
+        // Given
+        given(beerOrderService.getBeerOrderById(anyInt())).willReturn(Optional.of(testBeerOrderDto));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer-order/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.customer.name", is("Test Customer")));
+
+        verify(beerOrderService).getBeerOrderById(1);
+    }
+
+    @Test
+    void testGetBeerOrderByIdNotFound() throws Exception {
+        // Given
+        given(beerOrderService.getBeerOrderById(anyInt())).willReturn(Optional.empty());
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer-order/1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetCompactBeerOrderById() throws Exception {
+        // Given
+        BeerOrderCompactDto compact = new BeerOrderCompactDto(1, 1, OrderStatus.NEW, LocalDateTime.now(), 1,
+                "Test Customer", 5, new BigDecimal("64.95"),
+                List.of(new BeerOrderLineCompactDto(1, 1, "Test Beer", "123456", new BigDecimal("12.99"), 5, 0)));
+        given(beerOrderService.getCompactBeerOrderById(1)).willReturn(Optional.of(compact));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer-order/1/compact"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerName", is("Test Customer")))
+                .andExpect(jsonPath("$.beerOrderLines[0].beerName", is("Test Beer")))
+                .andExpect(jsonPath("$.beerOrderLines[0].createdDate").doesNotExist());
+    }
+
+    @Test
+    void testGetCompactBeerOrderByIdNotFound() throws Exception {
+        // Given
+        given(beerOrderService.getCompactBeerOrderById(1)).willReturn(Optional.empty());
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer-order/1/compact"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testListBeerOrders() throws Exception {
+        // Given
+        given(beerOrderService.getAllBeerOrders(any(Pageable.class)))
+                .willReturn(new PageImpl<>(List.of(testBeerOrderDto), PageRequest.of(0, 20), 1));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer-order"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.page.totalElements", is(1)));
+
+        verify(beerOrderService).getAllBeerOrders(any(Pageable.class));
+    }
+
+    @Test
+    void testListBeerOrdersByCustomer() throws Exception {
+        // Given
+        given(beerOrderService.getBeerOrdersByCustomerId(eq(1), any(Pageable.class)))
+                .willReturn(new PageImpl<>(List.of(testBeerOrderDto), PageRequest.of(0, 20), 1));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer-order").param("customerId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].customer.id", is(1)));
+
+        verify(beerOrderService).getBeerOrdersByCustomerId(eq(1), any(Pageable.class));
+    }
+
+    @Test
+    void testUpdateBeerOrderStatus() throws Exception {
+        // Given
+        given(beerOrderService.updateBeerOrderStatus(1, OrderStatus.READY)).willReturn(testBeerOrderDto);
+
+        // When/Then
+        mockMvc.perform(patch("/api/v1/beer-order/1/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BeerOrderStatusUpdateRequest(OrderStatus.READY))))
+                .andExpect(status().isOk());
+
+        verify(beerOrderService).updateBeerOrderStatus(1, OrderStatus.READY);
+    }
+
+    @Test
+    void testUpdateBeerOrderStatusNotFound() throws Exception {
+        // Given
+        given(beerOrderService.updateBeerOrderStatus(1, OrderStatus.READY))
+                .willThrow(new EntityNotFoundException("Beer order not found with id: 1"));
+
+        // When/Then
+        mockMvc.perform(patch("/api/v1/beer-order/1/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BeerOrderStatusUpdateRequest(OrderStatus.READY))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message", is("Beer order not found with id: 1")));
+    }
+
+    @Test
+    void testAllocateBeerOrder() throws Exception {
+        // Given
+        given(beerOrderAllocationService.allocateBeerOrder(1)).willReturn(testBeerOrderDto);
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer-order/1/allocation"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)));
+
+        verify(beerOrderAllocationService).allocateBeerOrder(1);
+    }
+
+    @Test
+    void testAllocateBeerOrderInWrongStatus() throws Exception {
+        // Given
+        given(beerOrderAllocationService.allocateBeerOrder(1))
+                .willThrow(new InvalidOrderStatusException("Beer order 1 can't be allocated in status READY"));
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer-order/1/allocation"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testGetBeerOrderHistory() throws Exception {
+        // Given
+        LocalDateTime before = LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123456000);
+        LocalDateTime next = before.minusDays(1);
+        BeerOrderHistoryDto order = new BeerOrderHistoryDto(7, 0, OrderStatus.NEW, next, 3, 6, new BigDecimal("59.94"));
+        given(beerOrderService.getBeerOrderHistory(1, before, 9, 1))
+                .willReturn(new BeerOrderHistoryPage(List.of(order), next, 7));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer-order/customer/{customerId}/history", 1)
+                .param("beforeCreatedDate", "2026-03-01T12:30:15.123456")
+                .param("beforeId", "9")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders", hasSize(1)))
+                .andExpect(jsonPath("$.orders[0].lineCount", is(3)))
+                .andExpect(jsonPath("$.orders[0].beerOrderLines").doesNotExist())
+                .andExpect(jsonPath("$.nextBeforeCreatedDate", is("2026-02-28T12:30:15.123456")))
+                .andExpect(jsonPath("$.nextBeforeId", is(7)));
+    }
+
+    @Test
+    void testGetBeerOrderHistoryWithHalfCursor() throws Exception {
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer-order/customer/{customerId}/history", 1)
+                .param("beforeId", "9"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Validation Error")))
+                .andExpect(jsonPath("$.message", is("beforeCreatedDate and beforeId must be given together")));
+
+        verify(beerOrderService, never()).getBeerOrderHistory(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testClaimBeerOrders() throws Exception {
+        // Given
+        given(beerOrderService.claimBeerOrders(OrderStatus.READY, OrderStatus.PICKED_UP, 10))
+                .willReturn(List.of(testBeerOrderDto));
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer-order/claim")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new BeerOrderClaimRequest(OrderStatus.READY, OrderStatus.PICKED_UP, 10))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].beerOrderLines", hasSize(1)));
+    }
+
+    @Test
+    void testClaimBeerOrdersBackwardsTransition() throws Exception {
+        // Given
+        given(beerOrderService.claimBeerOrders(OrderStatus.DELIVERED, OrderStatus.NEW, 10))
+                .willThrow(new InvalidOrderStatusException("Beer orders can't be claimed from DELIVERED to NEW"));
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer-order/claim")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new BeerOrderClaimRequest(OrderStatus.DELIVERED, OrderStatus.NEW, 10))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("Beer orders can't be claimed from DELIVERED to NEW")));
+    }
+
+    @Test
+    void testClaimBeerOrdersValidationError() throws Exception {
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer-order/claim")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new BeerOrderClaimRequest(OrderStatus.READY, OrderStatus.READY, 500))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details", hasSize(2)));
+
+        verify(beerOrderService, never()).claimBeerOrders(any(), any(), anyInt());
+    }
+
+    @Test
+    void testGetCustomerOrderSummary() throws Exception {
+        // Given
+        Map<OrderStatus, OrderStatusSummaryDto> byStatus = new EnumMap<>(OrderStatus.class);
+        byStatus.put(OrderStatus.NEW, new OrderStatusSummaryDto(2, 10, new BigDecimal("129.90")));
+        given(beerOrderService.getCustomerOrderSummary(1))
+                .willReturn(new CustomerOrderSummaryDto(1, 2, 10, new BigDecimal("129.90"), byStatus));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/beer-order/customer/1/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderCount", is(2)))
+                .andExpect(jsonPath("$.byStatus.NEW.totalQuantity", is(10)));
+    }
+
+    @Test
+    void testRebuildCustomerOrderSummaries() throws Exception {
+        // When/Then
+        mockMvc.perform(post("/api/v1/beer-order/summary/rebuild"))
+                .andExpect(status().isNoContent());
+
+        verify(beerOrderService).rebuildCustomerOrderSummaries();
+    }
+}
@@ -0,0 +1,126 @@
+package com.meh.juniemvc.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meh.juniemvc.api.model.BeerOrderIngestDto;
+import com.meh.juniemvc.domain.Beer;
+import com.meh.juniemvc.domain.Customer;
+import com.meh.juniemvc.repositories.BeerOrderLineRepository;
+import com.meh.juniemvc.repositories.BeerRepository;
+import com.meh.juniemvc.repositories.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streams a 100,000-line order over HTTP. Tagged small-heap so the build runs it in a JVM with a
+ * heap far smaller than the order would take as entities and DTOs, and on its own database.
+ */
+@Slf4j
+@Tag("small-heap")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:streamingest;DB_CLOSE_DELAY=-1")
+class BeerOrderStreamIngestionTest {
+
+    static final int LINE_COUNT = 100_000;
+    static final int BEER_COUNT = 100;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    BeerOrderLineRepository beerOrderLineRepository;
+
+    HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void testIngestLargeOrder() throws Exception {
+        // Given
+        Customer customer = customerRepository.save(Customer.builder()
+                .name("Wholesale Customer")
+                .email("wholesale@example.com")
+                .build());
+        List<Beer> newBeers = new ArrayList<>();
+        for (int i = 0; i < BEER_COUNT; i++) {
+            newBeers.add(Beer.builder()
+                    .beerName("Wholesale Beer " + i)
+                    .beerStyle("LAGER")
+                    .upc("7000" + i)
+                    .price(new BigDecimal("2.50"))
+                    .quantityOnHand(1000)
+                    .build());
+        }
+        List<Integer> beerIds = beerRepository.saveAll(newBeers).stream().map(Beer::getId).toList();
+
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/v1/beer-order/stream?customerId=" + customer.getId()))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> ndjsonLines(beerIds)))
+                .build();
+
+        // When
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        log.info("Streamed {} lines in {} ms with a max heap of {} MB", LINE_COUNT, elapsedMillis,
+                Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        assertThat(response.statusCode()).isEqualTo(201);
+        BeerOrderIngestDto ingested = objectMapper.readValue(response.body(), BeerOrderIngestDto.class);
+        assertThat(ingested.lineCount()).isEqualTo(LINE_COUNT);
+        assertThat(ingested.totalQuantity()).isEqualTo(2 * LINE_COUNT);
+        assertThat(ingested.totalPrice()).isEqualByComparingTo("500000.00");
+        assertThat(beerOrderLineRepository.countByBeerOrderId(ingested.id())).isEqualTo(LINE_COUNT);
+    }
+
+    /**
+     * Produces the request body a line at a time, so the client doesn't hold the whole order either.
+     */
+    private static InputStream ndjsonLines(List<Integer> beerIds) {
+        Iterator<InputStream> lines = IntStream.range(0, LINE_COUNT)
+                .mapToObj(i -> (InputStream) new ByteArrayInputStream(
+                        ("{\"beer\":{\"id\":" + beerIds.get(i % BEER_COUNT) + "},\"orderQuantity\":2,\"quantityAllocated\":0}\n")
+                                .getBytes(StandardCharsets.UTF_8)))
+                .iterator();
+        return new SequenceInputStream(new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return lines.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return lines.next();
+            }
+        });
+    }
+}
@@ -0,0 +1,170 @@
+package com.meh.juniemvc.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meh.juniemvc.api.model.CustomerDto;
+import com.meh.juniemvc.services.CustomerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Import(SimpleMeterRegistry.class)
+@WebMvcTest(CustomerController.class)
+class CustomerControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @MockBean
+    CustomerService customerService;
+
+    CustomerDto testCustomerDto = new CustomerDto(1, 0, "Test Customer", "test@example.com", "555-1234");
+
+    @Test
+    void testCreateCustomer() throws Exception {
+        // Given
+        given(customerService.saveCustomer(any(CustomerDto.class))).willReturn(testCustomerDto);
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/customer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testCustomerDto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.email", is("test@example.com")));
+    }
+
+    @Test
+    void testCreateCustomerValidationError() throws Exception {
+        // Given
+        CustomerDto invalidCustomer = new CustomerDto(null, null, "", "not-an-email", null);
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/customer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(invalidCustomer)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details", hasSize(2)));
+
+        verify(customerService, never()).saveCustomer(any());
+    }
+
+    @Test
+    void testGetCustomerById() throws Exception {
+        // Given
+        given(customerService.getCustomerById(1)).willReturn(Optional.of(testCustomerDto));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/customer/{customerId}", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Test Customer")))
+                .andExpect(jsonPath("$.beerOrders").doesNotExist());
+    }
+
+    @Test
+    void testGetCustomerByIdNotFound() throws Exception {
+        // Given
+        given(customerService.getCustomerById(anyInt())).willReturn(Optional.empty());
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/customer/{customerId}", 999))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetCustomerByEmail() throws Exception {
+        // Given
+        given(customerService.getCustomerByEmail("test@example.com")).willReturn(Optional.of(testCustomerDto));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/customer")
+                .param("email", "test@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)));
+
+        verify(customerService, never()).listCustomers(any());
+    }
+
+    @Test
+    void testGetCustomerByEmailNotFound() throws Exception {
+        // Given
+        given(customerService.getCustomerByEmail("nobody@example.com")).willReturn(Optional.empty());
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/customer")
+                .param("email", "nobody@example.com"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testListCustomers() throws Exception {
+        // Given
+        PageRequest expectedPageable = PageRequest.of(0, 20, Sort.by("id"));
+        given(customerService.listCustomers(expectedPageable))
+                .willReturn(new PageImpl<>(List.of(testCustomerDto), expectedPageable, 1));
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/customer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.page.totalElements", is(1)));
+    }
+
+    @Test
+    void testUpdateCustomerNotFound() throws Exception {
+        // Given
+        given(customerService.updateCustomer(eq(999), any(CustomerDto.class))).willReturn(null);
+
+        // When/Then
+        mockMvc.perform(put("/api/v1/customer/{customerId}", 999)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testCustomerDto)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testDeleteCustomer() throws Exception {
+        // Given
+        given(customerService.deleteCustomer(1)).willReturn(true);
+
+        // When/Then
+        mockMvc.perform(delete("/api/v1/customer/{customerId}", 1))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void testDeleteCustomerWithOrdersIsConflict() throws Exception {
+        // Given
+        given(customerService.deleteCustomer(1)).willThrow(new DataIntegrityViolationException("referenced"));
+
+        // When/Then
+        mockMvc.perform(delete("/api/v1/customer/{customerId}", 1))
+                .andExpect(status().isConflict());
+    }
+}
@@ -0,0 +1,118 @@
+package com.meh.juniemvc.controllers;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meh.juniemvc.api.model.BeerOrderLineDto;
+import com.meh.juniemvc.exceptions.RequestTimeoutException;
+import jakarta.validation.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NdjsonValuesTest {
+
+    static final String LINE = "{\"beer\":{\"id\":1},\"orderQuantity\":2}\n";
+
+    ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void testReadsEveryLine() throws IOException {
+        // Given
+        NdjsonValues<BeerOrderLineDto> lines = lines(body(LINE + LINE), Duration.ofMinutes(1));
+
+        // When
+        int count = 0;
+        while (lines.hasNext()) {
+            assertThat(lines.next().orderQuantity()).isEqualTo(2);
+            count++;
+        }
+
+        // Then
+        assertThat(count).isEqualTo(2);
+    }
+
+    @Test
+    void testMalformedJsonNamesTheLine() throws IOException {
+        // Given
+        NdjsonValues<BeerOrderLineDto> lines = lines(body(LINE + LINE + "{\"beer\":\n"), Duration.ofMinutes(1));
+
+        // When/Then
+        assertThatThrownBy(() -> {
+            while (lines.hasNext()) {
+                lines.next();
+            }
+        })
+                .isInstanceOf(ConstraintViolationException.class)
+                .hasMessageStartingWith("Malformed beer order line 3: ");
+    }
+
+    @Test
+    void testUnmappableValueNamesTheLine() throws IOException {
+        // Given
+        NdjsonValues<BeerOrderLineDto> lines = lines(body(LINE + "{\"orderQuantity\":\"many\"}\n"), Duration.ofMinutes(1));
+        lines.next();
+
+        // When/Then
+        assertThatThrownBy(lines::next)
+                .isInstanceOf(ConstraintViolationException.class)
+                .hasMessageStartingWith("Malformed beer order line 2: ");
+    }
+
+    @Test
+    void testSlowBodyIsCutOffAtTheDeadline() throws IOException {
+        // Given
+        InputStream slowSecondLine = new InputStream() {
+            boolean sent;
+
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (sent) {
+                    return -1;
+                }
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] line = LINE.getBytes(StandardCharsets.UTF_8);
+                System.arraycopy(line, 0, b, off, line.length);
+                sent = true;
+                return line.length;
+            }
+        };
+        NdjsonValues<BeerOrderLineDto> lines = lines(
+                new SequenceInputStream(body(LINE), slowSecondLine), Duration.ofMillis(100));
+
+        // When/Then
+        assertThatThrownBy(() -> {
+            while (lines.hasNext()) {
+                lines.next();
+            }
+        })
+                .isInstanceOf(RequestTimeoutException.class)
+                .hasMessage("The request body was not received within PT0.1S");
+    }
+
+    private NdjsonValues<BeerOrderLineDto> lines(InputStream body, Duration maxDuration) throws IOException {
+        MappingIterator<BeerOrderLineDto> values = objectMapper.readerFor(BeerOrderLineDto.class)
+                .readValues(new DeadlineInputStream(body, maxDuration));
+        return new NdjsonValues<>(values, "beer order line");
+    }
+
+    private static InputStream body(String ndjson) {
+        return new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8));
+    }
+}
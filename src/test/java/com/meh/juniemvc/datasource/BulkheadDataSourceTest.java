@@ -0,0 +1,48 @@
+package com.meh.juniemvc.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadDataSourceTest {
+
+    BulkheadDataSource bulkheadDataSource = new BulkheadDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:bulkhead;DB_CLOSE_DELAY=-1", "sa", ""), 2, Duration.ofSeconds(1));
+
+    @Test
+    void testConnectionsAreEqualOnlyToThemselves() throws Exception {
+        // Given
+        try (Connection first = bulkheadDataSource.getConnection();
+             Connection second = bulkheadDataSource.getConnection()) {
+
+            // When
+            Set<Connection> connections = new HashSet<>(Set.of(first, second));
+
+            // Then
+            assertThat(first).isEqualTo(first).isNotEqualTo(second);
+            assertThat(first.hashCode()).isEqualTo(System.identityHashCode(first));
+            assertThat(connections).hasSize(2).contains(first, second);
+            assertThat(first.unwrap(Connection.class)).isNotEqualTo(first);
+        }
+    }
+
+    @Test
+    void testClosingConnectionReleasesPermitOnce() throws Exception {
+        // Given
+        Connection connection = bulkheadDataSource.getConnection();
+        assertThat(bulkheadDataSource.availablePermits()).isEqualTo(1);
+
+        // When
+        connection.close();
+        connection.close();
+
+        // Then
+        assertThat(bulkheadDataSource.availablePermits()).isEqualTo(2);
+    }
+}
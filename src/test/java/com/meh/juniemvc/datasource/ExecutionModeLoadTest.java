@@ -0,0 +1,211 @@
+package com.meh.juniemvc.datasource;
+
+import com.meh.juniemvc.JunieMvcApplication;
+import com.meh.juniemvc.domain.BeerCreateRequest;
+import com.meh.juniemvc.services.BeerService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares platform-thread and virtual-thread request execution against a slow database.
+ * <p>
+ * Every fifth request lists beers and holds a connection for {@link #QUERY_DELAY_MS} per statement; the
+ * rest are cached beer reads that never touch the database. Results are logged for comparison.
+ * </p>
+ */
+@Slf4j
+class ExecutionModeLoadTest {
+
+    static final int BEER_COUNT = 20;
+    static final int REQUEST_COUNT = 1000;
+    static final int CLIENT_CONCURRENCY = 200;
+    static final int QUERY_DELAY_MS = 50;
+    static final int BULKHEAD_MAX_CONCURRENT = 8;
+
+    @Test
+    void testBothExecutionModesServeSlowDatabaseLoadWithinBulkhead() throws Exception {
+        // Given / When
+        LoadResult platform = runLoad(false);
+        LoadResult virtual = runLoad(true);
+
+        // Then
+        log.info("mode      req/s   p50 ms  p99 ms  cached p99 ms  db p99 ms  peak connections");
+        log.info("platform {}", platform);
+        log.info("virtual  {}", virtual);
+
+        for (LoadResult result : List.of(platform, virtual)) {
+            assertThat(result.failures()).isZero();
+            assertThat(result.peakConnections()).isLessThanOrEqualTo(BULKHEAD_MAX_CONCURRENT);
+        }
+    }
+
+    private LoadResult runLoad(boolean virtualThreads) throws Exception {
+        SlowDataSource[] slowDataSource = new SlowDataSource[1];
+        String mode = virtualThreads ? "virtual" : "platform";
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(JunieMvcApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+                            slowDataSource[0] = new SlowDataSource(dataSource);
+                            return slowDataSource[0];
+                        }
+                        return bean;
+                    }
+                }))
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=50",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.hikari.maximum-pool-size=20",
+                        "--junie.datasource.bulkhead.max-concurrent=" + BULKHEAD_MAX_CONCURRENT)) {
+
+            assertThat(context.getBean(DataSource.class)).isInstanceOf(BulkheadDataSource.class);
+
+            BeerService beerService = context.getBean(BeerService.class);
+            List<Integer> beerIds = new ArrayList<>();
+            for (int i = 0; i < BEER_COUNT; i++) {
+                beerIds.add(beerService.saveBeer(new BeerCreateRequest(
+                        "Load Beer " + i, "IPA", "LOAD" + i, 100, new BigDecimal("9.99"))).id());
+            }
+            beerIds.forEach(beerService::getBeerById);
+
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            slowDataSource[0].slow = true;
+            return fire(port, beerIds, slowDataSource[0]);
+        }
+    }
+
+    private LoadResult fire(int port, List<Integer> beerIds, SlowDataSource slowDataSource) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Semaphore inFlight = new Semaphore(CLIENT_CONCURRENCY);
+        List<Long> cachedLatencies = Collections.synchronizedList(new ArrayList<>());
+        List<Long> dbLatencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < REQUEST_COUNT; i++) {
+                boolean dbRequest = i % 5 == 0;
+                String path = dbRequest
+                        ? "/api/v1/beer?beerStyle=IPA&size=10"
+                        : "/api/v1/beer/" + beerIds.get(i % beerIds.size());
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build();
+
+                inFlight.acquire();
+                futures.add(executor.submit(() -> {
+                    long requestStart = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        (dbRequest ? dbLatencies : cachedLatencies).add(System.nanoTime() - requestStart);
+                        inFlight.release();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        List<Long> all = new ArrayList<>(cachedLatencies);
+        all.addAll(dbLatencies);
+        return new LoadResult(
+                REQUEST_COUNT * 1_000_000_000.0 / elapsed,
+                percentileMillis(all, 0.50),
+                percentileMillis(all, 0.99),
+                percentileMillis(cachedLatencies, 0.99),
+                percentileMillis(dbLatencies, 0.99),
+                slowDataSource.peak.get(),
+                failures.get());
+    }
+
+    private static double percentileMillis(List<Long> latencies, double percentile) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+
+    record LoadResult(double throughput, double p50, double p99, double cachedP99, double dbP99,
+                      int peakConnections, int failures) {
+
+        @Override
+        public String toString() {
+            return String.format("%7.0f %8.1f %7.1f %14.1f %10.1f %17d",
+                    throughput, p50, p99, cachedP99, dbP99, peakConnections);
+        }
+    }
+
+    /**
+     * Simulates a slow database by delaying every prepared statement while a connection is held,
+     * and records the peak number of connections checked out at once.
+     */
+    static class SlowDataSource extends DelegatingDataSource {
+
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        volatile boolean slow;
+
+        SlowDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName())) {
+                            active.decrementAndGet();
+                        } else if (slow && method.getName().startsWith("prepare")) {
+                            Thread.sleep(QUERY_DELAY_MS);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.meh.juniemvc.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.meh.juniemvc.domain.BeerCreateRequest;
+import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.exceptions.ErrorResponse;
+import com.meh.juniemvc.repositories.BeerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+class BinaryContentNegotiationTest {
+
+    static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    ObjectMapper cborMapper = CBORMapper.builder().findAndAddModules().build();
+    ObjectMapper smileMapper = SmileMapper.builder().findAndAddModules().build();
+
+    List<Integer> createdBeerIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAllById(createdBeerIds);
+    }
+
+    @Test
+    void testCreateBeerWithCborAndReadItBackAsSmile() throws Exception {
+        // Given
+        BeerCreateRequest request = new BeerCreateRequest("Binary Lager", "LAGER", "0631234200099", 12,
+                new BigDecimal("10.99"));
+
+        // When
+        MvcResult created = mockMvc.perform(post("/api/v1/beer")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(request)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        BeerDto savedBeer = cborMapper.readValue(created.getResponse().getContentAsByteArray(), BeerDto.class);
+        createdBeerIds.add(savedBeer.id());
+
+        MvcResult fetched = mockMvc.perform(get("/api/v1/beer/{beerId}", savedBeer.id())
+                        .accept(APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_SMILE))
+                .andReturn();
+        BeerDto fetchedBeer = smileMapper.readValue(fetched.getResponse().getContentAsByteArray(), BeerDto.class);
+
+        // Then
+        assertThat(savedBeer.beerName()).isEqualTo("Binary Lager");
+        assertThat(fetchedBeer.id()).isEqualTo(savedBeer.id());
+        assertThat(fetchedBeer.price()).isEqualByComparingTo("10.99");
+        assertThat(fetchedBeer.createdDate()).isEqualTo(savedBeer.createdDate());
+    }
+
+    @Test
+    void testInvalidCborBodyIsRejectedLikeJson() throws Exception {
+        // Given
+        BeerCreateRequest request = new BeerCreateRequest("", "LAGER", "0631234200099", -1,
+                new BigDecimal("10.99"));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/v1/beer")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(request)))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+        ErrorResponse error = cborMapper.readValue(result.getResponse().getContentAsByteArray(), ErrorResponse.class);
+
+        // Then
+        assertThat(error.status()).isEqualTo(400);
+        assertThat(error.details()).hasSize(2);
+    }
+
+    @Test
+    void testJsonRemainsTheDefault() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/api/v1/beer"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testNegotiatedResponsesVaryByAccept() throws Exception {
+        // Given
+        BeerCreateRequest request = new BeerCreateRequest("Vary Lager", "LAGER", "0631234200105", 12,
+                new BigDecimal("10.99"));
+        MvcResult created = mockMvc.perform(post("/api/v1/beer")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn();
+        BeerDto savedBeer = cborMapper.readValue(created.getResponse().getContentAsByteArray(), BeerDto.class);
+        createdBeerIds.add(savedBeer.id());
+        String eTag = created.getResponse().getHeader("ETag");
+
+        // When / Then
+        mockMvc.perform(get("/api/v1/beer/{beerId}", savedBeer.id())
+                        .accept(APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(header().string("Vary", "Accept"));
+        mockMvc.perform(get("/api/v1/beer/{beerId}", savedBeer.id())
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Vary", "Accept"));
+    }
+}
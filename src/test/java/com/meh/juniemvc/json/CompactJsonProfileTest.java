@@ -0,0 +1,111 @@
+package com.meh.juniemvc.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.meh.juniemvc.api.model.BeerOrderDto;
+import com.meh.juniemvc.api.model.CustomerDto;
+import com.meh.juniemvc.domain.Beer;
+import com.meh.juniemvc.domain.OrderStatus;
+import com.meh.juniemvc.repositories.BeerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against its own database so the page size of the compressed response doesn't depend on
+ * beers left behind by other tests.
+ */
+@Slf4j
+@ActiveProfiles("compact-json")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:compactjson;DB_CLOSE_DELAY=-1")
+class CompactJsonProfileTest {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void testObjectMapperOmitsNullsWithoutBlackbird() throws Exception {
+        // Given
+        BeerOrderDto beerOrderDto = new BeerOrderDto(1, 0, null, null, null, OrderStatus.NEW,
+                new CustomerDto(1, 0, "Compact Customer", "compact@example.com", null), Set.of());
+
+        // When
+        String json = objectMapper.writeValueAsString(beerOrderDto);
+
+        // Then
+        assertThat(objectMapper.getRegisteredModuleIds()).doesNotContain(new BlackbirdModule().getTypeId());
+        assertThat(json).doesNotContain("customerRef", "createdDate", "phone");
+        assertThat(json).contains("\"orderStatus\":\"NEW\"");
+    }
+
+    @Test
+    void testLargeResponsesAreCompressedWhenAccepted() throws Exception {
+        // Given
+        List<Beer> beers = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            beers.add(Beer.builder()
+                    .beerName("Compressed Beer " + i).beerStyle("IPA").upc("COMPRESS" + i)
+                    .price(new BigDecimal("9.99")).quantityOnHand(10).build());
+        }
+        beers = beerRepository.saveAll(beers);
+
+        try {
+            // When
+            HttpResponse<byte[]> gzipped = get("/api/v1/beer?size=50", "gzip");
+            HttpResponse<byte[]> plain = get("/api/v1/beer?size=50", null);
+            HttpResponse<byte[]> single = get("/api/v1/beer/" + beers.getFirst().getId(), "gzip");
+
+            // Then
+            String unzipped;
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.body()))) {
+                unzipped = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            log.info("Page of 50 beers: {} bytes plain, {} bytes gzipped", plain.body().length, gzipped.body().length);
+            assertThat(gzipped.headers().firstValue("Content-Encoding")).contains("gzip");
+            assertThat(plain.headers().firstValue("Content-Encoding")).isEmpty();
+            assertThat(unzipped).isEqualTo(new String(plain.body(), StandardCharsets.UTF_8));
+            assertThat(gzipped.body().length).isLessThan(plain.body().length / 4);
+            assertThat(single.headers().firstValue("Content-Encoding")).isEmpty();
+            assertThat(String.join(",", gzipped.headers().allValues("Vary")))
+                    .containsIgnoringCase("Accept,").containsIgnoringCase("Accept-Encoding");
+            assertThat(String.join(",", single.headers().allValues("Vary")))
+                    .containsIgnoringCase("Accept,").containsIgnoringCase("Accept-Encoding");
+        } finally {
+            beerRepository.deleteAll(beers);
+        }
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
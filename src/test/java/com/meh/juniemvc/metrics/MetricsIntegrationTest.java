@@ -0,0 +1,69 @@
+package com.meh.juniemvc.metrics;
+
+import com.meh.juniemvc.domain.BeerCreateRequest;
+import com.meh.juniemvc.domain.BeerDto;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MetricsIntegrationTest {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Test
+    void testPrometheusEndpointExposesApplicationMetrics() {
+        // Given
+        ResponseEntity<BeerDto> created = restTemplate.postForEntity("/api/v1/beer",
+                new BeerCreateRequest("Metrics Beer", "IPA", "700001", 10, new BigDecimal("9.99")), BeerDto.class);
+        Integer beerId = created.getBody().id();
+        restTemplate.getForEntity("/api/v1/beer/{id}", BeerDto.class, beerId);
+        restTemplate.getForEntity("/api/v1/beer/{id}", BeerDto.class, beerId);
+        restTemplate.patchForObject("/api/v1/beer-order/{id}/status", null, String.class, Integer.MAX_VALUE);
+        restTemplate.postForEntity("/api/v1/beer-order/{id}/allocation", null, String.class, Integer.MAX_VALUE);
+
+        // When
+        ResponseEntity<String> scrape = restTemplate.getForEntity("/actuator/prometheus", String.class);
+        String metrics = scrape.getBody();
+
+        // Then
+        assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(metrics)
+                .contains("http_server_requests_seconds_bucket{error=\"none\",exception=\"none\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/api/v1/beer/{beerId}\"")
+                .contains("service_calls_seconds_bucket{class=\"com.meh.juniemvc.services.BeerServiceImpl\"")
+                .contains("service_calls_seconds_count{class=\"com.meh.juniemvc.services.BeerServiceImpl\"")
+                .contains("spring_data_repository_invocations_seconds_count")
+                .contains("hikaricp_connections_pending")
+                .contains("hibernate_statements_per_request_count{method=\"POST\",uri=\"/api/v1/beer\"}")
+                .contains("api_errors_total{handler=\"not_found\"}")
+                .contains("cache_gets_total{cache=\"beer\"");
+    }
+
+    @Test
+    void testAsyncExportIsNotCountedAsRequestStatements() {
+        // Given
+        ResponseEntity<String> export = restTemplate.getForEntity("/api/v1/beer/export", String.class);
+        log.info("Exported {} characters", export.getBody() == null ? 0 : export.getBody().length());
+
+        // When
+        String metrics = restTemplate.getForEntity("/actuator/prometheus", String.class).getBody();
+
+        // Then
+        assertThat(export.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(metrics)
+                .contains("http_server_requests_seconds_count{error=\"none\",exception=\"none\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/api/v1/beer/export\"}")
+                .doesNotContain("hibernate_statements_per_request_count{method=\"GET\",uri=\"/api/v1/beer/export\"}");
+    }
+}
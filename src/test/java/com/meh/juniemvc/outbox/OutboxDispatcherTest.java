@@ -0,0 +1,204 @@
+package com.meh.juniemvc.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meh.juniemvc.domain.BeerOrder;
+import com.meh.juniemvc.domain.Customer;
+import com.meh.juniemvc.domain.OrderStatus;
+import com.meh.juniemvc.repositories.BeerOrderRepository;
+import com.meh.juniemvc.repositories.CustomerRepository;
+import com.meh.juniemvc.repositories.OutboxEventRepository;
+import com.meh.juniemvc.services.BeerOrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against its own database with polling disabled, so events are only dispatched when a test
+ * calls {@link OutboxDispatcher#drain()} and other test contexts can't dispatch them first.
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxtest;DB_CLOSE_DELAY=-1",
+        "junie.outbox.enabled=false",
+        "junie.outbox.batch-size=2"
+})
+class OutboxDispatcherTest {
+
+    @Autowired
+    OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    RecordingSink recordingSink;
+
+    @Autowired
+    BeerOrderService beerOrderService;
+
+    @Autowired
+    BeerOrderRepository beerOrderRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    Customer customer;
+    BeerOrder beerOrder;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(Customer.builder()
+                .name("Outbox Customer")
+                .email("outbox@example.com")
+                .build());
+        beerOrder = beerOrderRepository.save(BeerOrder.builder()
+                .orderStatus(OrderStatus.NEW)
+                .customer(customer)
+                .build());
+        recordingSink.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAllInBatch();
+        beerOrderRepository.deleteById(beerOrder.getId());
+        customerRepository.delete(customer);
+    }
+
+    @Test
+    void testStatusChangeIsWrittenToOutboxAndDispatched() throws Exception {
+        // Given
+        beerOrderService.updateBeerOrderStatus(beerOrder.getId(), OrderStatus.READY);
+        assertThat(outboxEventRepository.count()).isEqualTo(1);
+
+        // When
+        int delivered = outboxDispatcher.drain();
+
+        // Then
+        assertThat(delivered).isEqualTo(1);
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(recordingSink.messages).singleElement().satisfies(message -> {
+            assertThat(message.aggregateType()).isEqualTo("BeerOrder");
+            assertThat(message.aggregateId()).isEqualTo(beerOrder.getId());
+            assertThat(message.eventType()).isEqualTo("BeerOrderStatusChanged");
+        });
+
+        JsonNode payload = objectMapper.readTree(recordingSink.messages.getFirst().payload());
+        log.info("Dispatched payload: {}", payload);
+        assertThat(payload.get("customerId").asInt()).isEqualTo(customer.getId());
+        assertThat(payload.get("previousStatus").asText()).isEqualTo("NEW");
+        assertThat(payload.get("orderStatus").asText()).isEqualTo("READY");
+    }
+
+    @Test
+    void testStatusChangeOfOrderWithoutCustomerIsDispatched() throws Exception {
+        // Given
+        BeerOrder withoutCustomer = beerOrderRepository.save(BeerOrder.builder()
+                .orderStatus(OrderStatus.NEW)
+                .build());
+
+        try {
+            // When
+            beerOrderService.updateBeerOrderStatus(withoutCustomer.getId(), OrderStatus.READY);
+            int delivered = outboxDispatcher.drain();
+
+            // Then
+            assertThat(delivered).isEqualTo(1);
+            JsonNode payload = objectMapper.readTree(recordingSink.messages.getFirst().payload());
+            assertThat(payload.get("beerOrderId").asInt()).isEqualTo(withoutCustomer.getId());
+            assertThat(payload.get("customerId").isNull()).isTrue();
+            assertThat(payload.get("orderStatus").asText()).isEqualTo("READY");
+        } finally {
+            beerOrderRepository.deleteById(withoutCustomer.getId());
+        }
+    }
+
+    @Test
+    void testUnchangedStatusWritesNoEvent() {
+        // When
+        beerOrderService.updateBeerOrderStatus(beerOrder.getId(), OrderStatus.NEW);
+
+        // Then
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void testDrainDispatchesEventsInOrderAcrossBatches() {
+        // Given
+        beerOrderService.updateBeerOrderStatus(beerOrder.getId(), OrderStatus.READY);
+        beerOrderService.updateBeerOrderStatus(beerOrder.getId(), OrderStatus.PICKED_UP);
+        beerOrderService.updateBeerOrderStatus(beerOrder.getId(), OrderStatus.DELIVERED);
+
+        // When
+        int delivered = outboxDispatcher.drain();
+
+        // Then
+        assertThat(delivered).isEqualTo(3);
+        assertThat(recordingSink.batchSizes).containsExactly(2, 1);
+        assertThat(recordingSink.messages).extracting(OutboxMessage::id).isSorted();
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void testFailedBatchStaysInOutboxAndIsRetried() {
+        // Given
+        beerOrderService.updateBeerOrderStatus(beerOrder.getId(), OrderStatus.READY);
+        recordingSink.failNext = true;
+
+        // When
+        int deliveredOnFailure = outboxDispatcher.drain();
+        int deliveredOnRetry = outboxDispatcher.drain();
+
+        // Then
+        assertThat(deliveredOnFailure).isZero();
+        assertThat(deliveredOnRetry).isEqualTo(1);
+        assertThat(recordingSink.messages).hasSize(1);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @TestConfiguration
+    static class RecordingSinkConfig {
+
+        @Bean
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+
+    static class RecordingSink implements OutboxSink {
+
+        final List<OutboxMessage> messages = new CopyOnWriteArrayList<>();
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        volatile boolean failNext;
+
+        @Override
+        public void publish(List<OutboxMessage> batch) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("Sink unavailable");
+            }
+            batchSizes.add(batch.size());
+            messages.addAll(batch);
+        }
+
+        void reset() {
+            messages.clear();
+            batchSizes.clear();
+            failNext = false;
+        }
+    }
+}
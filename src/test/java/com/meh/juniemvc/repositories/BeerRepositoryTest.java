@@ -1,16 +1,26 @@
 package com.meh.juniemvc.repositories;
 
 import com.meh.juniemvc.domain.Beer;
+import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.domain.BeerPageRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
@@ -20,6 +30,9 @@ class BeerRepositoryTest {
     @Autowired
     BeerRepository beerRepository;
 
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
     @Test
     void testSaveBeer() {
         // Given
@@ -142,4 +155,186 @@ class BeerRepositoryTest {
         assertThat(beers).isNotNull();
         assertThat(beers.size()).isEqualTo(2);
     }
+
+    @Test
+    void testFindBeerPageFiltersAndSeeksPastCursor() {
+        // Given
+        beerRepository.deleteAll();
+        
+        List<Beer> saved = beerRepository.saveAll(List.of(
+                Beer.builder().beerName("Galaxy IPA").beerStyle("IPA").upc("100001")
+                        .price(new BigDecimal("10.99")).quantityOnHand(10).build(),
+                Beer.builder().beerName("Galaxy Stout").beerStyle("Stout").upc("100002")
+                        .price(new BigDecimal("11.99")).quantityOnHand(20).build(),
+                Beer.builder().beerName("Galaxy Haze").beerStyle("IPA").upc("100003")
+                        .price(new BigDecimal("12.99")).quantityOnHand(30).build(),
+                Beer.builder().beerName("Mango Cart").beerStyle("IPA").upc("100004")
+                        .price(new BigDecimal("13.99")).quantityOnHand(40).build()));
+        
+        // When
+        List<BeerDto> firstPage = beerRepository.findBeerPage(
+                new BeerPageRequest("Galaxy", "IPA", null, Sort.Direction.ASC, 1), 1);
+        List<BeerDto> secondPage = beerRepository.findBeerPage(
+                new BeerPageRequest("Galaxy", "IPA", firstPage.get(0).id(), Sort.Direction.ASC, 1), 1);
+        List<BeerDto> descending = beerRepository.findBeerPage(
+                new BeerPageRequest(null, null, null, Sort.Direction.DESC, 10), 10);
+        log.info("Pages: {} {} {}", firstPage, secondPage, descending);
+        
+        // Then
+        assertThat(firstPage).extracting(BeerDto::id).containsExactly(saved.get(0).getId());
+        assertThat(secondPage).extracting(BeerDto::id).containsExactly(saved.get(2).getId());
+        assertThat(descending).extracting(BeerDto::id).containsExactly(
+                saved.get(3).getId(), saved.get(2).getId(), saved.get(1).getId(), saved.get(0).getId());
+    }
+
+    @Test
+    void testFindBeerPageByStyleReadsCompositeIndexInOrder() {
+        // Given
+        beerRepository.deleteAll();
+        List<Beer> saved = beerRepository.saveAll(List.of(
+                Beer.builder().beerName("First IPA").beerStyle("IPA").upc("300001")
+                        .price(new BigDecimal("9.99")).quantityOnHand(10).build(),
+                Beer.builder().beerName("Some Stout").beerStyle("Stout").upc("300002")
+                        .price(new BigDecimal("9.99")).quantityOnHand(10).build(),
+                Beer.builder().beerName("Second IPA").beerStyle("IPA").upc("300003")
+                        .price(new BigDecimal("9.99")).quantityOnHand(10).build()));
+
+        // When
+        List<BeerDto> descending = beerRepository.findBeerPage(
+                new BeerPageRequest(null, "IPA", saved.get(2).getId() + 1, Sort.Direction.DESC, 10), 10);
+        List<String> plans = Stream.of("beer_style, id", "beer_style DESC, id DESC")
+                .map(order -> jdbcTemplate.queryForObject(
+                        "EXPLAIN SELECT id FROM beer WHERE beer_style = 'IPA' AND id > 5 ORDER BY " + order
+                                + " FETCH FIRST 26 ROWS ONLY", String.class))
+                .toList();
+
+        // Then
+        log.info("Style listing plans: {}", plans);
+        assertThat(descending).extracting(BeerDto::id).containsExactly(saved.get(2).getId(), saved.get(0).getId());
+        assertThat(plans).allSatisfy(plan -> assertThat(plan)
+                .containsIgnoringCase("idx_beer_style_id")
+                .containsIgnoringCase("index sorted"));
+    }
+
+    @Test
+    void testFindBeerPageEscapesLikeWildcards() {
+        // Given
+        beerRepository.deleteAll();
+        
+        beerRepository.saveAll(List.of(
+                Beer.builder().beerName("100% Pils").beerStyle("Pilsner").upc("200001")
+                        .price(new BigDecimal("9.99")).quantityOnHand(10).build(),
+                Beer.builder().beerName("1000 Hops").beerStyle("IPA").upc("200002")
+                        .price(new BigDecimal("9.99")).quantityOnHand(10).build()));
+        
+        // When
+        List<BeerDto> beers = beerRepository.findBeerPage(
+                new BeerPageRequest("100%", null, null, Sort.Direction.ASC, 10), 10);
+        
+        // Then
+        assertThat(beers).extracting(BeerDto::beerName).containsExactly("100% Pils");
+    }
+
+    @Test
+    void testStreamAllReturnsBeersInIdOrder() {
+        // Given
+        beerRepository.deleteAll();
+        
+        List<Beer> saved = beerRepository.saveAll(List.of(
+                Beer.builder().beerName("Stream One").beerStyle("IPA").upc("400001")
+                        .price(new BigDecimal("9.99")).quantityOnHand(10).build(),
+                Beer.builder().beerName("Stream Two").beerStyle("Lager").upc("400002")
+                        .price(new BigDecimal("9.99")).quantityOnHand(10).build()));
+        
+        // When
+        List<Integer> streamedIds;
+        try (Stream<Beer> beers = beerRepository.streamAll()) {
+            streamedIds = beers.map(Beer::getId).toList();
+        }
+        
+        // Then
+        assertThat(streamedIds).containsExactly(saved.get(0).getId(), saved.get(1).getId());
+    }
+
+    @Test
+    void testFindByUpc() {
+        // Given
+        Beer savedBeer = beerRepository.save(Beer.builder()
+                .beerName("Scanned Beer").beerStyle("IPA").upc("0631234200036")
+                .price(new BigDecimal("12.99")).quantityOnHand(100).build());
+
+        // When
+        Optional<Beer> found = beerRepository.findByUpc("0631234200036");
+        Optional<Beer> missing = beerRepository.findByUpc("0000000000000");
+
+        // Then
+        assertThat(found).map(Beer::getId).contains(savedBeer.getId());
+        assertThat(missing).isEmpty();
+    }
+
+    @Test
+    void testUpcMustBeUnique() {
+        // Given
+        beerRepository.saveAndFlush(Beer.builder()
+                .beerName("First Beer").beerStyle("IPA").upc("0631234200043")
+                .price(new BigDecimal("12.99")).quantityOnHand(100).build());
+        Beer duplicate = Beer.builder()
+                .beerName("Second Beer").beerStyle("Stout").upc("0631234200043")
+                .price(new BigDecimal("9.99")).quantityOnHand(10).build();
+
+        // When/Then
+        assertThrows(DataIntegrityViolationException.class, () -> beerRepository.saveAndFlush(duplicate));
+    }
+
+    @Test
+    void testUpdateBeerAtVersion() {
+        // Given
+        Beer savedBeer = beerRepository.saveAndFlush(Beer.builder()
+                .beerName("Original Beer")
+                .beerStyle("IPA")
+                .upc("123456")
+                .price(new BigDecimal("12.99"))
+                .quantityOnHand(100)
+                .build());
+        Integer version = savedBeer.getVersion();
+        LocalDateTime updateDate = LocalDateTime.now();
+
+        // When
+        int stale = beerRepository.updateBeer(savedBeer.getId(), version + 1, "Stale Beer", "Stout", "111111",
+                75, new BigDecimal("14.99"), updateDate);
+        int updated = beerRepository.updateBeer(savedBeer.getId(), version, "Updated Beer", "Stout", "111111",
+                75, new BigDecimal("14.99"), updateDate);
+
+        // Then
+        assertThat(stale).isZero();
+        assertThat(updated).isEqualTo(1);
+        assertThat(beerRepository.findRevisionById(savedBeer.getId()))
+                .hasValueSatisfying(revision -> {
+                    assertThat(revision.version()).isEqualTo(version + 1);
+                    assertThat(revision.createdDate()).isCloseTo(savedBeer.getCreatedDate(), within(1, ChronoUnit.MILLIS));
+                });
+    }
+
+    @Test
+    void testDeleteBeerByIdAndVersionIn() {
+        // Given
+        Beer savedBeer = beerRepository.saveAndFlush(Beer.builder()
+                .beerName("Doomed Beer")
+                .beerStyle("IPA")
+                .upc("123456")
+                .price(new BigDecimal("12.99"))
+                .quantityOnHand(100)
+                .build());
+
+        // When
+        int stale = beerRepository.deleteBeerByIdAndVersionIn(savedBeer.getId(), Set.of(savedBeer.getVersion() + 1));
+        int deleted = beerRepository.deleteBeerByIdAndVersionIn(savedBeer.getId(),
+                Set.of(savedBeer.getVersion() + 1, savedBeer.getVersion()));
+
+        // Then
+        assertThat(stale).isZero();
+        assertThat(deleted).isEqualTo(1);
+        assertThat(beerRepository.deleteBeerById(savedBeer.getId())).isZero();
+        assertThat(beerRepository.findVersionById(savedBeer.getId())).isEmpty();
+    }
 }
\ No newline at end of file
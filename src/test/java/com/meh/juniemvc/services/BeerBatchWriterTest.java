@@ -0,0 +1,186 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.domain.Beer;
+import com.meh.juniemvc.domain.BeerBulkResult;
+import com.meh.juniemvc.domain.BeerBulkStatus;
+import com.meh.juniemvc.domain.BeerCreateRequest;
+import com.meh.juniemvc.domain.BeerUpsertRequest;
+import com.meh.juniemvc.repositories.BeerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+// Background pollers are kept quiet so they don't add to the statement counts
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "junie.outbox.enabled=false",
+        "junie.idempotency.purge-interval=1h"
+})
+@Transactional
+class BeerBatchWriterTest {
+
+    @Autowired
+    BeerBatchWriter beerBatchWriter;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testCreateChunk() {
+        // Given
+        List<BeerBulkItem<BeerCreateRequest>> items = List.of(
+                new BeerBulkItem<>(3, new BeerCreateRequest("Bulk One", "IPA", "300001", 10, new BigDecimal("9.99"))),
+                new BeerBulkItem<>(7, new BeerCreateRequest("Bulk Two", "Stout", "300002", 20, new BigDecimal("10.99"))));
+
+        // When
+        List<BeerBulkResult> results = beerBatchWriter.createChunk(items);
+        log.info("Create chunk results: {}", results);
+
+        // Then
+        assertThat(results).extracting(BeerBulkResult::index).containsExactly(3, 7);
+        assertThat(results).extracting(BeerBulkResult::status).containsOnly(BeerBulkStatus.CREATED);
+        assertThat(results).allSatisfy(result -> assertThat(result.beer().id()).isNotNull());
+        assertThat(beerRepository.findById(results.get(1).beer().id()))
+                .map(Beer::getBeerName)
+                .contains("Bulk Two");
+    }
+
+    @Test
+    void testUpsertChunk() {
+        // Given
+        Beer existing = beerRepository.saveAndFlush(Beer.builder()
+                .beerName("Original").beerStyle("IPA").upc("300003")
+                .price(new BigDecimal("9.99")).quantityOnHand(10).build());
+        Integer originalVersion = existing.getVersion();
+
+        List<BeerBulkItem<BeerUpsertRequest>> items = List.of(
+                new BeerBulkItem<>(0, new BeerUpsertRequest(existing.getId(), "Renamed", "IPA", "300003", 5, new BigDecimal("8.99"))),
+                new BeerBulkItem<>(1, new BeerUpsertRequest(null, "Brand New", "Lager", "300004", 15, new BigDecimal("7.99"))),
+                new BeerBulkItem<>(2, new BeerUpsertRequest(Integer.MAX_VALUE, "Ghost", "Lager", "300005", 1, new BigDecimal("1.99"))));
+
+        // When
+        List<BeerBulkResult> results = beerBatchWriter.upsertChunk(items);
+        log.info("Upsert chunk results: {}", results);
+
+        // Then
+        assertThat(results).extracting(BeerBulkResult::status).containsExactly(
+                BeerBulkStatus.UPDATED, BeerBulkStatus.CREATED, BeerBulkStatus.NOT_FOUND);
+        assertThat(results.get(0).beer().beerName()).isEqualTo("Renamed");
+        assertThat(results.get(0).beer().version()).isGreaterThan(originalVersion);
+        assertThat(results.get(1).beer().id()).isNotNull();
+        assertThat(results.get(2).beer()).isNull();
+    }
+
+    @Test
+    void testCreateChunkUsesJdbcBatches() {
+        // Given
+        int beerCount = 120;
+        List<BeerBulkItem<BeerCreateRequest>> items = new ArrayList<>();
+        for (int i = 0; i < beerCount; i++) {
+            items.add(new BeerBulkItem<>(i, new BeerCreateRequest(
+                    "Batched " + i, "Lager", "31" + String.format("%04d", i), i, new BigDecimal("5.99"))));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        List<BeerBulkResult> results = beerBatchWriter.createChunk(items);
+        log.info("Statements to create {} beers: {}", beerCount, statistics.getPrepareStatementCount());
+
+        // Then
+        assertThat(results).extracting(BeerBulkResult::status).containsOnly(BeerBulkStatus.CREATED);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(beerCount);
+        // One UPC check, the odd sequence call and one statement per JDBC batch of 50, not one per beer
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void testCreateChunkReportsDuplicateUpcs() {
+        // Given
+        beerRepository.saveAndFlush(Beer.builder()
+                .beerName("Taken").beerStyle("IPA").upc("300010")
+                .price(new BigDecimal("9.99")).quantityOnHand(10).build());
+
+        List<BeerBulkItem<BeerCreateRequest>> items = List.of(
+                new BeerBulkItem<>(0, new BeerCreateRequest("Clash", "IPA", "300010", 10, new BigDecimal("9.99"))),
+                new BeerBulkItem<>(1, new BeerCreateRequest("First", "Stout", "300011", 20, new BigDecimal("10.99"))),
+                new BeerBulkItem<>(2, new BeerCreateRequest("Second", "Stout", "300011", 30, new BigDecimal("11.99"))));
+
+        // When
+        List<BeerBulkResult> results = beerBatchWriter.createChunk(items);
+        log.info("Create chunk results: {}", results);
+
+        // Then
+        assertThat(results).extracting(BeerBulkResult::status).containsExactly(
+                BeerBulkStatus.DUPLICATE, BeerBulkStatus.CREATED, BeerBulkStatus.DUPLICATE);
+        assertThat(results.get(0).errors()).containsExactly("UPC 300010 is already in use");
+        assertThat(beerRepository.findByUpc("300011")).map(Beer::getBeerName).contains("First");
+    }
+
+    @Test
+    void testUpsertChunkReportsDuplicateUpcs() {
+        // Given
+        Beer first = beerRepository.saveAndFlush(Beer.builder()
+                .beerName("First").beerStyle("IPA").upc("300020")
+                .price(new BigDecimal("9.99")).quantityOnHand(10).build());
+        Beer second = beerRepository.saveAndFlush(Beer.builder()
+                .beerName("Second").beerStyle("IPA").upc("300021")
+                .price(new BigDecimal("9.99")).quantityOnHand(10).build());
+
+        List<BeerBulkItem<BeerUpsertRequest>> items = List.of(
+                new BeerBulkItem<>(0, new BeerUpsertRequest(first.getId(), "First Kept", "IPA", "300020", 5, new BigDecimal("8.99"))),
+                new BeerBulkItem<>(1, new BeerUpsertRequest(second.getId(), "Second Moved", "IPA", "300020", 5, new BigDecimal("8.99"))),
+                new BeerBulkItem<>(2, new BeerUpsertRequest(null, "New", "Lager", "300022", 15, new BigDecimal("7.99"))),
+                new BeerBulkItem<>(3, new BeerUpsertRequest(null, "Also New", "Lager", "300022", 15, new BigDecimal("7.99"))));
+
+        // When
+        List<BeerBulkResult> results = beerBatchWriter.upsertChunk(items);
+        log.info("Upsert chunk results: {}", results);
+
+        // Then
+        assertThat(results).extracting(BeerBulkResult::status).containsExactly(
+                BeerBulkStatus.UPDATED, BeerBulkStatus.DUPLICATE, BeerBulkStatus.CREATED, BeerBulkStatus.DUPLICATE);
+        assertThat(beerRepository.findById(second.getId())).map(Beer::getUpc).contains("300021");
+    }
+
+    @Test
+    void testUpsertChunkReportsRepeatedIds() {
+        // Given
+        Beer existing = beerRepository.saveAndFlush(Beer.builder()
+                .beerName("Original").beerStyle("IPA").upc("300030")
+                .price(new BigDecimal("9.99")).quantityOnHand(10).build());
+
+        List<BeerBulkItem<BeerUpsertRequest>> items = List.of(
+                new BeerBulkItem<>(0, new BeerUpsertRequest(existing.getId(), "First Edit", "IPA", "300030", 5, new BigDecimal("8.99"))),
+                new BeerBulkItem<>(1, new BeerUpsertRequest(existing.getId(), "Second Edit", "IPA", "300031", 6, new BigDecimal("7.99"))));
+
+        // When
+        List<BeerBulkResult> results = beerBatchWriter.upsertChunk(items);
+        log.info("Upsert chunk results: {}", results);
+
+        // Then
+        assertThat(results).extracting(BeerBulkResult::status).containsExactly(
+                BeerBulkStatus.UPDATED, BeerBulkStatus.DUPLICATE);
+        assertThat(results.get(0).beer().beerName()).isEqualTo("First Edit");
+        assertThat(results.get(1).errors()).containsExactly("Beer " + existing.getId() + " is already updated by an earlier item");
+        assertThat(beerRepository.findById(existing.getId())).hasValueSatisfying(beer -> {
+            assertThat(beer.getBeerName()).isEqualTo("First Edit");
+            assertThat(beer.getUpc()).isEqualTo("300030");
+        });
+    }
+}
@@ -0,0 +1,181 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.domain.BeerDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeerCacheTest {
+
+    BeerCache beerCache;
+
+    @BeforeEach
+    void setUp() {
+        beerCache = new BeerCache(new BeerCacheProperties(2, Duration.ofMinutes(10)));
+    }
+
+    @Test
+    void testGetRecordsHitsAndMisses() {
+        // Given
+        beerCache.put(beerDto(1, 1, "Test Beer"));
+
+        // When
+        Optional<BeerDto> hit = beerCache.get(1);
+        Optional<BeerDto> miss = beerCache.get(2);
+
+        // Then
+        assertThat(hit).isPresent();
+        assertThat(miss).isEmpty();
+        assertThat(beerCache.stats().hitCount()).isEqualTo(1);
+        assertThat(beerCache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testGetAllReturnsOnlyCachedBeers() {
+        // Given
+        beerCache.put(beerDto(1, 1, "Test Beer"));
+        beerCache.put(beerDto(2, 1, "Other Beer"));
+
+        // When
+        Map<Integer, BeerDto> beers = beerCache.getAll(List.of(1, 2, 3));
+
+        // Then
+        assertThat(beers).containsOnlyKeys(1, 2);
+        assertThat(beerCache.stats().hitCount()).isEqualTo(2);
+        assertThat(beerCache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testPutRejectsStaleVersion() {
+        // Given
+        beerCache.put(beerDto(1, 2, "Newer Beer"));
+
+        // When
+        beerCache.put(beerDto(1, 1, "Older Beer"));
+
+        // Then
+        assertThat(beerCache.get(1)).map(BeerDto::beerName).contains("Newer Beer");
+    }
+
+    @Test
+    void testPutReplacesWithNewerVersion() {
+        // Given
+        beerCache.put(beerDto(1, 1, "Older Beer"));
+
+        // When
+        beerCache.put(beerDto(1, 2, "Newer Beer"));
+
+        // Then
+        assertThat(beerCache.get(1)).map(BeerDto::beerName).contains("Newer Beer");
+    }
+
+    @Test
+    void testGetByUpcFindsCachedBeer() {
+        // Given
+        beerCache.put(beerDto(1, 1, "Test Beer"));
+
+        // When
+        Optional<BeerDto> hit = beerCache.getByUpc("123456");
+        Optional<BeerDto> miss = beerCache.getByUpc("999999");
+
+        // Then
+        assertThat(hit).map(BeerDto::id).contains(1);
+        assertThat(miss).isEmpty();
+    }
+
+    @Test
+    void testGetByUpcMissesAfterUpcChanges() {
+        // Given
+        beerCache.put(beerDto(1, 1, "Test Beer"));
+
+        // When
+        beerCache.put(beerDto(1, 2, "Test Beer", "654321"));
+
+        // Then
+        assertThat(beerCache.getByUpc("123456")).isEmpty();
+        assertThat(beerCache.getByUpc("654321")).map(BeerDto::version).contains(2);
+    }
+
+    @Test
+    void testGetByUpcMissesAfterEviction() {
+        // Given
+        beerCache.put(beerDto(1, 1, "Test Beer"));
+
+        // When
+        beerCache.evictAfterCommit(1);
+
+        // Then
+        assertThat(beerCache.getByUpc("123456")).isEmpty();
+    }
+
+    @Test
+    void testEvictWithoutTransactionIsImmediate() {
+        // Given
+        beerCache.put(beerDto(1, 1, "Test Beer"));
+
+        // When
+        beerCache.evictAfterCommit(1);
+
+        // Then
+        assertThat(beerCache.get(1)).isEmpty();
+    }
+
+    @Test
+    void testLoadOverlappingDeleteIsNotCached() {
+        // Given a reader that loaded the beer before a delete committed
+        long loadStartedAt = beerCache.startLoad();
+        BeerDto loaded = beerDto(1, 1, "Deleted Beer");
+        beerCache.evictAfterCommit(1);
+
+        // When the reader stores its copy after the eviction
+        beerCache.putLoaded(loaded, loadStartedAt);
+
+        // Then
+        assertThat(beerCache.get(1)).isEmpty();
+        assertThat(beerCache.getByUpc("123456")).isEmpty();
+    }
+
+    @Test
+    void testLoadStartedAfterEvictionIsCached() {
+        // Given
+        beerCache.evictAfterCommit(1);
+
+        // When
+        beerCache.putLoaded(beerDto(1, 2, "Reloaded Beer"), beerCache.startLoad());
+
+        // Then
+        assertThat(beerCache.get(1)).map(BeerDto::beerName).contains("Reloaded Beer");
+    }
+
+    @Test
+    void testSizeBoundEvictsEntries() {
+        // Given
+        for (int id = 1; id <= 10; id++) {
+            beerCache.put(beerDto(id, 1, "Beer " + id));
+        }
+
+        // When
+        beerCache.cleanUp();
+
+        // Then
+        assertThat(beerCache.estimatedSize()).isLessThanOrEqualTo(2);
+        assertThat(beerCache.stats().evictionCount()).isGreaterThanOrEqualTo(8);
+    }
+
+    private BeerDto beerDto(Integer id, Integer version, String beerName) {
+        return beerDto(id, version, beerName, "123456");
+    }
+
+    private BeerDto beerDto(Integer id, Integer version, String beerName, String upc) {
+        LocalDateTime now = LocalDateTime.now();
+        return new BeerDto(id, version, beerName, "IPA", upc, 100, new BigDecimal("12.99"), now, now);
+    }
+}
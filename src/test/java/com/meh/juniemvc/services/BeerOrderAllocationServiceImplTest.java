@@ -0,0 +1,181 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.api.model.BeerOrderDto;
+import com.meh.juniemvc.api.model.BeerOrderLineDto;
+import com.meh.juniemvc.domain.Beer;
+import com.meh.juniemvc.domain.BeerOrder;
+import com.meh.juniemvc.domain.BeerOrderLine;
+import com.meh.juniemvc.domain.Customer;
+import com.meh.juniemvc.domain.OrderStatus;
+import com.meh.juniemvc.exceptions.InvalidOrderStatusException;
+import com.meh.juniemvc.repositories.BeerOrderRepository;
+import com.meh.juniemvc.repositories.BeerRepository;
+import com.meh.juniemvc.repositories.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@Slf4j
+@SpringBootTest
+class BeerOrderAllocationServiceImplTest {
+
+    static final int ORDER_COUNT = 300;
+    static final int STOCK = 120;
+    static final int THREADS = 32;
+
+    @Autowired
+    BeerOrderAllocationService beerOrderAllocationService;
+
+    @Autowired
+    BeerOrderRepository beerOrderRepository;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    Customer customer;
+    Beer hotBeer;
+    Beer otherBeer;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(Customer.builder()
+                .name("Allocation Customer")
+                .email("allocation@example.com")
+                .build());
+        hotBeer = beerRepository.save(Beer.builder()
+                .beerName("Hot Beer").beerStyle("IPA").upc("600001")
+                .price(new BigDecimal("9.99")).quantityOnHand(STOCK).build());
+        otherBeer = beerRepository.save(Beer.builder()
+                .beerName("Other Beer").beerStyle("Stout").upc("600002")
+                .price(new BigDecimal("8.99")).quantityOnHand(3).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerOrderRepository.deleteAll(beerOrderRepository.findByCustomerId(customer.getId(), PageRequest.of(0, 1000)));
+        beerRepository.deleteAllById(List.of(hotBeer.getId(), otherBeer.getId()));
+        customerRepository.delete(customer);
+    }
+
+    @Test
+    void testConcurrentAllocationOfHotBeerNeverOversells() throws Exception {
+        // Given
+        List<Integer> orderIds = new ArrayList<>();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            orderIds.add(saveOrder(new int[]{1}, hotBeer).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BeerOrderDto>> futures = new ArrayList<>();
+
+        // When
+        for (Integer orderId : orderIds) {
+            Callable<BeerOrderDto> allocation = () -> {
+                start.await();
+                return beerOrderAllocationService.allocateBeerOrder(orderId);
+            };
+            futures.add(executor.submit(allocation));
+        }
+        long startNanos = System.nanoTime();
+        start.countDown();
+
+        List<BeerOrderDto> results = new ArrayList<>();
+        for (Future<BeerOrderDto> future : futures) {
+            results.add(future.get());
+        }
+        executor.shutdown();
+        log.info("Allocated {} orders on {} threads in {} ms", ORDER_COUNT, THREADS,
+                (System.nanoTime() - startNanos) / 1_000_000);
+
+        // Then
+        long readyOrders = results.stream().filter(order -> order.orderStatus() == OrderStatus.READY).count();
+        int totalAllocated = results.stream()
+                .flatMap(order -> order.beerOrderLines().stream())
+                .mapToInt(BeerOrderLineDto::quantityAllocated)
+                .sum();
+
+        assertThat(readyOrders).isEqualTo(STOCK);
+        assertThat(totalAllocated).isEqualTo(STOCK);
+        assertThat(beerRepository.findById(hotBeer.getId()).orElseThrow().getQuantityOnHand()).isZero();
+    }
+
+    @Test
+    void testPartialAllocationStaysNewUntilRestocked() {
+        // Given
+        BeerOrder beerOrder = saveOrder(new int[]{2, 5}, hotBeer, otherBeer);
+
+        // When
+        BeerOrderDto partial = beerOrderAllocationService.allocateBeerOrder(beerOrder.getId());
+
+        // Then
+        assertThat(partial.orderStatus()).isEqualTo(OrderStatus.NEW);
+        assertThat(partial.beerOrderLines())
+                .extracting(BeerOrderLineDto::orderQuantity, BeerOrderLineDto::quantityAllocated)
+                .containsExactlyInAnyOrder(
+                        tuple(2, 2),
+                        tuple(5, 3));
+
+        // Given
+        Beer restocked = beerRepository.findById(otherBeer.getId()).orElseThrow();
+        restocked.setQuantityOnHand(10);
+        beerRepository.save(restocked);
+
+        // When
+        BeerOrderDto complete = beerOrderAllocationService.allocateBeerOrder(beerOrder.getId());
+
+        // Then
+        assertThat(complete.orderStatus()).isEqualTo(OrderStatus.READY);
+        assertThat(complete.beerOrderLines()).allSatisfy(line ->
+                assertThat(line.quantityAllocated()).isEqualTo(line.orderQuantity()));
+        assertThat(beerRepository.findById(hotBeer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(STOCK - 2);
+        assertThat(beerRepository.findById(otherBeer.getId()).orElseThrow().getQuantityOnHand()).isEqualTo(8);
+    }
+
+    @Test
+    void testAllocationRejectsOrderThatIsNotNew() {
+        // Given
+        BeerOrder beerOrder = saveOrder(new int[]{1}, hotBeer);
+        beerOrder.setOrderStatus(OrderStatus.CANCELLED);
+        beerOrderRepository.save(beerOrder);
+
+        // When/Then
+        assertThatThrownBy(() -> beerOrderAllocationService.allocateBeerOrder(beerOrder.getId()))
+                .isInstanceOf(InvalidOrderStatusException.class);
+    }
+
+    private BeerOrder saveOrder(int[] quantities, Beer... beers) {
+        BeerOrder beerOrder = BeerOrder.builder()
+                .orderStatus(OrderStatus.NEW)
+                .customer(customer)
+                .build();
+        for (int i = 0; i < beers.length; i++) {
+            beerOrder.addBeerOrderLine(BeerOrderLine.builder()
+                    .beer(beers[i])
+                    .orderQuantity(quantities[i])
+                    .quantityAllocated(0)
+                    .build());
+        }
+        return beerOrderRepository.save(beerOrder);
+    }
+}
@@ -0,0 +1,649 @@
+package com.meh.juniemvc.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meh.juniemvc.api.model.BeerDto;
+import com.meh.juniemvc.api.model.BeerOrderCompactDto;
+import com.meh.juniemvc.api.model.BeerOrderDto;
+import com.meh.juniemvc.api.model.BeerOrderHistoryDto;
+import com.meh.juniemvc.api.model.BeerOrderHistoryPage;
+import com.meh.juniemvc.api.model.BeerOrderIngestDto;
+import com.meh.juniemvc.api.model.BeerOrderLineCompactDto;
+import com.meh.juniemvc.api.model.BeerOrderLineDto;
+import com.meh.juniemvc.api.model.CustomerDto;
+import com.meh.juniemvc.api.model.CustomerOrderSummaryDto;
+import com.meh.juniemvc.api.model.OrderStatusSummaryDto;
+import com.meh.juniemvc.domain.Beer;
+import com.meh.juniemvc.domain.Customer;
+import com.meh.juniemvc.domain.OrderStatus;
+import com.meh.juniemvc.exceptions.InvalidOrderStatusException;
+import com.meh.juniemvc.repositories.BeerOrderLineRepository;
+import com.meh.juniemvc.repositories.BeerOrderRepository;
+import com.meh.juniemvc.repositories.BeerRepository;
+import com.meh.juniemvc.repositories.CustomerRepository;
+import com.meh.juniemvc.repositories.IdempotencyKeyRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+// Background pollers are kept quiet so they don't add to the statement counts
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "junie.outbox.enabled=false",
+        "junie.idempotency.purge-interval=1h"
+})
+class BeerOrderServiceImplTest {
+
+    static final int LINE_COUNT = 100;
+
+    @Autowired
+    BeerOrderService beerOrderService;
+
+    @Autowired
+    BeerOrderRepository beerOrderRepository;
+
+    @Autowired
+    BeerOrderLineRepository beerOrderLineRepository;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    IdempotencyKeys idempotencyKeys;
+
+    @Autowired
+    IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    BeerOrderClaimer beerOrderClaimer;
+
+    TransactionTemplate transactionTemplate;
+
+    Statistics statistics;
+    Customer customer;
+    List<Beer> beers;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        customer = customerRepository.save(Customer.builder()
+                .name("Order Customer")
+                .email("order.customer@example.com")
+                .build());
+
+        List<Beer> newBeers = new ArrayList<>();
+        for (int i = 0; i < LINE_COUNT; i++) {
+            newBeers.add(Beer.builder()
+                    .beerName("Order Beer " + i)
+                    .beerStyle("IPA")
+                    .upc("5000" + i)
+                    .price(new BigDecimal("9.99"))
+                    .quantityOnHand(100)
+                    .build());
+        }
+        beers = beerRepository.saveAll(newBeers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotencyKeyRepository.deleteAllInBatch();
+        beerOrderRepository.deleteAll(beerOrderRepository.findByCustomerId(customer.getId(), PageRequest.of(0, 100)));
+        beerRepository.deleteAll(beers);
+        customerRepository.delete(customer);
+    }
+
+    @Test
+    void testCreateBeerOrder() {
+        // When
+        BeerOrderDto created = beerOrderService.createBeerOrder(newOrder(3));
+        log.info("Created beer order: {}", created);
+
+        // Then
+        assertThat(created.id()).isNotNull();
+        assertThat(created.orderStatus()).isEqualTo(OrderStatus.NEW);
+        assertThat(created.customer().id()).isEqualTo(customer.getId());
+        assertThat(created.beerOrderLines()).hasSize(3);
+        assertThat(created.beerOrderLines()).allSatisfy(line -> assertThat(line.quantityAllocated()).isZero());
+    }
+
+    @Test
+    void testCreateBeerOrderBatchesLineInserts() {
+        // Given
+        int lineCount = 50;
+        statistics.clear();
+
+        // When
+        BeerOrderDto created = beerOrderService.createBeerOrder(newOrder(lineCount));
+
+        // Then
+        log.info("Statements to create a {}-line order: {}", lineCount, statistics.getPrepareStatementCount());
+        assertThat(created.beerOrderLines()).hasSize(lineCount);
+        assertThat(created.beerOrderLines()).allSatisfy(line -> assertThat(line.id()).isNotNull());
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(lineCount + 1);
+        // Customer, beers, at most two sequence calls per table, one order insert, one batch of lines
+        // and one merge into the customer order summary
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(9);
+    }
+
+    @Test
+    void testCreateBeerOrderWithIdempotencyKeyReplaysRetry() {
+        // Given
+        BeerOrderCreation first = beerOrderService.createBeerOrder(newOrder(2), "retry-key");
+
+        // When
+        BeerOrderCreation retry = beerOrderService.createBeerOrder(newOrder(2), "retry-key");
+
+        // Then
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.beerOrder().id()).isEqualTo(first.beerOrder().id());
+        assertThat(beerOrderRepository.findByCustomerId(customer.getId(), PageRequest.of(0, 10)).getTotalElements())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void testConcurrentRetriesWithSameIdempotencyKeyCreateOneOrder() throws Exception {
+        // Given
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BeerOrderCreation>> futures = new ArrayList<>();
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return beerOrderService.createBeerOrder(newOrder(3), "racing-key");
+                }));
+            }
+            start.countDown();
+        }
+        List<BeerOrderCreation> creations = new ArrayList<>();
+        for (Future<BeerOrderCreation> future : futures) {
+            creations.add(future.get());
+        }
+
+        // Then
+        Integer beerOrderId = creations.getFirst().beerOrder().id();
+        assertThat(creations).extracting(creation -> creation.beerOrder().id()).containsOnly(beerOrderId);
+        assertThat(creations).filteredOn(creation -> !creation.replayed()).hasSize(1);
+        assertThat(beerOrderRepository.findByCustomerId(customer.getId(), PageRequest.of(0, 10)).getTotalElements())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void testPurgeDeletesExpiredIdempotencyKeys() {
+        // Given
+        BeerOrderCreation recent = beerOrderService.createBeerOrder(newOrder(1), "recent-key");
+        transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.insert(
+                customer.getId(), "expired-key", recent.beerOrder().id(), LocalDateTime.now().minusDays(2)));
+
+        // When
+        int purged = idempotencyKeys.purgeExpired();
+
+        // Then
+        assertThat(purged).isEqualTo(1);
+        assertThat(idempotencyKeyRepository.findBeerOrderId(customer.getId(), "expired-key")).isEmpty();
+        assertThat(idempotencyKeyRepository.findBeerOrderId(customer.getId(), "recent-key")).contains(recent.beerOrder().id());
+    }
+
+    @Test
+    void testCreateBeerOrderWithUnknownBeer() {
+        // Given
+        BeerDto unknownBeer = new BeerDto(Integer.MAX_VALUE, null, null, null, null, null, null, null, null);
+        BeerOrderDto beerOrderDto = new BeerOrderDto(null, null, null, null, null, OrderStatus.NEW,
+                customerDto(), Set.of(new BeerOrderLineDto(null, null, unknownBeer, 1, 0)));
+
+        // When/Then
+        assertThatThrownBy(() -> beerOrderService.createBeerOrder(beerOrderDto))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void testCreateBeerOrderRejectsTotalQuantityOverflow() {
+        // Given
+        BeerDto first = new BeerDto(beers.get(0).getId(), null, null, null, null, null, null, null, null);
+        BeerDto second = new BeerDto(beers.get(1).getId(), null, null, null, null, null, null, null, null);
+        BeerOrderDto beerOrderDto = new BeerOrderDto(null, null, null, null, null, OrderStatus.NEW, customerDto(),
+                Set.of(new BeerOrderLineDto(null, null, first, Integer.MAX_VALUE - 1, 0),
+                        new BeerOrderLineDto(null, null, second, Integer.MAX_VALUE - 1, 0)));
+
+        // When/Then
+        assertThatThrownBy(() -> beerOrderService.createBeerOrder(beerOrderDto))
+                .isInstanceOf(ConstraintViolationException.class)
+                .hasMessage("Total order quantity 4294967292 exceeds 2147483647");
+        assertThat(beerOrderRepository.findByCustomerId(customer.getId(), PageRequest.of(0, 1))).isEmpty();
+    }
+
+    @Test
+    void testIngestBeerOrderWritesLinesInChunks() {
+        // Given
+        // 2,500 lines over the 100 beers in chunks of 1,000, quantities 1, 2, 3, 1, ... at 9.99 each
+        int lineCount = 2_500;
+        statistics.clear();
+
+        // When
+        BeerOrderIngestDto ingested = beerOrderService.ingestBeerOrder(customer.getId(), streamedLines(lineCount, -1));
+
+        // Then
+        log.info("Streamed beer order: {}, entities loaded: {}", ingested, statistics.getEntityLoadCount());
+        assertThat(ingested.lineCount()).isEqualTo(lineCount);
+        assertThat(ingested.totalQuantity()).isEqualTo(4_999);
+        assertThat(ingested.totalPrice()).isEqualByComparingTo("49940.01");
+        assertThat(beerOrderLineRepository.countByBeerOrderId(ingested.id())).isEqualTo(lineCount);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(lineCount + 1);
+        // The customer and each beer once, however many lines refer to it
+        assertThat(statistics.getEntityLoadCount()).isLessThanOrEqualTo(LINE_COUNT + 1);
+        assertThat(beerOrderRepository.findHeaderById(ingested.id())).hasValueSatisfying(header -> {
+            assertThat(header.totalQuantity()).isEqualTo(4_999);
+            assertThat(header.version()).isZero();
+        });
+        assertThat(beerOrderService.getCustomerOrderSummary(customer.getId()).totalQuantity()).isEqualTo(4_999);
+    }
+
+    @Test
+    void testIngestBeerOrderWithInvalidLineWritesNothing() {
+        // Given
+        Iterator<BeerOrderLineDto> lines = streamedLines(2_500, 1_500);
+
+        // When/Then
+        assertThatThrownBy(() -> beerOrderService.ingestBeerOrder(customer.getId(), lines))
+                .isInstanceOf(ConstraintViolationException.class)
+                .hasMessageContaining("line 1500");
+        assertThat(beerOrderRepository.findByCustomerId(customer.getId(), PageRequest.of(0, 1))).isEmpty();
+        assertThat(beerOrderService.getCustomerOrderSummary(customer.getId()).orderCount()).isZero();
+    }
+
+    @Test
+    void testIngestBeerOrderRejectsTotalQuantityOverflow() {
+        // Given
+        // Line 1,200 is past the first chunk and takes the running total past Integer.MAX_VALUE
+        Iterator<BeerOrderLineDto> lines = IntStream.rangeClosed(1, 1_500)
+                .mapToObj(lineNumber -> {
+                    BeerDto beer = new BeerDto(beers.get(lineNumber % LINE_COUNT).getId(), null, null, null, null, null, null, null, null);
+                    int orderQuantity = lineNumber == 1_200 ? Integer.MAX_VALUE : 1;
+                    return new BeerOrderLineDto(null, null, beer, orderQuantity, 0);
+                })
+                .iterator();
+
+        // When/Then
+        assertThatThrownBy(() -> beerOrderService.ingestBeerOrder(customer.getId(), lines))
+                .isInstanceOf(ConstraintViolationException.class)
+                .hasMessage("Invalid beer order line 1200: total order quantity exceeds 2147483647");
+        assertThat(beerOrderRepository.findByCustomerId(customer.getId(), PageRequest.of(0, 1))).isEmpty();
+        assertThat(beerOrderService.getCustomerOrderSummary(customer.getId()).orderCount()).isZero();
+    }
+
+    @Test
+    void testGetBeerOrderByIdLoadsLargeOrderInOneStatement() {
+        // Given
+        BeerOrderDto created = beerOrderService.createBeerOrder(newOrder(LINE_COUNT));
+        statistics.clear();
+
+        // When
+        Optional<BeerOrderDto> found = beerOrderService.getBeerOrderById(created.id());
+
+        // Then
+        log.info("Statements for a {}-line order: {}", LINE_COUNT, statistics.getPrepareStatementCount());
+        assertThat(found).isPresent();
+        assertThat(found.get().beerOrderLines()).hasSize(LINE_COUNT);
+        assertThat(found.get().beerOrderLines()).allSatisfy(line -> assertThat(line.beer().beerName()).isNotNull());
+        assertThat(found.get().customer().name()).isEqualTo("Order Customer");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testGetCompactBeerOrderByIdUsesProjections() throws Exception {
+        // Given
+        BeerOrderDto created = beerOrderService.createBeerOrder(newOrder(LINE_COUNT));
+        BeerOrderDto full = beerOrderService.getBeerOrderById(created.id()).orElseThrow();
+        statistics.clear();
+
+        // When
+        Optional<BeerOrderCompactDto> compact = beerOrderService.getCompactBeerOrderById(created.id());
+
+        // Then
+        assertThat(compact).isPresent();
+        assertThat(compact.get().customerName()).isEqualTo("Order Customer");
+        assertThat(compact.get().beerOrderLines()).hasSize(LINE_COUNT);
+        assertThat(compact.get().beerOrderLines()).extracting(BeerOrderLineCompactDto::id).isSorted();
+        assertThat(compact.get().beerOrderLines()).allSatisfy(line -> assertThat(line.upc()).startsWith("5000"));
+        // One statement for the order and customer, one for the lines and beers, and no entities loaded
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        int fullBytes = objectMapper.writeValueAsBytes(full).length;
+        int compactBytes = objectMapper.writeValueAsBytes(compact.get()).length;
+        log.info("JSON size of a {}-line order: full {} bytes, compact {} bytes", LINE_COUNT, fullBytes, compactBytes);
+        assertThat(compactBytes).isLessThan(fullBytes / 2);
+    }
+
+    @Test
+    void testGetCompactBeerOrderByIdNotFound() {
+        // When/Then
+        assertThat(beerOrderService.getCompactBeerOrderById(Integer.MAX_VALUE)).isEmpty();
+    }
+
+    @Test
+    void testGetBeerOrdersByCustomerIdUsesBoundedStatements() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            beerOrderService.createBeerOrder(newOrder(LINE_COUNT / 5));
+        }
+        statistics.clear();
+
+        // When
+        Page<BeerOrderDto> page = beerOrderService.getBeerOrdersByCustomerId(
+                customer.getId(), PageRequest.of(0, 10, Sort.by("id")));
+
+        // Then
+        log.info("Statements for a page of {} orders: {}", page.getNumberOfElements(), statistics.getPrepareStatementCount());
+        assertThat(page.getContent()).hasSize(5);
+        assertThat(page.getContent()).allSatisfy(order -> assertThat(order.beerOrderLines()).hasSize(LINE_COUNT / 5));
+        // Orders with customers, one batch of lines, one batch of beers
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void testGetBeerOrderHistoryPagesNewestFirstAcrossTies() {
+        // Given seven orders, the first four placed at the same instant
+        List<Integer> createdIds = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            createdIds.add(beerOrderService.createBeerOrder(newOrder(i + 1)).id());
+        }
+        jdbcTemplate.update("UPDATE beer_order SET created_date = TIMESTAMP '2000-01-01 12:00:00' WHERE id IN (?, ?, ?, ?)",
+                createdIds.get(0), createdIds.get(1), createdIds.get(2), createdIds.get(3));
+        statistics.clear();
+
+        // When
+        List<BeerOrderHistoryDto> history = new ArrayList<>();
+        int pages = 0;
+        BeerOrderHistoryPage page = beerOrderService.getBeerOrderHistory(customer.getId(), null, null, 3);
+        while (true) {
+            pages++;
+            history.addAll(page.orders());
+            if (page.nextBeforeId() == null) {
+                break;
+            }
+            page = beerOrderService.getBeerOrderHistory(
+                    customer.getId(), page.nextBeforeCreatedDate(), page.nextBeforeId(), 3);
+        }
+
+        // Then
+        assertThat(pages).isEqualTo(3);
+        assertThat(history).extracting(BeerOrderHistoryDto::id).containsExactlyElementsOf(createdIds.reversed());
+        assertThat(history).allSatisfy(order -> {
+            int lineCount = createdIds.indexOf(order.id()) + 1;
+            assertThat(order.lineCount()).isEqualTo(lineCount);
+            assertThat(order.totalQuantity()).isEqualTo(lineCount * (lineCount + 1) / 2);
+        });
+        // One statement per page, and neither orders nor lines loaded as entities
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(pages);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void testGetBeerOrderHistoryReadsCompositeIndexInOrder() {
+        // When
+        String plan = jdbcTemplate.queryForObject("""
+                EXPLAIN SELECT id FROM beer_order
+                WHERE customer_id = 1
+                  AND created_date <= TIMESTAMP '2000-01-01 12:00:00'
+                  AND (created_date < TIMESTAMP '2000-01-01 12:00:00' OR id < 5)
+                ORDER BY customer_id, created_date DESC, id DESC
+                FETCH FIRST 26 ROWS ONLY
+                """, String.class);
+
+        // Then
+        log.info("Order history plan: {}", plan);
+        assertThat(plan).containsIgnoringCase("idx_beer_order_customer_created");
+        assertThat(plan).containsIgnoringCase("index sorted");
+    }
+
+    @Test
+    void testUpdateBeerOrderStatus() {
+        // Given
+        BeerOrderDto created = beerOrderService.createBeerOrder(newOrder(2));
+
+        // When
+        BeerOrderDto updated = beerOrderService.updateBeerOrderStatus(created.id(), OrderStatus.READY);
+
+        // Then
+        assertThat(updated.orderStatus()).isEqualTo(OrderStatus.READY);
+        assertThat(updated.version()).isGreaterThan(created.version());
+    }
+
+    @Test
+    void testUpdateBeerOrderStatusNotFound() {
+        // When/Then
+        assertThatThrownBy(() -> beerOrderService.updateBeerOrderStatus(Integer.MAX_VALUE, OrderStatus.READY))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void testConcurrentWorkersClaimEachOrderOnce() throws Exception {
+        // Given
+        int orders = 30;
+        Set<Integer> readyIds = new HashSet<>();
+        for (int i = 0; i < orders; i++) {
+            Integer id = beerOrderService.createBeerOrder(newOrder(1)).id();
+            beerOrderService.updateBeerOrderStatus(id, OrderStatus.READY);
+            readyIds.add(id);
+        }
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger remaining = new AtomicInteger(orders);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    List<Integer> claimed = new ArrayList<>();
+                    while (remaining.get() > 0) {
+                        for (BeerOrderDto beerOrder : beerOrderService.claimBeerOrders(OrderStatus.READY, OrderStatus.PICKED_UP, 3)) {
+                            assertThat(beerOrder.orderStatus()).isEqualTo(OrderStatus.PICKED_UP);
+                            if (readyIds.contains(beerOrder.id())) {
+                                claimed.add(beerOrder.id());
+                                remaining.decrementAndGet();
+                            }
+                        }
+                    }
+                    return claimed;
+                }));
+            }
+            start.countDown();
+        }
+        List<Integer> claimed = new ArrayList<>();
+        for (Future<List<Integer>> future : futures) {
+            List<Integer> claimedByWorker = future.get();
+            log.info("Worker claimed {} orders", claimedByWorker.size());
+            claimed.addAll(claimedByWorker);
+        }
+
+        // Then
+        assertThat(claimed).hasSize(orders).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(readyIds);
+        assertThat(beerOrderRepository.findAllById(readyIds))
+                .allSatisfy(beerOrder -> assertThat(beerOrder.getOrderStatus()).isEqualTo(OrderStatus.PICKED_UP));
+        CustomerOrderSummaryDto summary = beerOrderService.getCustomerOrderSummary(customer.getId());
+        assertThat(summary.byStatus().get(OrderStatus.READY).orderCount()).isZero();
+        assertThat(summary.byStatus().get(OrderStatus.PICKED_UP).orderCount()).isEqualTo(orders);
+    }
+
+    @Test
+    void testClaimSkippingLockedMovesOldestOrders() {
+        // Given
+        List<Integer> readyIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Integer id = beerOrderService.createBeerOrder(newOrder(1)).id();
+            beerOrderService.updateBeerOrderStatus(id, OrderStatus.READY);
+            readyIds.add(id);
+        }
+
+        // When the SKIP LOCKED path runs on H2, where it degrades to a plain FOR UPDATE
+        List<Integer> claimed = beerOrderClaimer.claimSkippingLocked(
+                OrderStatus.READY, OrderStatus.PICKED_UP, BeerOrderServiceImpl.MAX_CLAIM_SIZE);
+
+        // Then
+        assertThat(claimed).containsAll(readyIds).isSorted();
+        assertThat(beerOrderRepository.findAllById(readyIds))
+                .allSatisfy(beerOrder -> assertThat(beerOrder.getOrderStatus()).isEqualTo(OrderStatus.PICKED_UP));
+        CustomerOrderSummaryDto summary = beerOrderService.getCustomerOrderSummary(customer.getId());
+        assertThat(summary.byStatus().get(OrderStatus.PICKED_UP).orderCount()).isEqualTo(3);
+        assertThat(beerOrderService.claimBeerOrders(OrderStatus.READY, OrderStatus.PICKED_UP, 10))
+                .extracting(BeerOrderDto::id).doesNotContainAnyElementsOf(readyIds);
+    }
+
+    @Test
+    void testClaimBeerOrdersRejectsNonForwardTransitions() {
+        // Given
+        Integer id = beerOrderService.createBeerOrder(newOrder(1)).id();
+        beerOrderService.updateBeerOrderStatus(id, OrderStatus.READY);
+
+        // When/Then
+        assertThatThrownBy(() -> beerOrderService.claimBeerOrders(OrderStatus.READY, OrderStatus.NEW, 10))
+                .isInstanceOf(InvalidOrderStatusException.class);
+        assertThatThrownBy(() -> beerOrderService.claimBeerOrders(OrderStatus.READY, OrderStatus.DELIVERED, 10))
+                .isInstanceOf(InvalidOrderStatusException.class);
+        // NEW orders become READY only through allocation, which takes the stock
+        assertThatThrownBy(() -> beerOrderService.claimBeerOrders(OrderStatus.NEW, OrderStatus.READY, 10))
+                .isInstanceOf(InvalidOrderStatusException.class);
+        assertThat(beerOrderRepository.findById(id)).hasValueSatisfying(
+                beerOrder -> assertThat(beerOrder.getOrderStatus()).isEqualTo(OrderStatus.READY));
+    }
+
+    @Test
+    void testClaimCandidatesReadStatusIndexInOrder() {
+        // When
+        String plan = jdbcTemplate.queryForObject("""
+                EXPLAIN SELECT id FROM beer_order
+                WHERE order_status = 'READY'
+                ORDER BY order_status, id
+                FETCH FIRST 40 ROWS ONLY
+                """, String.class);
+
+        // Then
+        log.info("Claim candidates plan: {}", plan);
+        assertThat(plan).containsIgnoringCase("idx_beer_order_status_id");
+        assertThat(plan).containsIgnoringCase("index sorted");
+    }
+
+    @Test
+    void testCustomerOrderSummaryFollowsCreatesAndStatusChanges() {
+        // Given
+        // Quantities 1 + 2 at 9.99 each, then 1 at 9.99
+        BeerOrderDto first = beerOrderService.createBeerOrder(newOrder(2));
+        beerOrderService.createBeerOrder(newOrder(1));
+
+        // When
+        beerOrderService.updateBeerOrderStatus(first.id(), OrderStatus.READY);
+        CustomerOrderSummaryDto summary = beerOrderService.getCustomerOrderSummary(customer.getId());
+
+        // Then
+        log.info("Customer order summary: {}", summary);
+        assertThat(summary.orderCount()).isEqualTo(2);
+        assertThat(summary.totalQuantity()).isEqualTo(4);
+        assertThat(summary.totalPrice()).isEqualByComparingTo("39.96");
+        assertThat(summary.byStatus().get(OrderStatus.NEW)).isEqualTo(
+                new OrderStatusSummaryDto(1, 1, new BigDecimal("9.99")));
+        assertThat(summary.byStatus().get(OrderStatus.READY).orderCount()).isEqualTo(1);
+        assertThat(summary.byStatus().get(OrderStatus.READY).totalPrice()).isEqualByComparingTo("29.97");
+        assertThat(summary.byStatus().get(OrderStatus.CANCELLED).orderCount()).isZero();
+    }
+
+    @Test
+    void testRebuildCustomerOrderSummariesMatchesIncrementalTotals() {
+        // Given
+        BeerOrderDto first = beerOrderService.createBeerOrder(newOrder(3));
+        beerOrderService.createBeerOrder(newOrder(2));
+        beerOrderService.updateBeerOrderStatus(first.id(), OrderStatus.CANCELLED);
+        CustomerOrderSummaryDto incremental = beerOrderService.getCustomerOrderSummary(customer.getId());
+
+        // When
+        int rows = beerOrderService.rebuildCustomerOrderSummaries();
+        CustomerOrderSummaryDto rebuilt = beerOrderService.getCustomerOrderSummary(customer.getId());
+
+        // Then
+        assertThat(rows).isPositive();
+        assertThat(rebuilt).usingRecursiveComparison()
+                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .isEqualTo(incremental);
+    }
+
+    private BeerOrderDto newOrder(int lineCount) {
+        Set<BeerOrderLineDto> lines = new HashSet<>();
+        for (int i = 0; i < lineCount; i++) {
+            BeerDto beer = new BeerDto(beers.get(i).getId(), null, null, null, null, null, null, null, null);
+            lines.add(new BeerOrderLineDto(null, null, beer, i + 1, 0));
+        }
+        return new BeerOrderDto(null, null, null, null, null, OrderStatus.NEW, customerDto(), lines);
+    }
+
+    /**
+     * Generates lines lazily, as a parser reading a request body would. The line with the given
+     * 1-based number, if any, has an invalid quantity.
+     */
+    private Iterator<BeerOrderLineDto> streamedLines(int lineCount, int invalidLineNumber) {
+        return IntStream.range(0, lineCount)
+                .mapToObj(i -> {
+                    BeerDto beer = new BeerDto(beers.get(i % LINE_COUNT).getId(), null, null, null, null, null, null, null, null);
+                    int orderQuantity = i + 1 == invalidLineNumber ? 0 : 1 + i % 3;
+                    return new BeerOrderLineDto(null, null, beer, orderQuantity, 0);
+                })
+                .iterator();
+    }
+
+    private CustomerDto customerDto() {
+        return new CustomerDto(customer.getId(), null, customer.getName(), customer.getEmail(), null);
+    }
+}
@@ -0,0 +1,142 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.domain.BeerDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeerSearchIndexTest {
+
+    BeerSearchIndex beerSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        beerSearchIndex = new BeerSearchIndex();
+        beerSearchIndex.index(beerDto(1, 1, "Galaxy Dry Hopped", "IPA", "0631234200036"));
+        beerSearchIndex.index(beerDto(2, 1, "Mango Bobs", "Pale Ale", "0631234300019"));
+        beerSearchIndex.index(beerDto(3, 1, "Sunshine City", "IPA", "9122089364369"));
+        beerSearchIndex.index(beerDto(4, 1, "Pinball Porter", "Porter", "0083783375213"));
+        beerSearchIndex.index(beerDto(5, 1, "Crépuscule Ale", "Saison", "4666337557578"));
+    }
+
+    @Test
+    void testTokenizeFoldsCaseAndAccents() {
+        // When
+        String[] tokens = BeerSearchIndex.tokenize("  Crème-Brûlée Stout #2 ");
+
+        // Then
+        assertThat(tokens).containsExactly("creme", "brulee", "stout", "2");
+    }
+
+    @Test
+    void testSearchMatchesWordPrefixes() {
+        // When / Then
+        assertThat(beerSearchIndex.search("gal", 10)).containsExactly(1);
+        assertThat(beerSearchIndex.search("dry ho", 10)).containsExactly(1);
+        assertThat(beerSearchIndex.search("crepus", 10)).containsExactly(5);
+        assertThat(beerSearchIndex.search("ipa city", 10)).containsExactly(3);
+        assertThat(beerSearchIndex.search("xyz", 10)).isEmpty();
+    }
+
+    @Test
+    void testSearchRanksNameMatchesAboveStyleMatches() {
+        // When
+        // "Porter" is both a name word and the style of beer 4; "Pale Ale" and "Crépuscule Ale" only match on "ale"
+        List<Integer> porters = beerSearchIndex.search("p", 10);
+        List<Integer> ales = beerSearchIndex.search("ale", 10);
+
+        // Then
+        assertThat(porters).containsExactly(4, 2);
+        assertThat(ales).containsExactly(5, 2);
+    }
+
+    @Test
+    void testSearchRanksNamesStartingWithQueryFirst() {
+        // Given
+        beerSearchIndex.index(beerDto(6, 1, "Golden Galaxy", "Lager", "5012345678900"));
+        beerSearchIndex.index(beerDto(7, 1, "Gal", "Lager", "5012345678917"));
+
+        // When
+        List<Integer> results = beerSearchIndex.search("gal", 10);
+
+        // Then
+        assertThat(results).containsExactly(7, 1, 6);
+    }
+
+    @Test
+    void testSearchIntersectsLargePostingLists() {
+        // Given
+        for (int id = 100; id < 5_000; id++) {
+            String style = id % 3 == 0 ? "Stout" : "Lager";
+            beerSearchIndex.index(beerDto(id, 1, (id % 2 == 0 ? "Imperial " : "Session ") + id, style, "U" + id));
+        }
+
+        // When
+        List<Integer> results = beerSearchIndex.search("imp stout", 3);
+
+        // Then
+        assertThat(results).containsExactly(102, 108, 114);
+    }
+
+    @Test
+    void testSearchMatchesUpcExactly() {
+        // When / Then
+        assertThat(beerSearchIndex.search("0631234300019", 10)).containsExactly(2);
+        assertThat(beerSearchIndex.search("063123", 10)).isEmpty();
+    }
+
+    @Test
+    void testSearchKeepsBestResultsUpToLimit() {
+        // When
+        // Both IPAs match on style alone, so the lower ID ranks first
+        List<Integer> results = beerSearchIndex.search("ipa", 1);
+
+        // Then
+        assertThat(results).containsExactly(1);
+    }
+
+    @Test
+    void testIndexReplacesTokensOfUpdatedBeer() {
+        // When
+        beerSearchIndex.index(beerDto(1, 2, "Nebula Haze", "IPA", "0631234200036"));
+
+        // Then
+        assertThat(beerSearchIndex.search("galaxy", 10)).isEmpty();
+        assertThat(beerSearchIndex.search("nebula", 10)).containsExactly(1);
+        assertThat(beerSearchIndex.size()).isEqualTo(5);
+    }
+
+    @Test
+    void testIndexIgnoresStaleVersion() {
+        // Given
+        beerSearchIndex.index(beerDto(1, 3, "Nebula Haze", "IPA", "0631234200036"));
+
+        // When
+        beerSearchIndex.index(beerDto(1, 2, "Galaxy Dry Hopped", "IPA", "0631234200036"));
+
+        // Then
+        assertThat(beerSearchIndex.search("nebula", 10)).containsExactly(1);
+        assertThat(beerSearchIndex.search("galaxy", 10)).isEmpty();
+    }
+
+    @Test
+    void testRemoveDropsBeerFromResults() {
+        // When
+        beerSearchIndex.remove(3);
+
+        // Then
+        assertThat(beerSearchIndex.search("ipa", 10)).containsExactly(1);
+        assertThat(beerSearchIndex.search("9122089364369", 10)).isEmpty();
+        assertThat(beerSearchIndex.size()).isEqualTo(4);
+    }
+
+    private static BeerDto beerDto(Integer id, Integer version, String beerName, String beerStyle, String upc) {
+        LocalDateTime now = LocalDateTime.now();
+        return new BeerDto(id, version, beerName, beerStyle, upc, 10, new BigDecimal("9.99"), now, now);
+    }
+}
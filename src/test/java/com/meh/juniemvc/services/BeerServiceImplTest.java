@@ -1,30 +1,56 @@
 package com.meh.juniemvc.services;
 
 import com.meh.juniemvc.domain.Beer;
+import com.meh.juniemvc.domain.BeerBulkResult;
+import com.meh.juniemvc.domain.BeerBulkStatus;
 import com.meh.juniemvc.domain.BeerCreateRequest;
 import com.meh.juniemvc.domain.BeerDto;
+import com.meh.juniemvc.domain.BeerPage;
+import com.meh.juniemvc.domain.BeerPageRequest;
+import com.meh.juniemvc.domain.BeerRevision;
 import com.meh.juniemvc.domain.BeerUpdateRequest;
+import com.meh.juniemvc.domain.BeerUpsertRequest;
+import com.meh.juniemvc.domain.VersionPrecondition;
+import com.meh.juniemvc.exceptions.PreconditionFailedException;
 import com.meh.juniemvc.mappers.BeerMapper;
 import com.meh.juniemvc.repositories.BeerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @Slf4j
@@ -37,6 +63,24 @@ class BeerServiceImplTest {
     @Mock
     BeerMapper beerMapper;
 
+    @Mock
+    BeerCache beerCache;
+
+    @Mock
+    BeerSearchIndex beerSearchIndex;
+
+    @Mock
+    BeerBatchWriter beerBatchWriter;
+
+    @Spy
+    BeerBulkProperties beerBulkProperties = new BeerBulkProperties(2);
+
+    @Mock
+    EntityManager entityManager;
+
+    @Spy
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     BeerServiceImpl beerService;
 
@@ -119,6 +163,90 @@ class BeerServiceImplTest {
         verify(beerMapper).beerCreateRequestToBeer(any(BeerCreateRequest.class));
         verify(beerRepository).save(any(Beer.class));
         verify(beerMapper).beerToBeerDto(any(Beer.class));
+        verify(beerCache).putAfterCommit(testBeerDto);
+        verify(beerSearchIndex).indexAfterCommit(testBeerDto);
+    }
+    
+    @Test
+    void testSaveBeersWritesValidItemsInChunks() {
+        // Given
+        BeerCreateRequest invalidRequest = new BeerCreateRequest("", "Lager", "654321", 50, new BigDecimal("9.99"));
+        List<BeerCreateRequest> requests = List.of(
+                testBeerCreateRequest, invalidRequest, testBeerCreateRequest, testBeerCreateRequest);
+        
+        given(beerBatchWriter.createChunk(any())).willAnswer(invocation -> {
+            List<BeerBulkItem<BeerCreateRequest>> chunk = invocation.getArgument(0);
+            return chunk.stream()
+                    .map(item -> new BeerBulkResult(item.index(), BeerBulkStatus.CREATED, testBeerDto, List.of()))
+                    .toList();
+        });
+        
+        // When
+        List<BeerBulkResult> results = beerService.saveBeers(requests);
+        log.info("Bulk results: {}", results);
+        
+        // Then
+        assertThat(results).extracting(BeerBulkResult::status).containsExactly(
+                BeerBulkStatus.CREATED, BeerBulkStatus.INVALID, BeerBulkStatus.CREATED, BeerBulkStatus.CREATED);
+        assertThat(results.get(1).errors()).containsExactly("Beer name is required");
+        verify(beerBatchWriter, times(2)).createChunk(any());
+    }
+    
+    @Test
+    void testSaveBeersWritesRejectedChunkOneItemAtATime() {
+        // Given
+        BeerCreateRequest takenRequest = new BeerCreateRequest("Taken", "Lager", "654321", 50, new BigDecimal("9.99"));
+        BeerCreateRequest changedRequest = new BeerCreateRequest("Changed", "Lager", "654322", 50, new BigDecimal("9.99"));
+        List<BeerCreateRequest> requests = List.of(testBeerCreateRequest, takenRequest, changedRequest);
+        
+        given(beerBatchWriter.createChunk(any())).willAnswer(invocation -> {
+            List<BeerBulkItem<BeerCreateRequest>> chunk = invocation.getArgument(0);
+            if (chunk.size() > 1 || chunk.getFirst().request() == takenRequest) {
+                throw new DataIntegrityViolationException("uk_beer_upc");
+            }
+            if (chunk.getFirst().request() == changedRequest) {
+                throw new ObjectOptimisticLockingFailureException(Beer.class, 1);
+            }
+            return List.of(new BeerBulkResult(chunk.getFirst().index(), BeerBulkStatus.CREATED, testBeerDto, List.of()));
+        });
+        
+        // When
+        List<BeerBulkResult> results = beerService.saveBeers(requests);
+        log.info("Bulk results: {}", results);
+        
+        // Then
+        assertThat(results).extracting(BeerBulkResult::status).containsExactly(
+                BeerBulkStatus.CREATED, BeerBulkStatus.DUPLICATE, BeerBulkStatus.CONFLICT);
+        verify(beerBatchWriter, times(4)).createChunk(any());
+    }
+    
+    @Test
+    void testUpsertBeersReportsNullItemsAsInvalid() {
+        // Given
+        List<BeerUpsertRequest> requests = new ArrayList<>();
+        requests.add(null);
+        
+        // When
+        List<BeerBulkResult> results = beerService.upsertBeers(requests);
+        
+        // Then
+        assertThat(results).extracting(BeerBulkResult::status).containsExactly(BeerBulkStatus.INVALID);
+        verify(beerBatchWriter, never()).upsertChunk(any());
+    }
+    
+    @Test
+    void testGetBeerByIdFromCache() {
+        // Given
+        given(beerCache.get(anyInt())).willReturn(Optional.of(testBeerDto));
+        
+        // When
+        Optional<BeerDto> beerDtoOptional = beerService.getBeerById(1);
+        log.info("Cached beer DTO: {}", beerDtoOptional);
+        
+        // Then
+        assertThat(beerDtoOptional).contains(testBeerDto);
+        verify(beerRepository, never()).findById(anyInt());
+        verify(beerMapper, never()).beerToBeerDto(any(Beer.class));
     }
     
     @Test
@@ -138,6 +266,7 @@ class BeerServiceImplTest {
         assertThat(foundBeerDto.beerName()).isEqualTo("Test Beer");
         verify(beerRepository).findById(anyInt());
         verify(beerMapper).beerToBeerDto(any(Beer.class));
+        verify(beerCache).putLoaded(eq(testBeerDto), anyLong());
     }
     
     @Test
@@ -156,35 +285,187 @@ class BeerServiceImplTest {
     }
     
     @Test
-    void testUpdateBeerSuccess() {
+    void testGetBeerByUpcFromCache() {
         // Given
-        Beer existingBeer = Beer.builder()
-                .id(1)
-                .version(1)
-                .beerName("Original Beer")
-                .beerStyle("IPA")
-                .upc("123456")
-                .price(new BigDecimal("12.99"))
-                .quantityOnHand(100)
-                .createdDate(now)
-                .updateDate(now)
-                .build();
+        given(beerCache.getByUpc("123456")).willReturn(Optional.of(testBeerDto));
         
-        Beer updatedBeer = Beer.builder()
-                .id(1)
-                .version(1)
-                .beerName("Updated Beer")
-                .beerStyle("Stout")
-                .upc("111111")
-                .price(new BigDecimal("14.99"))
-                .quantityOnHand(75)
-                .createdDate(now)
-                .updateDate(now)
-                .build();
+        // When
+        Optional<BeerDto> beerDtoOptional = beerService.getBeerByUpc("123456");
+        
+        // Then
+        assertThat(beerDtoOptional).contains(testBeerDto);
+        verify(beerRepository, never()).findByUpc(any());
+    }
+    
+    @Test
+    void testGetBeerByUpcFromRepositoryOnCacheMiss() {
+        // Given
+        given(beerCache.getByUpc("123456")).willReturn(Optional.empty());
+        given(beerRepository.findByUpc("123456")).willReturn(Optional.of(testBeer));
+        given(beerMapper.beerToBeerDto(testBeer)).willReturn(testBeerDto);
+        
+        // When
+        Optional<BeerDto> beerDtoOptional = beerService.getBeerByUpc("123456");
+        log.info("Beer found by UPC: {}", beerDtoOptional);
+        
+        // Then
+        assertThat(beerDtoOptional).contains(testBeerDto);
+        verify(beerCache).putLoaded(eq(testBeerDto), anyLong());
+    }
+    
+    @Test
+    void testGetBeerVersionFromCache() {
+        // Given
+        given(beerCache.get(1)).willReturn(Optional.of(testBeerDto));
+        
+        // When
+        Optional<Integer> version = beerService.getBeerVersion(1);
+        
+        // Then
+        assertThat(version).contains(testBeerDto.version());
+        verify(beerRepository, never()).findVersionById(anyInt());
+    }
+    
+    @Test
+    void testGetBeerVersionFromRepositoryOnCacheMiss() {
+        // Given
+        given(beerCache.get(1)).willReturn(Optional.empty());
+        given(beerRepository.findVersionById(1)).willReturn(Optional.of(4));
+        
+        // When
+        Optional<Integer> version = beerService.getBeerVersion(1);
+        
+        // Then
+        assertThat(version).contains(4);
+        verify(beerRepository, never()).findById(anyInt());
+        verify(beerMapper, never()).beerToBeerDto(any(Beer.class));
+    }
+    
+    @Test
+    void testListBeersReturnsCursorWhenMoreRowsExist() {
+        // Given
+        BeerPageRequest pageRequest = new BeerPageRequest(null, null, null, Sort.Direction.ASC, 1);
+        BeerDto secondBeerDto = new BeerDto(2, 1, "Second Beer", "IPA", "222222", 10,
+                new BigDecimal("9.99"), now, now);
+        given(beerRepository.findBeerPage(pageRequest, 2)).willReturn(List.of(testBeerDto, secondBeerDto));
+        
+        // When
+        BeerPage beerPage = beerService.listBeers(pageRequest);
+        log.info("Beer page: {}", beerPage);
+        
+        // Then
+        assertThat(beerPage.beers()).containsExactly(testBeerDto);
+        assertThat(beerPage.nextAfterId()).isEqualTo(1);
+    }
+    
+    @Test
+    void testListBeersLastPageHasNoCursor() {
+        // Given
+        BeerPageRequest pageRequest = new BeerPageRequest("Test", null, 0, Sort.Direction.ASC, 10);
+        given(beerRepository.findBeerPage(pageRequest, 11)).willReturn(List.of(testBeerDto));
+        
+        // When
+        BeerPage beerPage = beerService.listBeers(pageRequest);
+        
+        // Then
+        assertThat(beerPage.beers()).containsExactly(testBeerDto);
+        assertThat(beerPage.nextAfterId()).isNull();
+    }
+    
+    @Test
+    void testListBeersClampsPageSize() {
+        // Given
+        BeerPageRequest pageRequest = new BeerPageRequest(null, null, null, Sort.Direction.ASC, 10_000);
+        given(beerRepository.findBeerPage(eq(pageRequest), anyInt())).willReturn(List.of());
+        
+        // When
+        beerService.listBeers(pageRequest);
+        
+        // Then
+        verify(beerRepository).findBeerPage(pageRequest, BeerServiceImpl.MAX_PAGE_SIZE + 1);
+    }
+    
+    @Test
+    void testSearchBeersResolvesCacheFirstInRankOrder() {
+        // Given
+        Beer otherBeer = Beer.builder().id(2).version(1).beerName("Test Stout").build();
+        BeerDto otherBeerDto = new BeerDto(2, 1, "Test Stout", "Stout", "222222", 10,
+                new BigDecimal("8.99"), now, now);
+        given(beerSearchIndex.search("test", 10)).willReturn(List.of(2, 1, 3));
+        given(beerCache.getAll(Set.of(1, 2, 3))).willReturn(Map.of(1, testBeerDto));
+        given(beerRepository.findAllById(List.of(2, 3))).willReturn(List.of(otherBeer));
+        given(beerMapper.beerToBeerDto(otherBeer)).willReturn(otherBeerDto);
+        
+        // When
+        List<BeerDto> beers = beerService.searchBeers("test", 10);
+        log.info("Search results: {}", beers);
+        
+        // Then
+        assertThat(beers).containsExactly(otherBeerDto, testBeerDto);
+        verify(beerCache).putLoaded(eq(otherBeerDto), anyLong());
+    }
+    
+    @Test
+    void testGetBeersByIdsLoadsMissesInChunkedInQueries() {
+        // Given
+        List<Integer> ids = IntStream.rangeClosed(1, 2_500).boxed().toList();
+        given(beerCache.getAll(any())).willReturn(Map.of(1, testBeerDto));
+        given(beerRepository.findAllById(any())).willReturn(List.of());
+
+        // When
+        Map<Integer, BeerDto> beers = beerService.getBeersByIds(ids);
+
+        // Then
+        // 2,499 misses in IN lists of at most 1,000 IDs
+        assertThat(beers).containsOnlyKeys(1);
+        verify(beerRepository, times(3)).findAllById(any());
+    }
+
+    @Test
+    void testGetBeersByIdsIgnoresNullsAndEmptyInput() {
+        // When
+        Map<Integer, BeerDto> beers = beerService.getBeersByIds(Arrays.asList(null, null));
+
+        // Then
+        assertThat(beers).isEmpty();
+        verify(beerCache, never()).getAll(any());
+        verify(beerRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void testSearchBeersClampsLimit() {
+        // Given
+        given(beerSearchIndex.search("test", BeerServiceImpl.MAX_SEARCH_RESULTS)).willReturn(List.of());
+        
+        // When
+        List<BeerDto> beers = beerService.searchBeers("test", 1000);
         
+        // Then
+        assertThat(beers).isEmpty();
+        verify(beerRepository, never()).findAllById(any());
+    }
+    
+    @Test
+    void testExportBeersMapsAndDetachesEachBeer() {
+        // Given
+        given(beerRepository.streamAll()).willReturn(Stream.of(testBeer));
+        given(beerMapper.beerToBeerDto(testBeer)).willReturn(testBeerDto);
+        List<BeerDto> exported = new ArrayList<>();
+        
+        // When
+        beerService.exportBeers(exported::add);
+        
+        // Then
+        assertThat(exported).containsExactly(testBeerDto);
+        verify(entityManager).detach(testBeer);
+    }
+    
+    @Test
+    void testUpdateBeerSuccess() {
+        // Given
         BeerDto updatedBeerDto = new BeerDto(
                 1,
-                1,
+                2,
                 "Updated Beer",
                 "Stout",
                 "111111",
@@ -194,42 +475,90 @@ class BeerServiceImplTest {
                 now
         );
         
-        Beer mappedBeer = Beer.builder()
-                .beerName("Updated Beer")
-                .beerStyle("Stout")
-                .upc("111111")
-                .price(new BigDecimal("14.99"))
-                .quantityOnHand(75)
-                .build();
-        
-        given(beerRepository.findById(anyInt())).willReturn(Optional.of(existingBeer));
-        given(beerMapper.beerUpdateRequestToBeer(any(BeerUpdateRequest.class))).willReturn(mappedBeer);
-        given(beerRepository.save(any(Beer.class))).willReturn(updatedBeer);
-        given(beerMapper.beerToBeerDto(updatedBeer)).willReturn(updatedBeerDto);
+        given(beerCache.get(1)).willReturn(Optional.empty());
+        given(beerRepository.findRevisionById(1)).willReturn(Optional.of(new BeerRevision(1, now)));
+        given(beerRepository.updateBeer(eq(1), eq(1), eq("Updated Beer"), eq("Stout"), eq("111111"), eq(75),
+                eq(new BigDecimal("14.99")), any(LocalDateTime.class))).willReturn(1);
+        given(beerMapper.beerUpdateRequestToBeerDto(eq(1), eq(2), eq(testBeerUpdateRequest), eq(now),
+                any(LocalDateTime.class))).willReturn(updatedBeerDto);
         
         // When
         BeerDto result = beerService.updateBeer(1, testBeerUpdateRequest);
         log.info("Updated beer DTO: {}", result);
         
         // Then
-        assertThat(result).isNotNull();
-        assertThat(result.id()).isEqualTo(1);
-        assertThat(result.beerName()).isEqualTo("Updated Beer");
-        assertThat(result.beerStyle()).isEqualTo("Stout");
-        assertThat(result.upc()).isEqualTo("111111");
-        assertThat(result.price()).isEqualTo(new BigDecimal("14.99"));
-        assertThat(result.quantityOnHand()).isEqualTo(75);
+        assertThat(result).isEqualTo(updatedBeerDto);
+        verify(beerRepository, never()).findById(anyInt());
+        verify(beerRepository, never()).saveAndFlush(any(Beer.class));
+        verify(beerCache).putAfterCommit(updatedBeerDto);
+        verify(beerSearchIndex).indexAfterCommit(updatedBeerDto);
+    }
+    
+    @Test
+    void testUpdateBeerUsesCachedRevision() {
+        // Given
+        given(beerCache.get(1)).willReturn(Optional.of(testBeerDto));
+        given(beerRepository.updateBeer(eq(1), eq(1), any(), any(), any(), any(), any(), any())).willReturn(1);
         
-        verify(beerRepository).findById(anyInt());
-        verify(beerMapper).beerUpdateRequestToBeer(any(BeerUpdateRequest.class));
-        verify(beerRepository).save(any(Beer.class));
-        verify(beerMapper).beerToBeerDto(any(Beer.class));
+        // When
+        beerService.updateBeer(1, testBeerUpdateRequest, VersionPrecondition.of(1));
+        
+        // Then
+        verify(beerRepository, never()).findRevisionById(anyInt());
+        verify(beerMapper).beerUpdateRequestToBeerDto(eq(1), eq(2), eq(testBeerUpdateRequest), eq(now),
+                any(LocalDateTime.class));
+    }
+    
+    @Test
+    void testUpdateBeerRetriesWhenCachedRevisionIsStale() {
+        // Given
+        given(beerCache.get(1)).willReturn(Optional.of(testBeerDto));
+        given(beerRepository.updateBeer(eq(1), eq(1), any(), any(), any(), any(), any(), any())).willReturn(0);
+        given(beerRepository.findRevisionById(1)).willReturn(Optional.of(new BeerRevision(3, now)));
+        given(beerRepository.updateBeer(eq(1), eq(3), any(), any(), any(), any(), any(), any())).willReturn(1);
+        
+        // When
+        beerService.updateBeer(1, testBeerUpdateRequest);
+        
+        // Then
+        verify(beerMapper).beerUpdateRequestToBeerDto(eq(1), eq(4), eq(testBeerUpdateRequest), eq(now),
+                any(LocalDateTime.class));
+    }
+    
+    @Test
+    void testUpdateBeerTrustsExpectedVersionOverStaleCache() {
+        // Given
+        given(beerCache.get(1)).willReturn(Optional.of(testBeerDto));
+        given(beerRepository.updateBeer(eq(1), eq(2), any(), any(), any(), any(), any(), any())).willReturn(1);
+        
+        // When
+        beerService.updateBeer(1, testBeerUpdateRequest, VersionPrecondition.of(2));
+        
+        // Then
+        verify(beerRepository, never()).findRevisionById(anyInt());
+        verify(beerMapper).beerUpdateRequestToBeerDto(eq(1), eq(3), eq(testBeerUpdateRequest), eq(now),
+                any(LocalDateTime.class));
+    }
+    
+    @Test
+    void testUpdateBeerStaleVersionConfirmedByDatabase() {
+        // Given
+        given(beerCache.get(1)).willReturn(Optional.of(testBeerDto));
+        given(beerRepository.updateBeer(eq(1), eq(2), any(), any(), any(), any(), any(), any())).willReturn(0);
+        given(beerRepository.findRevisionById(1)).willReturn(Optional.of(new BeerRevision(3, now)));
+        
+        // When/Then
+        assertThatThrownBy(() -> beerService.updateBeer(1, testBeerUpdateRequest, VersionPrecondition.of(2)))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessage("Beer 1 is at version 3, not 2");
+        verify(beerCache, never()).putAfterCommit(any());
     }
     
     @Test
     void testUpdateBeerNotFound() {
         // Given
-        given(beerRepository.findById(anyInt())).willReturn(Optional.empty());
+        given(beerCache.get(1)).willReturn(Optional.empty());
+        given(beerRepository.findRevisionById(1)).willReturn(Optional.empty());
         
         // When
         BeerDto result = beerService.updateBeer(1, testBeerUpdateRequest);
@@ -237,16 +566,88 @@ class BeerServiceImplTest {
         
         // Then
         assertThat(result).isNull();
-        verify(beerRepository).findById(anyInt());
-        verify(beerRepository, never()).save(any(Beer.class));
-        verify(beerMapper, never()).beerToBeerDto(any(Beer.class));
+        verify(beerRepository, never()).updateBeer(any(), any(), any(), any(), any(), any(), any(), any());
+        verify(beerCache, never()).putAfterCommit(any());
+    }
+    
+    @Test
+    void testUpdateBeerStaleVersion() {
+        // Given
+        given(beerCache.get(1)).willReturn(Optional.empty());
+        given(beerRepository.findRevisionById(1)).willReturn(Optional.of(new BeerRevision(2, now)));
+        
+        // When/Then
+        assertThatThrownBy(() -> beerService.updateBeer(1, testBeerUpdateRequest, VersionPrecondition.of(1)))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessage("Beer 1 is at version 2, not 1");
+        verify(beerRepository, never()).updateBeer(any(), any(), any(), any(), any(), any(), any(), any());
+        verify(beerCache, never()).putAfterCommit(any());
+    }
+    
+    @Test
+    void testUpdateBeerConcurrentModificationFailsPrecondition() {
+        // Given
+        given(beerCache.get(1)).willReturn(Optional.empty());
+        given(beerRepository.findRevisionById(1))
+                .willReturn(Optional.of(new BeerRevision(1, now)))
+                .willReturn(Optional.of(new BeerRevision(2, now)));
+        given(beerRepository.updateBeer(eq(1), eq(1), any(), any(), any(), any(), any(), any())).willReturn(0);
+        
+        // When/Then
+        assertThatThrownBy(() -> beerService.updateBeer(1, testBeerUpdateRequest, VersionPrecondition.of(1)))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(beerCache, never()).putAfterCommit(any());
+    }
+    
+    @Test
+    void testUpdateBeerMatchesAnyListedVersion() {
+        // Given
+        given(beerCache.get(1)).willReturn(Optional.of(testBeerDto));
+        given(beerRepository.updateBeer(eq(1), eq(1), any(), any(), any(), any(), any(), any())).willReturn(1);
+        
+        // When
+        beerService.updateBeer(1, testBeerUpdateRequest, VersionPrecondition.of(1, 2));
+        
+        // Then
+        verify(beerRepository, never()).findRevisionById(anyInt());
+        verify(beerMapper).beerUpdateRequestToBeerDto(eq(1), eq(2), eq(testBeerUpdateRequest), eq(now),
+                any(LocalDateTime.class));
+    }
+    
+    @Test
+    void testUpdateBeerListedVersionsCheckedAgainstDatabase() {
+        // Given
+        given(beerCache.get(1)).willReturn(Optional.of(testBeerDto));
+        given(beerRepository.findRevisionById(1)).willReturn(Optional.of(new BeerRevision(3, now)));
+        given(beerRepository.updateBeer(eq(1), eq(3), any(), any(), any(), any(), any(), any())).willReturn(1);
+        
+        // When
+        beerService.updateBeer(1, testBeerUpdateRequest, VersionPrecondition.of(2, 3));
+        
+        // Then
+        verify(beerRepository, never()).updateBeer(eq(1), eq(1), any(), any(), any(), any(), any(), any());
+        verify(beerMapper).beerUpdateRequestToBeerDto(eq(1), eq(4), eq(testBeerUpdateRequest), eq(now),
+                any(LocalDateTime.class));
+    }
+    
+    @Test
+    void testUpdateBeerNotFoundFailsPrecondition() {
+        // Given
+        given(beerCache.get(1)).willReturn(Optional.empty());
+        given(beerRepository.findRevisionById(1)).willReturn(Optional.empty());
+        
+        // When/Then
+        assertThatThrownBy(() -> beerService.updateBeer(1, testBeerUpdateRequest, VersionPrecondition.ANY))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessage("Beer 1 does not exist");
+        verify(beerRepository, never()).updateBeer(any(), any(), any(), any(), any(), any(), any(), any());
     }
     
     @Test
     void testDeleteBeerSuccess() {
         // Given
         Integer beerId = 1;
-        given(beerRepository.existsById(anyInt())).willReturn(true);
+        given(beerRepository.deleteBeerById(beerId)).willReturn(1);
         
         // When
         boolean result = beerService.deleteBeer(beerId);
@@ -254,15 +655,54 @@ class BeerServiceImplTest {
         
         // Then
         assertTrue(result);
-        verify(beerRepository).existsById(beerId);
-        verify(beerRepository).deleteById(beerId);
+        verify(beerRepository, never()).findVersionById(anyInt());
+        verify(beerRepository, never()).deleteById(anyInt());
+        verify(beerCache).evictAfterCommit(beerId);
+        verify(beerSearchIndex).removeAfterCommit(beerId);
+    }
+    
+    @Test
+    void testDeleteBeerAtVersion() {
+        // Given
+        given(beerRepository.deleteBeerByIdAndVersionIn(1, Set.of(2))).willReturn(1);
+        
+        // When
+        boolean result = beerService.deleteBeer(1, VersionPrecondition.of(2));
+        
+        // Then
+        assertTrue(result);
+        verify(beerCache).evictAfterCommit(1);
+    }
+    
+    @Test
+    void testDeleteBeerStaleVersion() {
+        // Given
+        given(beerRepository.deleteBeerByIdAndVersionIn(1, Set.of(2))).willReturn(0);
+        given(beerRepository.findVersionById(1)).willReturn(Optional.of(3));
+        
+        // When/Then
+        assertThatThrownBy(() -> beerService.deleteBeer(1, VersionPrecondition.of(2)))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(beerCache, never()).evictAfterCommit(anyInt());
+    }
+    
+    @Test
+    void testDeleteBeerNotFoundFailsPrecondition() {
+        // Given
+        given(beerRepository.deleteBeerById(1)).willReturn(0);
+        given(beerRepository.findVersionById(1)).willReturn(Optional.empty());
+        
+        // When/Then
+        assertThatThrownBy(() -> beerService.deleteBeer(1, VersionPrecondition.ANY))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessage("Beer 1 does not exist");
     }
     
     @Test
     void testDeleteBeerNotFound() {
         // Given
         Integer beerId = 1;
-        given(beerRepository.existsById(anyInt())).willReturn(false);
+        given(beerRepository.deleteBeerById(beerId)).willReturn(0);
         
         // When
         boolean result = beerService.deleteBeer(beerId);
@@ -270,7 +710,6 @@ class BeerServiceImplTest {
         
         // Then
         assertFalse(result);
-        verify(beerRepository).existsById(beerId);
-        verify(beerRepository, never()).deleteById(anyInt());
+        verify(beerCache, never()).evictAfterCommit(anyInt());
     }
 }
\ No newline at end of file
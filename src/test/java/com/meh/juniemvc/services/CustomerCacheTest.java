@@ -0,0 +1,229 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.api.model.CustomerDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CustomerCacheTest {
+
+    CustomerCache customerCache;
+
+    @BeforeEach
+    void setUp() {
+        customerCache = new CustomerCache(new CustomerCacheProperties(100, Duration.ofMinutes(10)));
+    }
+
+    @Test
+    void testPutRejectsStaleVersion() {
+        // Given
+        customerCache.put(customerDto(1, 2, "new@example.com"));
+
+        // When
+        customerCache.put(customerDto(1, 1, "old@example.com"));
+
+        // Then
+        assertThat(customerCache.get(1)).hasValueSatisfying(customer -> assertThat(customer.version()).isEqualTo(2));
+    }
+
+    @Test
+    void testGetByEmailServesCachedCustomerWithoutLoading() {
+        // Given
+        customerCache.getByEmail("cached@example.com", () -> Optional.of(customerDto(1, 1, "cached@example.com")));
+
+        // When
+        Optional<CustomerDto> customer = customerCache.getByEmail("cached@example.com", () -> {
+            throw new AssertionError("Loader must not be called on a hit");
+        });
+
+        // Then
+        assertThat(customer).isPresent();
+    }
+
+    @Test
+    void testGetByEmailMissesAfterEmailChanges() {
+        // Given
+        customerCache.put(customerDto(1, 1, "before@example.com"));
+        customerCache.put(customerDto(1, 2, "after@example.com"));
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        Optional<CustomerDto> customer = customerCache.getByEmail("before@example.com", () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // Then
+        assertThat(customer).isEmpty();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testConcurrentEmailMissesShareOneLoad() throws Exception {
+        // Given
+        int threads = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        Supplier<Optional<CustomerDto>> loader = () -> {
+            loads.incrementAndGet();
+            loadStarted.countDown();
+            try {
+                releaseLoad.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of(customerDto(1, 1, "burst@example.com"));
+        };
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Optional<CustomerDto>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> customerCache.getByEmail("burst@example.com", loader)));
+            }
+            assertThat(loadStarted.await(10, TimeUnit.SECONDS)).isTrue();
+            // Give the other callers time to miss and start waiting on the load in flight
+            Thread.sleep(100);
+            releaseLoad.countDown();
+
+            // Then
+            for (Future<Optional<CustomerDto>> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isPresent();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(customerCache.get(1)).isPresent();
+    }
+
+    @Test
+    void testFailedEmailLoadIsNotCached() {
+        // Given
+        Supplier<Optional<CustomerDto>> failingLoader = () -> {
+            throw new IllegalStateException("database down");
+        };
+
+        // When/Then
+        assertThatThrownBy(() -> customerCache.getByEmail("fail@example.com", failingLoader))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(customerCache.getByEmail("fail@example.com",
+                () -> Optional.of(customerDto(3, 1, "fail@example.com")))).isPresent();
+    }
+
+    @Test
+    void testLoadByIdDoesNotRemapEmail() {
+        // Given
+        customerCache.getByEmail("shared@example.com", () -> Optional.of(customerDto(3, 1, "shared@example.com")));
+
+        // When
+        customerCache.putLoaded(customerDto(7, 1, "shared@example.com"), customerCache.startLoad());
+
+        // Then
+        assertThat(customerCache.getByEmail("shared@example.com", () -> {
+            throw new AssertionError("Loader must not be called on a hit");
+        })).hasValueSatisfying(customer -> assertThat(customer.id()).isEqualTo(3));
+    }
+
+    @Test
+    void testWriteOfLowerIdDropsEmailMapping() {
+        // Given
+        customerCache.getByEmail("shared@example.com", () -> Optional.of(customerDto(3, 1, "shared@example.com")));
+        customerCache.put(customerDto(9, 1, "shared@example.com"));
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Optional<CustomerDto>> loader = () -> {
+            loads.incrementAndGet();
+            return Optional.of(customerDto(2, 1, "shared@example.com"));
+        };
+
+        // When
+        Optional<CustomerDto> beforeLowerId = customerCache.getByEmail("shared@example.com", loader);
+        customerCache.put(customerDto(2, 1, "shared@example.com"));
+        Optional<CustomerDto> afterLowerId = customerCache.getByEmail("shared@example.com", loader);
+
+        // Then
+        assertThat(beforeLowerId).hasValueSatisfying(customer -> assertThat(customer.id()).isEqualTo(3));
+        assertThat(afterLowerId).hasValueSatisfying(customer -> assertThat(customer.id()).isEqualTo(2));
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testEmailLoadOverlappingWriteDoesNotMapEmail() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        // A lower ID takes the email while the load, which read the old lowest, is in flight
+        customerCache.getByEmail("shared@example.com", () -> {
+            loads.incrementAndGet();
+            customerCache.put(customerDto(2, 1, "shared@example.com"));
+            return Optional.of(customerDto(3, 1, "shared@example.com"));
+        });
+        Optional<CustomerDto> customer = customerCache.getByEmail("shared@example.com", () -> {
+            loads.incrementAndGet();
+            return Optional.of(customerDto(2, 1, "shared@example.com"));
+        });
+
+        // Then
+        assertThat(customer).hasValueSatisfying(found -> assertThat(found.id()).isEqualTo(2));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void testLoadOverlappingDeleteIsNotCached() {
+        // Given
+        CustomerDto customer = customerDto(4, 1, "deleted@example.com");
+        long loadStartedAt = customerCache.startLoad();
+
+        // When
+        // The delete commits after the reader's query but before its put
+        customerCache.evictAfterCommit(4);
+        customerCache.putLoaded(customer, loadStartedAt);
+        customerCache.getByEmail("deleted@example.com", () -> {
+            customerCache.evictAfterCommit(4);
+            return Optional.of(customer);
+        });
+
+        // Then
+        assertThat(customerCache.get(4)).isEmpty();
+        AtomicInteger loads = new AtomicInteger();
+        customerCache.getByEmail("deleted@example.com", () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testLoadStartedAfterDeleteIsCached() {
+        // Given
+        customerCache.evictAfterCommit(5);
+        long loadStartedAt = customerCache.startLoad();
+
+        // When
+        customerCache.putLoaded(customerDto(5, 1, "recreated@example.com"), loadStartedAt);
+
+        // Then
+        assertThat(customerCache.get(5)).isPresent();
+    }
+
+    private static CustomerDto customerDto(Integer id, Integer version, String email) {
+        return new CustomerDto(id, version, "Customer " + id, email, null);
+    }
+}
@@ -0,0 +1,168 @@
+package com.meh.juniemvc.services;
+
+import com.meh.juniemvc.api.model.CustomerDto;
+import com.meh.juniemvc.domain.BeerOrder;
+import com.meh.juniemvc.domain.Customer;
+import com.meh.juniemvc.domain.OrderStatus;
+import com.meh.juniemvc.repositories.BeerOrderRepository;
+import com.meh.juniemvc.repositories.CustomerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Background pollers are kept quiet so they don't add to the statement counts.
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "junie.outbox.enabled=false",
+        "junie.idempotency.purge-interval=1h"
+})
+class CustomerServiceImplTest {
+
+    @Autowired
+    CustomerService customerService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    BeerOrderRepository beerOrderRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    Statistics statistics;
+    List<Integer> customerIds = new ArrayList<>();
+    List<Integer> beerOrderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerOrderRepository.deleteAllById(beerOrderIds);
+        customerRepository.deleteAllById(customerIds);
+    }
+
+    @Test
+    void testSaveUpdateAndDeleteCustomer() {
+        // Given
+        CustomerDto saved = save("Crud Customer", "crud@example.com");
+
+        // When
+        CustomerDto updated = customerService.updateCustomer(saved.id(),
+                new CustomerDto(null, null, "Crud Customer", "crud.new@example.com", "555-0100"));
+
+        // Then
+        assertThat(updated.version()).isEqualTo(saved.version() + 1);
+        assertThat(customerService.getCustomerById(saved.id())).contains(updated);
+        assertThat(customerService.getCustomerByEmail("crud@example.com")).isEmpty();
+        assertThat(customerService.getCustomerByEmail("crud.new@example.com")).contains(updated);
+        assertThat(customerService.updateCustomer(Integer.MAX_VALUE, updated)).isNull();
+
+        assertThat(customerService.deleteCustomer(saved.id())).isTrue();
+        assertThat(customerService.getCustomerById(saved.id())).isEmpty();
+        assertThat(customerService.deleteCustomer(saved.id())).isFalse();
+    }
+
+    @Test
+    void testReadsNeverLoadBeerOrders() {
+        // Given
+        Customer customer = insertUncached("Orders Customer", "orders@example.com");
+        beerOrderIds.add(beerOrderRepository.save(BeerOrder.builder()
+                .orderStatus(OrderStatus.NEW)
+                .customer(customer)
+                .build()).getId());
+        statistics.clear();
+
+        // When
+        Optional<CustomerDto> byId = customerService.getCustomerById(customer.getId());
+        Optional<CustomerDto> byEmail = customerService.getCustomerByEmail("orders@example.com");
+        Page<CustomerDto> page = customerService.listCustomers(PageRequest.of(0, 10, Sort.by("id")));
+
+        // Then
+        assertThat(byId).isPresent();
+        assertThat(byEmail).isPresent();
+        assertThat(page.getContent()).isNotEmpty();
+        // Read from the database, yet no Customer entity, so no beer orders, was loaded
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+
+    @Test
+    void testDeleteCustomerWithOrdersIsRefused() {
+        // Given
+        CustomerDto saved = save("Referenced Customer", "referenced@example.com");
+        beerOrderIds.add(beerOrderRepository.save(BeerOrder.builder()
+                .orderStatus(OrderStatus.NEW)
+                .customer(customerRepository.getReferenceById(saved.id()))
+                .build()).getId());
+
+        // When/Then
+        assertThatThrownBy(() -> customerService.deleteCustomer(saved.id()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void testEmailLookupUsesIndexAndThenCache() {
+        // Given
+        Customer customer = insertUncached("Login Customer", "login@example.com");
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT id FROM customer WHERE email = 'login@example.com'", String.class);
+        log.info("Email lookup plan: {}", plan);
+        statistics.clear();
+
+        // When
+        Optional<CustomerDto> first = customerService.getCustomerByEmail("login@example.com");
+        long firstStatements = statistics.getPrepareStatementCount();
+        Optional<CustomerDto> second = customerService.getCustomerByEmail("login@example.com");
+
+        // Then
+        assertThat(plan).containsIgnoringCase("idx_customer_email");
+        assertThat(first).hasValueSatisfying(found -> assertThat(found.id()).isEqualTo(customer.getId()));
+        assertThat(second).isEqualTo(first);
+        assertThat(firstStatements).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private CustomerDto save(String name, String email) {
+        CustomerDto saved = customerService.saveCustomer(new CustomerDto(null, null, name, email, null));
+        customerIds.add(saved.id());
+        return saved;
+    }
+
+    /**
+     * Inserts a customer through the repository, so the service's cache hasn't seen it.
+     */
+    private Customer insertUncached(String name, String email) {
+        Customer customer = customerRepository.save(Customer.builder().name(name).email(email).build());
+        customerIds.add(customer.getId());
+        return customer;
+    }
+}